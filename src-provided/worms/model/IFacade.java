@@ -1,6 +1,7 @@
 package worms.model;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Random;
 
 import worms.gui.game.IActionHandler;
@@ -180,6 +181,14 @@ public interface IFacade {
 	 */
 	Worm getCurrentWorm(World world);
 
+	/**
+	 * Returns the ways in which the given worm can fire its active weapon to
+	 * hit the given target point, as (direction, propulsion yield) pairs.
+	 * The returned list is empty if the target point is out of reach.
+	 */
+	List<FiringSolution> getFiringSolutions(Worm worm, double targetX,
+			double targetY);
+
 	/**
 	 * Returns all the food rations in the world
 	 * 
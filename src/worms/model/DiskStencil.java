@@ -0,0 +1,205 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of disk stencils involving an outer radius, an inner radius and the
+ * size of the pixels of a terrain.
+ * 	A disk stencil registers, as integer offsets with respect to the pixel
+ * 	containing the centre of an annulus, the pixels that may overlap that
+ * 	annulus wherever the centre is located inside its pixel. For each row
+ * 	offset the stencil holds a left and a right span of column offsets; the
+ * 	columns in between lie entirely inside the inner radius. A disk is an
+ * 	annulus with inner radius zero, for which the right span is empty.
+ *
+ * @invar	The inner radius of each disk stencil is not greater than its outer
+ * 			radius.
+ * 		  |	getInnerRadius() <= getOuterRadius()
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+public class DiskStencil {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new disk stencil with the given outer radius, the given
+	 * inner radius and pixels of the given width and the given height.
+	 *
+	 * @param 	outerRadius
+	 * 			The outer radius for this new disk stencil in metres.
+	 * @param 	innerRadius
+	 * 			The inner radius for this new disk stencil in metres.
+	 * @param 	pixelWidth
+	 * 			The width of each pixel in metres.
+	 * @param 	pixelHeight
+	 * 			The height of each pixel in metres.
+	 * @post	...
+	 * 		  |	new.getOuterRadius() == outerRadius
+	 * @post	...
+	 * 		  |	new.getInnerRadius() == innerRadius
+	 * @post	Each pixel at row offset dr and column offset dc is covered by
+	 * 			this new stencil if and only if the gap between that pixel and
+	 * 			the centre pixel is less than the outer radius and the largest
+	 * 			distance between both pixels is greater than the inner radius.
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	! (0 <= innerRadius <= outerRadius < infinity)
+	 */
+	public DiskStencil(double outerRadius, double innerRadius,
+			double pixelWidth, double pixelHeight)
+			throws IllegalArgumentException {
+		if (! ((innerRadius >= 0) && (innerRadius <= outerRadius)
+				&& (outerRadius < Double.POSITIVE_INFINITY)))
+			throw new IllegalArgumentException();
+		this.outerRadius = outerRadius;
+		this.innerRadius = innerRadius;
+		int maxRowOffset = (int) Math.ceil(outerRadius / pixelHeight);
+		int nbRowOffsets = 2 * maxRowOffset + 1;
+		rowOffsets = new int[nbRowOffsets];
+		leftFrom = new int[nbRowOffsets];
+		leftTo = new int[nbRowOffsets];
+		rightFrom = new int[nbRowOffsets];
+		rightTo = new int[nbRowOffsets];
+		int size = 0;
+		for (int dr = -maxRowOffset; dr <= maxRowOffset; dr++) {
+			double gapY = Math.max(0, Math.abs(dr) - 1) * pixelHeight;
+			double farY = (Math.abs(dr) + 1) * pixelHeight;
+			int outer = maxColumnOffset(gapY, pixelWidth);
+			if (outer < 0) continue;
+			int inner = minColumnOffset(farY, pixelWidth);
+			if (inner > outer) continue;
+			rowOffsets[size] = dr;
+			leftFrom[size] = -outer;
+			if (inner == 0) {
+				leftTo[size] = outer + 1;
+				rightFrom[size] = 0;
+				rightTo[size] = 0;
+			} else {
+				leftTo[size] = -inner + 1;
+				rightFrom[size] = inner;
+				rightTo[size] = outer + 1;
+			}
+			size++;
+		}
+		this.size = size;
+	}
+
+	/**
+	 * Return the largest column offset of which the gap with the centre pixel
+	 * is less than the outer radius of this stencil, given the vertical gap.
+	 * 	The result is negative if there is no such column offset.
+	 */
+	private int maxColumnOffset(double gapY, double pixelWidth) {
+		if (gapY >= outerRadius) return -1;
+		double gapX = Math.sqrt(outerRadius * outerRadius - gapY * gapY);
+		// gap (|dc| - 1) * pixelWidth must be smaller than gapX
+		return (int) Math.ceil(gapX / pixelWidth);
+	}
+
+	/**
+	 * Return the smallest column offset of which the largest distance to the
+	 * centre pixel is greater than the inner radius of this stencil, given
+	 * the vertical distance.
+	 */
+	private int minColumnOffset(double farY, double pixelWidth) {
+		if (farY > innerRadius) return 0;
+		double farX = Math.sqrt(innerRadius * innerRadius - farY * farY);
+		// distance (|dc| + 1) * pixelWidth must be greater than farX
+		return Math.max(0, (int) Math.floor(farX / pixelWidth) - 1);
+	}
+
+
+
+
+	/**
+	 * Return the outer radius of this disk stencil in metres.
+	 */
+	@Basic
+	@Immutable
+	public double getOuterRadius() {
+		return outerRadius;
+	}
+
+	private final double outerRadius;
+
+	/**
+	 * Return the inner radius of this disk stencil in metres.
+	 */
+	@Basic
+	@Immutable
+	public double getInnerRadius() {
+		return innerRadius;
+	}
+
+	private final double innerRadius;
+
+	/**
+	 * Return the number of row offsets covered by this disk stencil.
+	 */
+	@Basic
+	@Immutable
+	public int getNbRowOffsets() {
+		return size;
+	}
+
+	private final int size;
+
+	/**
+	 * Return the row offset at the given index.
+	 */
+	@Basic
+	@Immutable
+	public int getRowOffset(int index) {
+		return rowOffsets[index];
+	}
+
+	/**
+	 * Return the first column offset of the left span at the given index.
+	 */
+	@Basic
+	@Immutable
+	public int getLeftFrom(int index) {
+		return leftFrom[index];
+	}
+
+	/**
+	 * Return the column offset right after the left span at the given index.
+	 */
+	@Basic
+	@Immutable
+	public int getLeftTo(int index) {
+		return leftTo[index];
+	}
+
+	/**
+	 * Return the first column offset of the right span at the given index.
+	 */
+	@Basic
+	@Immutable
+	public int getRightFrom(int index) {
+		return rightFrom[index];
+	}
+
+	/**
+	 * Return the column offset right after the right span at the given index.
+	 */
+	@Basic
+	@Immutable
+	public int getRightTo(int index) {
+		return rightTo[index];
+	}
+
+	private final int[] rowOffsets;
+
+	private final int[] leftFrom;
+
+	private final int[] leftTo;
+
+	private final int[] rightFrom;
+
+	private final int[] rightTo;
+
+}
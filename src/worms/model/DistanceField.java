@@ -0,0 +1,183 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of distance fields registering for each pixel of a terrain the
+ * distance in metres from the centre of that pixel to the centre of the
+ * nearest impassable pixel of that terrain.
+ * 	The field is an exact Euclidean distance transform, computed once with
+ * 	the separable lower envelope algorithm of Felzenszwalb and Huttenlocher
+ * 	(first along the columns, then along the rows). Pixels need not be square.
+ *
+ * @invar	The distance of each pixel is not negative.
+ * 		  |	for each row, column:
+ * 		  |		getDistance(row, column) >= 0
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+public class DistanceField {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new distance field for the given terrain with pixels of
+	 * the given width and the given height.
+	 *
+	 * @param 	terrain
+	 * 			The terrain for this new distance field.
+	 * @param 	pixelWidth
+	 * 			The width of each pixel of the given terrain in metres.
+	 * @param 	pixelHeight
+	 * 			The height of each pixel of the given terrain in metres.
+	 * @post	...
+	 * 		  |	for each row, column:
+	 * 		  |		new.getDistance(row, column) ==
+	 * 		  |			min { sqrt(((column - c) * pixelWidth)^2
+	 * 		  |				+ ((row - r) * pixelHeight)^2)
+	 * 		  |			  | terrain.isImpassable(r, c) }
+	 * @post	If the given terrain has no impassable pixels, the distance of
+	 * 			each pixel is positive infinity.
+	 */
+	public DistanceField(Terrain terrain, double pixelWidth,
+			double pixelHeight) {
+		this.nbRows = terrain.getNbRows();
+		this.nbColumns = terrain.getNbColumns();
+		this.distances = new float[nbRows * nbColumns];
+
+		double[] squared = new double[nbRows * nbColumns];
+		for (int row = 0; row < nbRows; row++) {
+			for (int column = 0; column < nbColumns; column++) {
+				squared[row * nbColumns + column] =
+					terrain.isImpassable(row, column) ? 0 : INFINITY;
+			}
+		}
+
+		int length = Math.max(nbRows, nbColumns);
+		double[] line = new double[length];
+		double[] result = new double[length];
+		int[] vertices = new int[length];
+		double[] boundaries = new double[length + 1];
+
+		for (int column = 0; column < nbColumns; column++) {
+			for (int row = 0; row < nbRows; row++) {
+				line[row] = squared[row * nbColumns + column];
+			}
+			transform(line, nbRows, pixelHeight, result, vertices, boundaries);
+			for (int row = 0; row < nbRows; row++) {
+				squared[row * nbColumns + column] = result[row];
+			}
+		}
+		for (int row = 0; row < nbRows; row++) {
+			System.arraycopy(squared, row * nbColumns, line, 0, nbColumns);
+			transform(line, nbColumns, pixelWidth, result, vertices,
+					boundaries);
+			for (int column = 0; column < nbColumns; column++) {
+				distances[row * nbColumns + column] = (result[column] >= INFINITY)
+					? Float.POSITIVE_INFINITY : (float) Math.sqrt(result[column]);
+			}
+		}
+	}
+
+	/**
+	 * Compute the one dimensional squared distance transform of the first n
+	 * values of the given line, with the given spacing between two samples,
+	 * and store it in the given result.
+	 */
+	private static void transform(double[] line, int n, double spacing,
+			double[] result, int[] vertices, double[] boundaries) {
+		int k = 0;
+		vertices[0] = 0;
+		boundaries[0] = Double.NEGATIVE_INFINITY;
+		boundaries[1] = Double.POSITIVE_INFINITY;
+		for (int q = 1; q < n; q++) {
+			double s = intersection(line, vertices[k], q, spacing);
+			while (s <= boundaries[k]) {
+				k--;
+				s = intersection(line, vertices[k], q, spacing);
+			}
+			k++;
+			vertices[k] = q;
+			boundaries[k] = s;
+			boundaries[k + 1] = Double.POSITIVE_INFINITY;
+		}
+		k = 0;
+		for (int q = 0; q < n; q++) {
+			double zq = q * spacing;
+			while (boundaries[k + 1] < zq) {
+				k++;
+			}
+			double dz = zq - vertices[k] * spacing;
+			result[q] = Math.min(dz * dz + line[vertices[k]], INFINITY);
+		}
+	}
+
+	/**
+	 * Return the position at which the parabolas rooted at the given samples
+	 * of the given line intersect.
+	 */
+	private static double intersection(double[] line, int v, int q,
+			double spacing) {
+		double zv = v * spacing;
+		double zq = q * spacing;
+		return ((line[q] + zq * zq) - (line[v] + zv * zv)) / (2 * (zq - zv));
+	}
+
+	/**
+	 * Variable registering the finite value used in place of infinity while
+	 * computing squared distances.
+	 */
+	private static final double INFINITY = 1e30;
+
+
+
+
+	/**
+	 * Return the number of rows of this distance field.
+	 */
+	@Basic
+	@Immutable
+	public int getNbRows() {
+		return nbRows;
+	}
+
+	private final int nbRows;
+
+	/**
+	 * Return the number of columns of this distance field.
+	 */
+	@Basic
+	@Immutable
+	public int getNbColumns() {
+		return nbColumns;
+	}
+
+	private final int nbColumns;
+
+	/**
+	 * Return the distance in metres from the centre of the pixel at the given
+	 * row and the given column to the centre of the nearest impassable pixel.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	(row < 0) || (row >= getNbRows())
+	 * 		  |	|| (column < 0) || (column >= getNbColumns())
+	 */
+	@Basic
+	@Immutable
+	public double getDistance(int row, int column)
+			throws IndexOutOfBoundsException {
+		if ((row < 0) || (row >= nbRows) || (column < 0)
+				|| (column >= nbColumns))
+			throw new IndexOutOfBoundsException();
+		return distances[row * nbColumns + column];
+	}
+
+	/**
+	 * Array registering the distance of each pixel, row after row.
+	 */
+	private final float[] distances;
+
+}
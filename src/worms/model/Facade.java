@@ -2,6 +2,7 @@ package worms.model;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 
 import worms.exceptions.ModelException;
@@ -207,6 +208,22 @@ public class Facade implements IFacade {
 		return world.getCurrentWorm();
 	}
 
+	/**
+	 * Returns the ways in which the given worm can fire its active weapon to
+	 * hit the given target point, as (direction, propulsion yield) pairs.
+	 */
+	@Override
+	public List<FiringSolution> getFiringSolutions(Worm worm, double targetX,
+			double targetY) {
+		try {
+			return new FiringSolver(worm, worm.getActiveWeapon())
+					.getSolutions(targetX, targetY);
+		}
+		catch (Exception exc) {
+			throw new ModelException(exc);
+		}
+	}
+
 	/**
 	 * Returns all the food rations in the world
 	 * 
@@ -258,10 +275,9 @@ public class Facade implements IFacade {
 	public double[] getJumpStep(Worm worm, double t) {
 		double[] location = new double[2];
 		try {
-			double F = worm.getLaunchForce();
-			Position position = worm.jumpStep(t, worm.jumpSpeed(F));
-			location[0] = position.getX();
-			location[1] = position.getY();
+			Trajectory trajectory = worm.getJumpTrajectory();
+			location[0] = trajectory.getX(t);
+			location[1] = trajectory.getY(t);
 			//System.out.println("jumpstep (" + worm.getName() + "): "
 			//		+ position.toString());
 		} catch (Exception exc) {
@@ -444,7 +460,7 @@ public class Facade implements IFacade {
 	 */
 	@Override
 	public double getX(Projectile projectile) {
-		return projectile.getPosition().getX();
+		return projectile.getX();
 	}
 
 	/**
@@ -452,7 +468,7 @@ public class Facade implements IFacade {
 	 */
 	@Override
 	public double getX(Worm worm) {
-		return worm.getPosition().getX();
+		return worm.getX();
 	}
 
 	/**
@@ -470,7 +486,7 @@ public class Facade implements IFacade {
 	 */
 	@Override
 	public double getY(Projectile projectile) {
-		return projectile.getPosition().getY();
+		return projectile.getY();
 	}
 
 	/**
@@ -478,7 +494,7 @@ public class Facade implements IFacade {
 	 */
 	@Override
 	public double getY(Worm worm) {
-		return worm.getPosition().getY();
+		return worm.getY();
 	}
 
 	/**
@@ -0,0 +1,137 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of firing solutions involving a direction, a propulsion yield and
+ * a flight time.
+ * 	A firing solution describes how a worm must fire its weapon for the
+ * 	projectile to reach a given target: the direction to face, the
+ * 	propulsion yield to fire with, and the time the projectile needs to
+ * 	reach the target.
+ *
+ * @invar	The direction of each firing solution is a valid direction.
+ * 		  |	GameObject.isValidDirection(getDirection())
+ * @invar	The flight time of each firing solution is not negative.
+ * 		  |	getFlightTime() >= 0
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+@Value
+public class FiringSolution {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new firing solution with the given direction, the
+	 * given propulsion yield and the given flight time.
+	 *
+	 * @param 	direction
+	 * 			The direction in which to fire.
+	 * @param 	propulsionYield
+	 * 			The propulsion yield with which to fire.
+	 * @param 	flightTime
+	 * 			The time the projectile needs to reach the target.
+	 * @post	...
+	 * 		  |	new.getDirection() == direction
+	 * @post	...
+	 * 		  |	new.getPropulsionYield() == propulsionYield
+	 * @post	...
+	 * 		  |	new.getFlightTime() == flightTime
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	(! GameObject.isValidDirection(direction))
+	 * 		  |	|| ! (0 <= flightTime < infinity)
+	 */
+	public FiringSolution(double direction, int propulsionYield,
+			double flightTime) throws IllegalArgumentException {
+		if (! GameObject.isValidDirection(direction))
+			throw new IllegalArgumentException();
+		if (! ((flightTime >= 0) && (flightTime < Double.POSITIVE_INFINITY)))
+			throw new IllegalArgumentException();
+		this.direction = direction;
+		this.propulsionYield = propulsionYield;
+		this.flightTime = flightTime;
+	}
+
+
+
+
+	/**
+	 * Return the direction in which to fire according to this firing
+	 * solution.
+	 */
+	@Basic
+	@Immutable
+	public double getDirection() {
+		return direction;
+	}
+
+	private final double direction;
+
+	/**
+	 * Return the propulsion yield with which to fire according to this
+	 * firing solution.
+	 */
+	@Basic
+	@Immutable
+	public int getPropulsionYield() {
+		return propulsionYield;
+	}
+
+	private final int propulsionYield;
+
+	/**
+	 * Return the time in seconds the projectile fired according to this
+	 * firing solution needs to reach its target.
+	 */
+	@Basic
+	@Immutable
+	public double getFlightTime() {
+		return flightTime;
+	}
+
+	private final double flightTime;
+
+
+
+
+	/**
+	 * Check whether this firing solution is equal to the given object.
+	 *
+	 * @return	True if and only if the given object is a firing solution
+	 * 			with the same direction, the same propulsion yield and the
+	 * 			same flight time as this firing solution.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (other == null)
+			return false;
+		if (this.getClass() != other.getClass())
+			return false;
+		FiringSolution otherSolution = (FiringSolution) other;
+		return (direction == otherSolution.direction)
+				&& (propulsionYield == otherSolution.propulsionYield)
+				&& (flightTime == otherSolution.flightTime);
+	}
+
+	/**
+	 * Return the hash code of this firing solution.
+	 */
+	@Override
+	public int hashCode() {
+		long bits = Double.doubleToLongBits(direction);
+		bits = 31 * bits + Double.doubleToLongBits(flightTime);
+		return (int) (bits ^ (bits >>> 32)) * 31 + propulsionYield;
+	}
+
+	/**
+	 * Return a textual representation of this firing solution.
+	 */
+	@Override
+	public String toString() {
+		return "(" + direction + ", " + propulsionYield + ")";
+	}
+
+}
@@ -0,0 +1,293 @@
+package worms.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of firing solvers involving a shooter and a weapon.
+ * 	A firing solver computes how its shooter must fire its weapon to hit a
+ * 	given target point. For each propulsion yield, the ballistic equation
+ * 	of the jump step of a projectile is solved in closed form for the
+ * 	direction; since a projectile is launched from just outside its
+ * 	shooter in the direction it is fired, the launch point is refined
+ * 	together with the direction. Each candidate parabola is then checked
+ * 	against the terrain and the borders of the world of the shooter,
+ * 	marching along the parabola in steps bounded by the clearance from the
+ * 	terrain.
+ *
+ * @invar	The shooter of each firing solver has a world.
+ * 		  |	getShooter().hasWorld()
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+public class FiringSolver {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new firing solver for the given shooter firing the
+	 * given weapon.
+	 *
+	 * @param 	shooter
+	 * 			The worm that fires.
+	 * @param 	weapon
+	 * 			The weapon that is fired.
+	 * @post	...
+	 * 		  |	new.getShooter() == shooter
+	 * @post	...
+	 * 		  |	new.getWeapon() == weapon
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	(shooter == null) || (! shooter.hasWorld()) || (weapon == null)
+	 */
+	public FiringSolver(Worm shooter, Weapon weapon)
+			throws IllegalArgumentException {
+		if ((shooter == null) || (! shooter.hasWorld()) || (weapon == null))
+			throw new IllegalArgumentException();
+		this.shooter = shooter;
+		this.weapon = weapon;
+	}
+
+	/**
+	 * Variable registering the lowest propulsion yield.
+	 */
+	public static final int MIN_YIELD = 0;
+
+	/**
+	 * Variable registering the highest propulsion yield.
+	 */
+	public static final int MAX_YIELD = 100;
+
+	/**
+	 * Variable registering the largest distance in metres between a target
+	 * and the parabola of a firing solution for that target.
+	 */
+	private static final double TOLERANCE = 1e-6;
+
+	/**
+	 * Variable registering the maximal number of refinements of the launch
+	 * point of a firing solution.
+	 */
+	private static final int MAX_REFINEMENTS = 32;
+
+
+
+
+	/**
+	 * Return the worm that fires for this firing solver.
+	 */
+	@Basic
+	@Immutable
+	public Worm getShooter() {
+		return shooter;
+	}
+
+	private final Worm shooter;
+
+	/**
+	 * Return the weapon that is fired for this firing solver.
+	 */
+	@Basic
+	@Immutable
+	public Weapon getWeapon() {
+		return weapon;
+	}
+
+	private final Weapon weapon;
+
+
+
+
+	//SOLUTIONS
+	/**
+	 * Return the firing solutions of this firing solver for the given target
+	 * point.
+	 * 	The solutions are ordered by increasing propulsion yield; for each
+	 * 	yield the flat solution comes before the lofted one. A yield that
+	 * 	gives the same force as a lower yield is not listed separately.
+	 *
+	 * @param 	targetX
+	 * 			The X coordinate of the target point.
+	 * @param 	targetY
+	 * 			The Y coordinate of the target point.
+	 * @return	...
+	 * 		  |	for each solution in result:
+	 * 		  |		let
+	 * 		  |			projectile fired by getShooter() with getWeapon() in
+	 * 		  |			solution.getDirection() at solution.getPropulsionYield()
+	 * 		  |		in
+	 * 		  |			projectile.jumpStep(solution.getFlightTime())
+	 * 		  |				lies at (targetX, targetY)
+	 * 		  |		 && for each t in 0..solution.getFlightTime():
+	 * 		  |			getShooter().getWorld().isPassableForObject(
+	 * 		  |				projectile.jumpStep(t), projectile.getRadius())
+	 */
+	public List<FiringSolution> getSolutions(double targetX, double targetY) {
+		List<FiringSolution> result = new ArrayList<FiringSolution>();
+		double previousForce = Double.NaN;
+		for (int yield = MIN_YIELD; yield <= MAX_YIELD; yield++) {
+			double force = weapon.getForce(yield);
+			if (force == previousForce)
+				continue;
+			previousForce = force;
+			double speed = force / weapon.getProjecileMass() * 0.5;
+			FiringSolution flat = solve(yield, speed, targetX, targetY,
+					false);
+			if (flat != null)
+				result.add(flat);
+			FiringSolution lofted = solve(yield, speed, targetX, targetY,
+					true);
+			if ((lofted != null) && (! lofted.equals(flat)))
+				result.add(lofted);
+		}
+		return result;
+	}
+
+	/**
+	 * Return the firing solution for the given yield and launch speed that
+	 * reaches the given target along the flat or the lofted parabola, or
+	 * null if there is no such solution.
+	 */
+	private FiringSolution solve(int yield, double speed, double targetX,
+			double targetY, boolean lofted) {
+		double offset = weapon.getProjectileRadius();
+		double direction = getDirection(speed, targetX - shooter.getX(),
+				targetY - shooter.getY(), lofted);
+		double startX = Double.NaN;
+		double startY = Double.NaN;
+		for (int i = 0; (i < MAX_REFINEMENTS) && ! Double.isNaN(direction);
+				i++) {
+			startX = shooter.getX() + offset * Math.cos(direction);
+			startY = shooter.getY() + offset * Math.sin(direction);
+			double refined = getDirection(speed, targetX - startX,
+					targetY - startY, lofted);
+			boolean converged = (Math.abs(refined - direction) < 1e-12);
+			direction = refined;
+			if (converged)
+				break;
+		}
+		if (Double.isNaN(direction))
+			return null;
+		startX = shooter.getX() + offset * Math.cos(direction);
+		startY = shooter.getY() + offset * Math.sin(direction);
+		Trajectory trajectory = new Trajectory(startX, startY,
+				speed * Math.cos(direction), speed * Math.sin(direction),
+				GameObject.getGravityOfEarth());
+		double flightTime = getFlightTime(trajectory, speed, direction,
+				targetX, targetY);
+		if (Double.isNaN(flightTime) || ! isClear(trajectory, flightTime))
+			return null;
+		return new FiringSolution(direction, yield, flightTime);
+	}
+
+	/**
+	 * Return the direction in which a projectile launched at the given speed
+	 * passes through the point at the given offset from its launch point,
+	 * along the flat or the lofted parabola, or NaN if that point is out of
+	 * reach.
+	 * 	The direction follows from the jump step of a projectile:
+	 * 	tan(direction) = (v^2 +/- sqrt(v^4 - g (g dx^2 + 2 dy v^2))) / (g dx).
+	 */
+	private static double getDirection(double speed, double dx, double dy,
+			boolean lofted) {
+		double g = GameObject.getGravityOfEarth();
+		double v2 = speed * speed;
+		if (Math.abs(dx) < TOLERANCE) {
+			if (dy < 0)
+				return 1.5 * Math.PI;
+			if (v2 >= 2 * g * dy)
+				return 0.5 * Math.PI;
+			return Double.NaN;
+		}
+		double discriminant = v2 * v2 - g * (g * dx * dx + 2 * dy * v2);
+		if (discriminant < 0)
+			return Double.NaN;
+		double root = Math.sqrt(discriminant);
+		double tangent = (lofted ? v2 + root : v2 - root) / (g * dx);
+		double direction = Math.atan(tangent);
+		if (dx < 0)
+			direction += Math.PI;
+		if (direction < 0)
+			direction += 2 * Math.PI;
+		if (direction >= 2 * Math.PI)
+			direction -= 2 * Math.PI;
+		return direction;
+	}
+
+	/**
+	 * Return the time at which the given trajectory passes through the given
+	 * target, or NaN if it does not.
+	 */
+	private static double getFlightTime(Trajectory trajectory, double speed,
+			double direction, double targetX, double targetY) {
+		double velocityX = speed * Math.cos(direction);
+		double time;
+		if (Math.abs(velocityX) > TOLERANCE) {
+			time = (targetX - trajectory.getX(0)) / velocityX;
+		} else {
+			// straight up or down: the first root of y(t) == targetY
+			double g = trajectory.getGravity();
+			double velocityY = speed * Math.sin(direction);
+			double discriminant = velocityY * velocityY
+					+ 2 * g * (trajectory.getY(0) - targetY);
+			if (discriminant < 0)
+				return Double.NaN;
+			time = (velocityY - Math.sqrt(discriminant)) / g;
+			if (time < 0)
+				time = (velocityY + Math.sqrt(discriminant)) / g;
+		}
+		if (! (time >= 0))
+			return Double.NaN;
+		double dx = trajectory.getX(time) - targetX;
+		double dy = trajectory.getY(time) - targetY;
+		if (dx * dx + dy * dy > TOLERANCE * TOLERANCE)
+			return Double.NaN;
+		return time;
+	}
+
+	/**
+	 * Check whether a projectile of the weapon of this firing solver stays
+	 * inside the world of the shooter and clear of impassable terrain while
+	 * following the given trajectory up to the given time.
+	 * 	The trajectory is marched in steps bounded by the clearance from the
+	 * 	terrain, and by a quarter of a pixel near the terrain.
+	 */
+	private boolean isClear(Trajectory trajectory, double duration) {
+		World world = shooter.getWorld();
+		double radius = getProjectileRadius();
+		double minimalDistance = 0.25 * Math.min(world.getPixelWidth(),
+				world.getPixelHeight());
+		double time = 0;
+		while (time < duration) {
+			double x = trajectory.getX(time);
+			double y = trajectory.getY(time);
+			if ((! world.isInsideWorldBorders(x, y))
+					|| world.isImpassableForObject(x, y, radius))
+				return false;
+			double clearance = world.getMinimalClearance(x, y) - radius;
+			if (clearance == Double.POSITIVE_INFINITY)
+				return world.isInsideWorldBorders(
+						trajectory.getX(duration), trajectory.getY(duration));
+			time += trajectory.getDurationFor(
+					Math.max(clearance, minimalDistance), time);
+		}
+		return true;
+	}
+
+	/**
+	 * Return the radius of a projectile fired with the weapon of this firing
+	 * solver.
+	 *
+	 * @return	...
+	 * 		  |	result ==
+	 * 		  |		Projectile.getRadiusForMass(getWeapon().getProjecileMass())
+	 */
+	public double getProjectileRadius() {
+		return Projectile.getRadiusForMass(weapon.getProjecileMass());
+	}
+
+}
@@ -336,9 +336,9 @@ public abstract class GameObject {
 		} else if (jumpTime == 0) {
 			// game object will not jump
 		} else if ((jumpTime > 0) && (jumpTime < Double.POSITIVE_INFINITY)) {
-			Position finalDestination = jumpStep(jumpTime,
-					jumpSpeed(getLaunchForce()));
-			setPosition(finalDestination);
+			double initialSpeed = jumpSpeed(getLaunchForce());
+			moveTo(jumpStepX(jumpTime, initialSpeed),
+					jumpStepY(jumpTime, initialSpeed));
 		}
 	}
 	
@@ -373,12 +373,34 @@ public abstract class GameObject {
 	 * 		  |				- 0.5 * getGravityOfEarth() * timeInterval^2 )
 	 */
 	public Position jumpStep(double timeInterval, double initialSpeed) {
-		double g = getGravityOfEarth();
-		double deltaX = initialSpeed * Math.cos(getDirection()) * timeInterval;
-		double deltaY = initialSpeed * Math.sin(getDirection()) * timeInterval
-				- 0.5 * g * Math.pow(timeInterval, 2);
-		Position flightPosition = getPosition().translate(deltaX, deltaY);				
-		return flightPosition;
+		return new Position(jumpStepX(timeInterval, initialSpeed),
+				jumpStepY(timeInterval, initialSpeed));
+	}
+	
+	/**
+	 * Return the X coordinate of a jumping game object after a given time
+	 * interval after launch.
+	 * 
+	 * @return	...
+	 * 		  |	result == getX()
+	 * 		  |		+ initialSpeed * cos(getDirection()) * timeInterval
+	 */
+	public double jumpStepX(double timeInterval, double initialSpeed) {
+		return x + initialSpeed * Math.cos(getDirection()) * timeInterval;
+	}
+	
+	/**
+	 * Return the Y coordinate of a jumping game object after a given time
+	 * interval after launch.
+	 * 
+	 * @return	...
+	 * 		  |	result == getY()
+	 * 		  |		+ initialSpeed * sin(getDirection()) * timeInterval
+	 * 		  |		- 0.5 * getGravityOfEarth() * timeInterval^2
+	 */
+	public double jumpStepY(double timeInterval, double initialSpeed) {
+		return y + (initialSpeed * Math.sin(getDirection()) * timeInterval
+				- 0.5 * getGravityOfEarth() * timeInterval * timeInterval);
 	}
 	
 	/**
@@ -419,11 +441,40 @@ public abstract class GameObject {
 	//ASSOCIATIONS
 	/**
 	 * Return the position of this game object.
+	 * 	The coordinates of a game object are stored as primitive values; the
+	 * 	position is only created when it is asked for, and is reused until
+	 * 	this game object moves.
+	 * 
+	 * @return	...
+	 * 		  |	if (Double.isNaN(getX()))
+	 * 		  |		then result == null
+	 * 		  |	else result.equals(new Position(getX(), getY()))
 	 */
 	public Position getPosition() {
+		if ((position == null) && (! Double.isNaN(x))) {
+			position = new Position(x, y);
+		}
 		return position;
 	}
 	
+	/**
+	 * Return the X coordinate of this game object.
+	 * 	The result is not a number if this game object has no position.
+	 */
+	@Basic
+	public double getX() {
+		return x;
+	}
+	
+	/**
+	 * Return the Y coordinate of this game object.
+	 * 	The result is not a number if this game object has no position.
+	 */
+	@Basic
+	public double getY() {
+		return y;
+	}
+	
 	/**
 	 * Checks whether this game object can have the given position as its 
 	 * position.
@@ -472,11 +523,51 @@ public abstract class GameObject {
 	void setPosition(Position position) {
 		if (! canHaveAsPosition(position))
 			throw new IllegalArgumentException();
+		if (position == null) {
+			this.x = Double.NaN;
+			this.y = Double.NaN;
+		} else {
+			moveTo(position.getX(), position.getY());
+		}
 		this.position = position;
 	}
 	
 	/**
-	 * Variable referencing the position to which this game object is attached.
+	 * Move this game object to the given coordinates.
+	 * 
+	 * @param 	x
+	 * 			The new X coordinate for this game object.
+	 * @param 	y
+	 * 			The new Y coordinate for this game object.
+	 * @post	...
+	 * 		  |	(new.getX() == x) && (new.getY() == y)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	isTerminated() || (! Position.isValidCoordinate(x))
+	 * 		  |	|| (! Position.isValidCoordinate(y))
+	 */
+	void moveTo(double x, double y) throws IllegalArgumentException {
+		if (isTerminated() || (! Position.isValidCoordinate(x))
+				|| (! Position.isValidCoordinate(y)))
+			throw new IllegalArgumentException();
+		this.x = x;
+		this.y = y;
+		this.position = null;
+	}
+	
+	/**
+	 * Variable registering the X coordinate of this game object.
+	 */
+	private double x = Double.NaN;
+	
+	/**
+	 * Variable registering the Y coordinate of this game object.
+	 */
+	private double y = Double.NaN;
+	
+	/**
+	 * Variable referencing the position of this game object, if it has been
+	 * created since this game object last moved.
 	 */
 	private Position position;
 	
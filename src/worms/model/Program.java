@@ -1,18 +1,38 @@
 package worms.model;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 
+import be.kuleuven.cs.som.annotate.Basic;
 import worms.gui.game.IActionHandler;
 import worms.model.programs.MyProgramFactory;
 import worms.model.programs.ParseOutcome;
+import worms.model.programs.ProgramCode;
 import worms.model.programs.ProgramParser;
+import worms.model.programs.closures.ClosureCompiler;
+import worms.model.programs.compiler.CompiledProgram;
+import worms.model.programs.compiler.ProgramCompiler;
 import worms.model.programs.expressions.Expression;
 import worms.model.programs.statements.Statement;
+import worms.model.programs.types.BoolType;
+import worms.model.programs.types.DoubleType;
+import worms.model.programs.types.EntityType;
 import worms.model.programs.types.Type;
 
 public class Program {
 	
-	public Program() {}
+	public Program() {
+		this(true);
+	}
+	
+	/**
+	 * Initialize this new program, which is compiled to bytecode after it is
+	 * parsed if and only if the given flag is true.
+	 */
+	public Program(boolean compilationEnabled) {
+		this.compilationEnabled = compilationEnabled;
+	}
 	
 	public ParseOutcome<?> parseProgram(String programText, IActionHandler handler) {
 		this.handler = handler;
@@ -21,8 +41,20 @@ public class Program {
 		parser.parse(programText);
 		if (parser.getErrors().isEmpty()) {
 			setInitialGlobalVariables(parser.getGlobals());
-			initializeGlobalVariables(initialGlobalVariables);
+			allocateGlobalVariables(initialGlobalVariables);
 			setMainStatement(parser.getStatement());
+			try {
+				getMainStatement().link(this);
+			} catch (IllegalArgumentException exc) {
+				return ParseOutcome.failure(
+						Collections.singletonList(exc.getMessage()));
+			}
+			if (compilationEnabled) {
+				compile();
+			}
+			if (! isCompiled()) {
+				compileClosures();
+			}
 			return ParseOutcome.success(this);
 		} else {
 			return ParseOutcome.failure(parser.getErrors());
@@ -47,19 +79,68 @@ public class Program {
 	
 	private ProgramParser<Expression, Statement, Type<?>> parser;
 	
+	/**
+	 * Return a map from the name of each global variable of this program to
+	 * its current value.
+	 * 	The map is built from the frames of this program; changing it does
+	 * 	not change the variables of this program.
+	 */
 	public Map<String, Type<?>> getGlobalVariables() {
-		return globalVariables;
+		Map<String, Type<?>> variables = new HashMap<String, Type<?>>();
+		for (String name : slots.keySet()) {
+			variables.put(name, getGlobalVariable(name));
+		}
+		return variables;
 	}
 	
-	public void setGlobalVariable(String name, Type<?> value) {
-		globalVariables.put(name, value);
+	/**
+	 * Return the current value of the global variable with the given name.
+	 * 
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	! hasAsGlobalVariable(name)
+	 */
+	public Type<?> getGlobalVariable(String name)
+			throws IllegalArgumentException {
+		int slot = getSlot(name);
+		switch (getKind(name)) {
+		case DOUBLE:
+			return new DoubleType(getDoubleVariable(slot));
+		case BOOLEAN:
+			return new BoolType(getBooleanVariable(slot));
+		default:
+			return new EntityType(getEntityVariable(slot));
+		}
 	}
 	
-	public void initializeGlobalVariables(Map<String, Type<?>> variables) {
-		globalVariables = variables;
+	/**
+	 * Set the global variable with the given name to the value of the given
+	 * type.
+	 * 
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	! hasAsGlobalVariable(name)
+	 */
+	public void setGlobalVariable(String name, Type<?> value)
+			throws IllegalArgumentException {
+		int slot = getSlot(name);
+		switch (getKind(name)) {
+		case DOUBLE:
+			setDoubleVariable(slot, (Double) value.getValue());
+			break;
+		case BOOLEAN:
+			setBooleanVariable(slot, (Boolean) value.getValue());
+			break;
+		default:
+			setEntityVariable(slot, (Worm) value.getValue());
+		}
 	}
 	
-	private Map<String, Type<?>> globalVariables;
+	public void initializeGlobalVariables(Map<String, Type<?>> variables) {
+		for (Map.Entry<String, Type<?>> variable : variables.entrySet()) {
+			setGlobalVariable(variable.getKey(), variable.getValue());
+		}
+	}
 	
 	private final void setInitialGlobalVariables(Map<String, Type<?>> variables) {
 		initialGlobalVariables = variables;
@@ -67,29 +148,240 @@ public class Program {
 	
 	private Map<String, Type<?>> initialGlobalVariables;
 	
+	
+	
+	
+	//SLOTS
+	/**
+	 * An enumeration of the kinds of frames in which the global variables
+	 * of a program are stored.
+	 */
+	public enum Kind {
+		DOUBLE, BOOLEAN, ENTITY
+	}
+	
+	/**
+	 * Give each of the given global variables a slot in the frame of its
+	 * kind and store its value in that slot.
+	 * 	The slots of each kind are numbered from zero in the order of the
+	 * 	given map. Variables are read and written through their slot, so
+	 * 	running a program never looks up a variable by its name.
+	 */
+	private void allocateGlobalVariables(Map<String, Type<?>> variables) {
+		slots.clear();
+		kinds.clear();
+		int nbDoubles = 0;
+		int nbBooleans = 0;
+		int nbEntities = 0;
+		for (Map.Entry<String, Type<?>> variable : variables.entrySet()) {
+			Type<?> type = variable.getValue();
+			if (type instanceof DoubleType) {
+				kinds.put(variable.getKey(), Kind.DOUBLE);
+				slots.put(variable.getKey(), nbDoubles++);
+			} else if (type instanceof BoolType) {
+				kinds.put(variable.getKey(), Kind.BOOLEAN);
+				slots.put(variable.getKey(), nbBooleans++);
+			} else {
+				kinds.put(variable.getKey(), Kind.ENTITY);
+				slots.put(variable.getKey(), nbEntities++);
+			}
+		}
+		doubleFrame = new double[nbDoubles];
+		booleanFrame = new boolean[nbBooleans];
+		entityFrame = new Object[nbEntities];
+		initializeGlobalVariables(variables);
+	}
+	
+	/**
+	 * Check whether this program has a global variable with the given name.
+	 */
+	public boolean hasAsGlobalVariable(String name) {
+		return slots.containsKey(name);
+	}
+	
+	/**
+	 * Return the slot of the global variable with the given name in the
+	 * frame of its kind.
+	 * 
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	! hasAsGlobalVariable(name)
+	 */
+	public int getSlot(String name) throws IllegalArgumentException {
+		Integer slot = slots.get(name);
+		if (slot == null)
+			throw new IllegalArgumentException(
+					"Undeclared variable " + name + ".");
+		return slot;
+	}
+	
+	/**
+	 * Return the kind of the global variable with the given name.
+	 * 
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	! hasAsGlobalVariable(name)
+	 */
+	public Kind getKind(String name) throws IllegalArgumentException {
+		Kind kind = kinds.get(name);
+		if (kind == null)
+			throw new IllegalArgumentException(
+					"Undeclared variable " + name + ".");
+		return kind;
+	}
+	
+	private final Map<String, Integer> slots = new HashMap<String, Integer>();
+	
+	private final Map<String, Kind> kinds = new HashMap<String, Kind>();
+	
+	public double getDoubleVariable(int slot) {
+		return doubleFrame[slot];
+	}
+	
+	public void setDoubleVariable(int slot, double value) {
+		doubleFrame[slot] = value;
+	}
+	
+	public boolean getBooleanVariable(int slot) {
+		return booleanFrame[slot];
+	}
+	
+	public void setBooleanVariable(int slot, boolean value) {
+		booleanFrame[slot] = value;
+	}
+	
+	public Worm getEntityVariable(int slot) {
+		return (Worm) entityFrame[slot];
+	}
+	
+	public void setEntityVariable(int slot, Worm value) {
+		entityFrame[slot] = value;
+	}
+	
+	/**
+	 * Arrays registering the values of the global variables of this program
+	 * of kind double, boolean and entity, each variable in its own slot.
+	 */
+	private double[] doubleFrame = new double[0];
+	
+	private boolean[] booleanFrame = new boolean[0];
+	
+	private Object[] entityFrame = new Object[0];
+	
+	/**
+	 * Run this program until it finishes, an action is not performed or the
+	 * statement budget is spent.
+	 * 	A suspended program resumes at the instruction at which it was
+	 * 	suspended; a finished program starts over from its first
+	 * 	instruction. Programs that cannot be flattened into instructions
+	 * 	are run by executing their main statement.
+	 */
 	public void run() {
-		getMainStatement().execute();
+		ProgramCode code = getCode();
+		if (code == null) {
+			getMainStatement().execute();
+			return;
+		}
+		if (!isSuspended()) {
+			programCounter = 0;
+		}
+		suspended = false;
+		programCounter = code.run(programCounter, STATEMENT_BUDGET);
+		suspended = (programCounter < code.getSize());
 	}
 	
-	public boolean isPaused() {
-		return pause;
+	/**
+	 * Check whether this program was suspended before it finished.
+	 */
+	@Basic
+	public boolean isSuspended() {
+		return suspended;
 	}
 	
-	private boolean pause = false;
+	private boolean suspended = false;
 	
-	public void pause(Statement statement) {
-		pause = true;
-		statement.setExecutionFlag(true);
+	/**
+	 * Return the number of the instruction at which this program resumes
+	 * when it is suspended.
+	 */
+	@Basic
+	public int getProgramCounter() {
+		return programCounter;
 	}
 	
-	public void resume(Statement statement) {
-		pause = false;
-		statement.setExecutionFlag(false);
+	private int programCounter = 0;
+	
+	/**
+	 * Constant reflecting the maximum number of instructions a program
+	 * executes each time it is run.
+	 */
+	public static final int STATEMENT_BUDGET = 1000;
+	
+	/**
+	 * Return the code running this program: its compiled bytecode if any,
+	 * otherwise its closures, or null if neither is available.
+	 */
+	private ProgramCode getCode() {
+		if (isCompiled())
+			return compiledProgram;
+		return closure;
 	}
 	
 	
 	
 	
+	//COMPILATION
+	/**
+	 * Check whether this program runs as compiled bytecode.
+	 */
+	public boolean isCompiled() {
+		return (compiledProgram != null);
+	}
+	
+	/**
+	 * Compile the linked main statement of this program to a tree of
+	 * closures, which runs the program when it is not compiled to bytecode.
+	 * 	The closures are only built when bytecode compilation is disabled or
+	 * 	has failed.
+	 * 	Programs with statements or expressions the closure compiler does
+	 * 	not support are run by executing their statements.
+	 */
+	private void compileClosures() {
+		try {
+			closure = new ClosureCompiler(this, doubleFrame, booleanFrame,
+					entityFrame).compile(getMainStatement());
+		} catch (UnsupportedOperationException exc) {
+			closure = null;
+		}
+	}
+	
+	private ProgramCode closure;
+	
+	/**
+	 * Compile the linked main statement of this program to bytecode.
+	 * 	Programs with statements or expressions the compiler does not
+	 * 	support keep running in the interpreter.
+	 */
+	private void compile() {
+		try {
+			compiledProgram = new ProgramCompiler().compile(getMainStatement(),
+					this, doubleFrame, booleanFrame, entityFrame);
+		} catch (UnsupportedOperationException exc) {
+			compiledProgram = null;
+		} catch (IllegalStateException exc) {
+			compiledProgram = null;
+		} catch (LinkageError exc) {
+			compiledProgram = null;
+		}
+	}
+	
+	private final boolean compilationEnabled;
+	
+	private CompiledProgram compiledProgram;
+	
+	
+	
+	
 	//ASSCIATIONS
 	public Statement getMainStatement() {
 		return mainStatement;
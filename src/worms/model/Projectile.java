@@ -56,17 +56,18 @@ public class Projectile extends GameObject {
 	 * 		  	to which it is attached.
 	 * 		  |	new.getWorld() == null
 	 * @post	If this projectile was not already terminated, the world to
-	 * 			which this projectile was attached no longer has a projectile
-	 * 			attached to it.
-	 * 		  |	if (! this.isTerminated())
-	 * 		  |		then (! (new.getWorld()).hasProjectile() )
+	 * 			which this projectile was attached no longer has this
+	 * 			projectile attached to it.
+	 * 		  |	if ((! this.isTerminated()) && hasWorld())
+	 * 		  |		then (! (new this.getWorld()).hasAsProjectile(this) )
 	 */
 	@Override
 	public void terminate() {
-		if (! isTerminated()) {
-			getWorld().setProjectile(null);
+		if ((! isTerminated()) && hasWorld()) {
+			getWorld().removeAsProjectile(this);
 		}
 		setWorld(null);
+		shooter = null;
 		super.terminate();
 	}
 	
@@ -91,9 +92,18 @@ public class Projectile extends GameObject {
 	 * 		  |		Math.pow((0.75 * getMass()) / (Math.PI * getDensity()), 1/3)
 	 */
 	public void setRadius() {
-		double radius = Math.pow((0.75 * getMass()) / (Math.PI * getDensity()),
-				1/3.0);
-		setRadius(radius);
+		setRadius(getRadiusForMass(getMass()));
+	}
+	
+	/**
+	 * Return the radius of a projectile with the given mass.
+	 * 
+	 * @return	...
+	 * 		  |	result ==
+	 * 		  |		Math.pow((0.75 * mass) / (Math.PI * density), 1/3)
+	 */
+	public static double getRadiusForMass(double mass) {
+		return Math.pow((0.75 * mass) / (Math.PI * density), 1/3.0);
 	}
 	
 	@Basic
@@ -134,13 +144,13 @@ public class Projectile extends GameObject {
 	 * @return	...
 	 * 		  |	result == 
 	 * 		  |		( (getWorld() == null)
-	 * 		  |	   || (getWorld().getProjectile() == this) )
+	 * 		  |	   || getWorld().hasAsProjectile(this) )
 	 */
 	@Override
 	public boolean hasProperWorld() {
 		return 
 			( (getWorld() == null)
-		   || (getWorld().getProjectile() == this));
+		   || getWorld().hasAsProjectile(this));
 	}
 	
 	
@@ -156,21 +166,184 @@ public class Projectile extends GameObject {
 	
 	
 	
+	//FLIGHT
+	/**
+	 * Launch this projectile from its current position, fired by the given
+	 * worm.
+	 * 
+	 * @post	...
+	 * 		  |	new.getFlightTime() == 0
+	 * @post	...
+	 * 		  |	new.getShooter() == shooter
+	 */
+	void launch(Worm shooter) {
+		this.flightTime = 0;
+		this.shooter = shooter;
+	}
+	
+	/**
+	 * Return the time in seconds this projectile has been in flight since it
+	 * was launched.
+	 */
+	@Basic
+	public double getFlightTime() {
+		return flightTime;
+	}
+	
+	/**
+	 * Return the worm that fired this projectile, as long as this projectile
+	 * has not yet cleared that worm.
+	 * 	A projectile is launched from within the reach of its shooter; it can
+	 * 	only hit that worm after it has left it.
+	 */
+	@Basic
+	public Worm getShooter() {
+		return shooter;
+	}
+	
+	/**
+	 * Advance this projectile along its trajectory over the given duration,
+	 * in time steps of the given size.
+	 * 	The time steps are solved on the trajectory of this projectile like
+	 * 	in jumpTime(): if this projectile leaves its world within the given
+	 * 	duration, it is terminated. If it reaches impassable terrain or a worm
+	 * 	first, it lands there.
+	 * 
+	 * @return	True if and only if this projectile is still in flight.
+	 * 		  |	result == (! new.isTerminated())
+	 * @post	...
+	 * 		  |	if (! new.isTerminated())
+	 * 		  |		then new.getFlightTime() == this.getFlightTime() + duration
+	 * @effect	...
+	 * 		  |	let
+	 * 		  |		step = getHitStep(getFlightTrajectory(), timeStep, ...)
+	 * 		  |	in
+	 * 		  |		if (0 < step * timeStep < duration + timeStep)
+	 * 		  |			then land(min(step * timeStep, duration))
+	 * @throws	IllegalStateException
+	 * 			...
+	 * 		  |	! hasWorld()
+	 */
+	boolean advance(double duration, double timeStep)
+			throws IllegalStateException {
+		if (! hasWorld())
+			throw new IllegalStateException();
+		Trajectory trajectory = getFlightTrajectory();
+		long lastStep = (long) Math.ceil(duration / timeStep);
+		long exitStep = getExitStep(trajectory, timeStep);
+		long clearStep = getClearStep(trajectory, timeStep, 
+				Math.min(lastStep, exitStep));
+		long hitStep = getHitStep(trajectory, timeStep, clearStep,
+				Math.min(lastStep, exitStep - 1));
+		if (hitStep > 0) {
+			double time = Math.min(hitStep * timeStep, duration);
+			land(trajectory.getX(time), trajectory.getY(time),
+					(clearStep >= 0) && (clearStep <= hitStep));
+			return false;
+		}
+		if (exitStep <= lastStep) {
+			terminate();
+			return false;
+		}
+		moveTo(trajectory.getX(duration), trajectory.getY(duration));
+		flightTime += duration;
+		if ((clearStep >= 0) && (clearStep <= lastStep)) {
+			shooter = null;
+		}
+		return true;
+	}
+	
+	/**
+	 * Return the trajectory this projectile follows from its current position
+	 * at the current point of its flight.
+	 * 
+	 * @return	...
+	 * 		  |	let
+	 * 		  |		speed = jumpSpeed(getLaunchForce())
+	 * 		  |	in
+	 * 		  |		result.equals(new Trajectory(getX(), getY(),
+	 * 		  |			speed * cos(getDirection()),
+	 * 		  |			speed * sin(getDirection())
+	 * 		  |				- getGravityOfEarth() * getFlightTime(),
+	 * 		  |			getGravityOfEarth()))
+	 */
+	Trajectory getFlightTrajectory() {
+		double speed = jumpSpeed(getLaunchForce());
+		return new Trajectory(getX(), getY(),
+				speed * Math.cos(getDirection()),
+				speed * Math.sin(getDirection())
+					- getGravityOfEarth() * flightTime,
+				getGravityOfEarth());
+	}
+	
+	/**
+	 * Move this projectile to the given coordinates, where it has hit
+	 * impassable terrain or a worm, and terminate it.
+	 * 	The worm this projectile overlaps with there loses the damage of this
+	 * 	projectile; its shooter only if the given flag states that this
+	 * 	projectile has cleared it.
+	 */
+	private void land(double x, double y, boolean shooterCleared) {
+		moveTo(x, y);
+		Worm hitWorm = getWorld().getOverlappingWorm(x, y, getRadius(),
+				shooterCleared ? null : shooter);
+		if (hitWorm != null) {
+			hitWorm.decreaseHitPoints(getDamage());
+		}
+		terminate();
+	}
+	
+	/**
+	 * Return a new projectile in the same state and at the same point of its
+	 * flight as this projectile, fired by the given worm and not attached to
+	 * any world.
+	 * 
+	 * @return	...
+	 * 		  |	(result != this) && (! result.hasWorld())
+	 * 		  |	&& result.getPosition().equals(getPosition())
+	 * 		  |	&& (result.getFlightTime() == getFlightTime())
+	 * 		  |	&& (result.getShooter() == shooter)
+	 */
+	Projectile copy(Worm shooter) {
+		Projectile result = new Projectile(getPosition(), getDirection(),
+				getMass(), getDamage(), getLaunchForce());
+		result.flightTime = flightTime;
+		result.shooter = shooter;
+		return result;
+	}
+	
+	/**
+	 * Variable registering the time this projectile has been in flight.
+	 */
+	private double flightTime;
+	
+	/**
+	 * Variable referencing the worm that fired this projectile, until this
+	 * projectile has cleared that worm.
+	 */
+	private Worm shooter;
+	
+	
+	
+	
 	//JUMP
+	/**
+	 * Let this projectile complete its flight.
+	 * 
+	 * @effect	...
+	 * 		  |	if (canJump() && (jumpTime(timeStep) < infinity))
+	 * 		  |		then advance(jumpTime(timeStep), timeStep)
+	 * @effect	...
+	 * 		  |	terminate()
+	 */
 	@Override
 	public void jump(double timeStep) {
-		try {
-			super.jump(timeStep);
-			if (getWorld().overlaps(getPosition(), getRadius())) {
-				int inflictedHitPoints = getDamage();
-				Worm hitWorm = getWorld().getOverlappingWorm(getPosition(),
-						getRadius());
-				hitWorm.decreaseHitPoints(inflictedHitPoints);
+		if (canJump()) {
+			double jumpTime = jumpTime(timeStep);
+			if (jumpTime < Double.POSITIVE_INFINITY) {
+				advance(jumpTime, timeStep);
 			}
 		}
-		catch (IllegalArgumentException exc) {
-			terminate();
-		}
 		terminate();
 	}
 	
@@ -183,11 +356,17 @@ public class Projectile extends GameObject {
 	 */
 	@Override
 	public boolean canJump() {
-		return getWorld().isPassableForObject(getPosition(), getRadius());
+		return getWorld().isPassableForObject(getX(), getY(), getRadius());
 	}
 	
 	/**
 	 * Returns the time in seconds this worm needs for jumping.
+	 * 	The time steps are not simulated one by one: the impacts with worms
+	 * 	and the exit from the world are solved analytically on the trajectory
+	 * 	of this projectile, and the terrain is only checked at time steps that
+	 * 	may be nearer to it than the radius of this projectile.
+	 * 	The shooter of this projectile only counts as a worm to hit once this
+	 * 	projectile has cleared it, as in advance().
 	 * 
 	 * @param	dt
 	 * 			The time step in which a worm will not completely move through
@@ -219,31 +398,127 @@ public class Projectile extends GameObject {
 	 */
 	@Override
 	public double jumpTime(double dt) {
-		double jumpTime = 0;
-		boolean jumping = true;
-		boolean insideWorldBorders = true;
-		Position jumpPosition = getPosition().translate(0, 0);
+		Trajectory trajectory = getFlightTrajectory();
+		long exitStep = getExitStep(trajectory, dt);
+		long clearStep = getClearStep(trajectory, dt, exitStep);
+		long hitStep = getHitStep(trajectory, dt, clearStep, exitStep - 1);
+		if (hitStep < 0) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return hitStep * dt;
+	}
+	
+	/**
+	 * Return the first time step at which this projectile, following the
+	 * given trajectory, is outside the borders of its world.
+	 */
+	private long getExitStep(Trajectory trajectory, double dt) {
+		World world = getWorld();
+		return trajectory.getFirstStepOutside(0, 0, world.getWidth(),
+				world.getHeight(), dt);
+	}
+	
+	/**
+	 * Return the first time step, not beyond the given last step, at which
+	 * this projectile, following the given trajectory, no longer overlaps
+	 * with its shooter, 0 if it has no shooter, or -1 if there is no such
+	 * step.
+	 */
+	private long getClearStep(Trajectory trajectory, double dt,
+			long lastStep) {
+		if ((shooter == null) || (shooter.getWorld() != getWorld())) {
+			return 0;
+		}
+		return trajectory.getFirstStepOutsideCircle(shooter.getX(),
+				shooter.getY(), getRadius() + shooter.getRadius(), dt,
+				lastStep);
+	}
+	
+	/**
+	 * Return the first time step, not beyond the given last step, at which
+	 * this projectile, following the given trajectory, is in impassable
+	 * terrain or overlaps with a worm of its world, or -1 if there is no
+	 * such step.
+	 * 	The shooter of this projectile only counts from the time step after
+	 * 	the given step at which this projectile has cleared it.
+	 */
+	private long getHitStep(Trajectory trajectory, double dt, long clearStep,
+			long lastStep) {
+		long result = getTerrainHitStep(trajectory, dt, lastStep);
+		long wormStep = getWormHitStep(trajectory, dt, clearStep,
+				(result > 0) ? result : lastStep);
+		if (wormStep > 0) {
+			result = wormStep;
+		}
+		return result;
+	}
+	
+	/**
+	 * Return the first time step, not beyond the given last step, at which
+	 * this projectile, following the given trajectory, is in impassable 
+	 * terrain, or -1 if there is no such step.
+	 * 	The trajectory is marched in steps bounded by the clearance from the
+	 * 	terrain: all time steps during which the projectile cannot travel
+	 * 	farther than its clearance are passed over without a terrain check.
+	 */
+	private long getTerrainHitStep(Trajectory trajectory, double dt,
+			long lastStep) {
 		World world = getWorld();
 		double radius = getRadius();
-		double jumpSpeed = jumpSpeed(getLaunchForce());
-		
-		while (jumping && insideWorldBorders) {
-			jumpTime += dt;
-			jumpPosition = jumpStep(jumpTime, jumpSpeed);
-			if (world.isImpassableForObject(jumpPosition, radius)
-			  || world.overlaps(jumpPosition, radius)) {
-				jumping = false;
+		long step = 1;
+		while (step <= lastStep) {
+			double time = step * dt;
+			double x = trajectory.getX(time);
+			double y = trajectory.getY(time);
+			if (world.isImpassableForObject(x, y, radius)) {
+				return step;
 			}
-			if (! world.isInsideWorldBorders(jumpPosition)) {
-				insideWorldBorders = false;
+			double clearance = world.getMinimalClearance(x, y) - radius;
+			if (clearance == Double.POSITIVE_INFINITY) {
+				return -1;
 			}
+			double duration = trajectory.getDurationFor(clearance, time);
+			step = Math.max(step + 1,
+					(long) Math.floor((time + duration) / dt) + 1);
 		}
-		
-		if (! insideWorldBorders) {
-			jumpTime = Double.POSITIVE_INFINITY;
+		return -1;
+	}
+	
+	/**
+	 * Return the first time step, not beyond the given last step, at which 
+	 * this projectile, following the given trajectory, overlaps with a worm
+	 * of its world, or -1 if there is no such step.
+	 * 	Only the worms near the part of the trajectory up to the last step are
+	 * 	inspected, each of them by solving for the earliest time of impact.
+	 * 	The shooter of this projectile is only inspected after the given
+	 * 	step at which this projectile has cleared it.
+	 */
+	private long getWormHitStep(Trajectory trajectory, double dt,
+			long clearStep, long lastStep) {
+		World world = getWorld();
+		double duration = lastStep * dt;
+		double reach = getRadius() + world.getMaxWormRadius();
+		double x1 = trajectory.getX(0);
+		double x2 = trajectory.getX(duration);
+		long result = -1;
+		for (Worm worm : world.getWormsNear(Math.min(x1, x2) - reach,
+				trajectory.getMinY(duration) - reach, 
+				Math.max(x1, x2) + reach, 
+				trajectory.getMaxY(duration) + reach)) {
+			long firstStep = 1;
+			if (worm == shooter) {
+				if (clearStep < 0) continue;
+				firstStep = clearStep + 1;
+			}
+			long step = trajectory.getFirstStepInsideCircle(
+					worm.getX(), worm.getY(),
+					getRadius() + worm.getRadius(), dt, firstStep,
+					(result > 0) ? result - 1 : lastStep);
+			if (step > 0) {
+				result = step;
+			}
 		}
-		
-		return jumpTime;
+		return result;
 	}
 	
 	/**
@@ -0,0 +1,132 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of ray hits involving a distance and a worm.
+ * 	A ray hit describes what a ray cast through a world runs into first: a
+ * 	worm, impassable terrain, or nothing at all before it leaves the world.
+ *
+ * @invar	The distance of each ray hit is not negative.
+ * 		  |	getDistance() >= 0
+ * @invar	A ray hit that hits nothing has an infinite distance.
+ * 		  |	if (! hitsWorm() && ! hitsTerrain())
+ * 		  |		then getDistance() == Double.POSITIVE_INFINITY
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+@Value
+public class RayHit {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new ray hit with the given distance and the given worm.
+	 *
+	 * @param 	distance
+	 * 			The distance along the ray to the point of impact.
+	 * @param 	worm
+	 * 			The worm that is hit, or null if terrain or nothing is hit.
+	 * @post	...
+	 * 		  |	new.getDistance() == distance
+	 * @post	...
+	 * 		  |	new.getWorm() == worm
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	! (distance >= 0)
+	 * 		  |	|| ((worm != null) && (distance == Double.POSITIVE_INFINITY))
+	 */
+	public RayHit(double distance, Worm worm) throws IllegalArgumentException {
+		if (! (distance >= 0))
+			throw new IllegalArgumentException();
+		if ((worm != null) && (distance == Double.POSITIVE_INFINITY))
+			throw new IllegalArgumentException();
+		this.distance = distance;
+		this.worm = worm;
+	}
+
+	/**
+	 * Variable referencing a ray hit that hits nothing.
+	 */
+	public final static RayHit NONE = new RayHit(Double.POSITIVE_INFINITY,
+			null);
+
+
+
+
+	/**
+	 * Return the distance along the ray to the point of impact of this ray
+	 * hit.
+	 */
+	@Basic
+	@Immutable
+	public double getDistance() {
+		return distance;
+	}
+
+	private final double distance;
+
+	/**
+	 * Return the worm hit by this ray hit.
+	 * 	The result is null if the ray hits terrain or nothing.
+	 */
+	@Basic
+	@Immutable
+	public Worm getWorm() {
+		return worm;
+	}
+
+	private final Worm worm;
+
+	/**
+	 * Check whether this ray hit hits a worm.
+	 *
+	 * @return	...
+	 * 		  |	result == (getWorm() != null)
+	 */
+	public boolean hitsWorm() {
+		return (worm != null);
+	}
+
+	/**
+	 * Check whether this ray hit hits impassable terrain.
+	 *
+	 * @return	...
+	 * 		  |	result == ( (getWorm() == null)
+	 * 		  |		&& (getDistance() < Double.POSITIVE_INFINITY) )
+	 */
+	public boolean hitsTerrain() {
+		return (worm == null) && (distance < Double.POSITIVE_INFINITY);
+	}
+
+
+
+
+	/**
+	 * Check whether this ray hit is equal to the given object.
+	 *
+	 * @return	True if and only if the given object is a ray hit with the
+	 * 			same distance and the same worm as this ray hit.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (other == null)
+			return false;
+		if (this.getClass() != other.getClass())
+			return false;
+		RayHit otherHit = (RayHit) other;
+		return (distance == otherHit.distance) && (worm == otherHit.worm);
+	}
+
+	/**
+	 * Return the hash code of this ray hit.
+	 */
+	@Override
+	public int hashCode() {
+		long bits = Double.doubleToLongBits(distance);
+		return (int) (bits ^ (bits >>> 32)) * 31
+				+ System.identityHashCode(worm);
+	}
+
+}
@@ -0,0 +1,355 @@
+package worms.model;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of shot evaluators involving a world, a number of samples and a
+ * direction deviation.
+ * 	A shot evaluator estimates the damage the current worm of its world
+ * 	inflicts on the other worms when firing its active weapon in a given
+ * 	direction with a given propulsion yield. Each candidate shot is sampled
+ * 	a number of times with its direction perturbed by a normally
+ * 	distributed aiming error; the expected damage of a candidate is the
+ * 	mean damage over its samples.
+ * 	The state of the worms is copied when a shot evaluator is created, so
+ * 	the shots are evaluated against that snapshot. The candidates are
+ * 	simulated in parallel; the simulations only read the terrain of the
+ * 	world, which never changes, and the copied state of the worms, so the
+ * 	world itself is never touched while shots are evaluated.
+ *
+ * @invar	The number of samples of each shot evaluator is strictly
+ * 			positive.
+ * 		  |	getNbSamples() > 0
+ * @invar	The direction deviation of each shot evaluator is not negative.
+ * 		  |	getDirectionDeviation() >= 0
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+public class ShotEvaluator {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new shot evaluator for the current worm of the given
+	 * world with the given number of samples per candidate, the given
+	 * direction deviation, the given time step and the given seed.
+	 *
+	 * @param 	world
+	 * 			The world in which shots are evaluated.
+	 * @param 	nbSamples
+	 * 			The number of samples per candidate shot.
+	 * @param 	directionDeviation
+	 * 			The standard deviation of the aiming error in radians.
+	 * @param 	timeStep
+	 * 			The time step in which a projectile will not completely move
+	 * 			through a piece of impassable terrain.
+	 * @param 	seed
+	 * 			The seed from which the aiming errors are drawn.
+	 * @post	...
+	 * 		  |	new.getWorld() == world
+	 * @post	...
+	 * 		  |	new.getShooter() == world.getCurrentWorm()
+	 * @post	...
+	 * 		  |	new.getWeapon() == world.getCurrentWorm().getActiveWeapon()
+	 * @post	...
+	 * 		  |	new.getNbSamples() == nbSamples
+	 * @post	...
+	 * 		  |	new.getDirectionDeviation() == directionDeviation
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	(world == null) || (world.getCurrentWorm() == null)
+	 * 		  |	|| (nbSamples <= 0) || ! (directionDeviation >= 0)
+	 * 		  |	|| ! (timeStep > 0)
+	 */
+	public ShotEvaluator(World world, int nbSamples, double directionDeviation,
+			double timeStep, long seed) throws IllegalArgumentException {
+		if ((world == null) || (world.getCurrentWorm() == null))
+			throw new IllegalArgumentException();
+		if ((nbSamples <= 0) || ! (directionDeviation >= 0)
+				|| ! (timeStep > 0))
+			throw new IllegalArgumentException();
+		this.world = world;
+		this.shooter = world.getCurrentWorm();
+		this.weapon = shooter.getActiveWeapon();
+		this.nbSamples = nbSamples;
+		this.directionDeviation = directionDeviation;
+		this.timeStep = timeStep;
+		this.seed = seed;
+		this.shooterX = shooter.getX();
+		this.shooterY = shooter.getY();
+		WormTable table = world.getWormTable();
+		int nbTargets = table.getNbWorms() - 1;
+		this.targetX = new double[nbTargets];
+		this.targetY = new double[nbTargets];
+		this.targetRadius = new double[nbTargets];
+		int target = 0;
+		for (int slot = 0; slot < table.getNbWorms(); slot++) {
+			if (table.getWormAt(slot) != shooter) {
+				targetX[target] = table.getX(slot);
+				targetY[target] = table.getY(slot);
+				targetRadius[target] = table.getRadius(slot);
+				target++;
+			}
+		}
+	}
+
+
+
+
+	/**
+	 * Return the world of this shot evaluator.
+	 */
+	@Basic
+	@Immutable
+	public World getWorld() {
+		return world;
+	}
+
+	private final World world;
+
+	/**
+	 * Return the worm that fires the shots of this shot evaluator.
+	 */
+	@Basic
+	@Immutable
+	public Worm getShooter() {
+		return shooter;
+	}
+
+	private final Worm shooter;
+
+	/**
+	 * Return the weapon fired in the shots of this shot evaluator.
+	 */
+	@Basic
+	@Immutable
+	public Weapon getWeapon() {
+		return weapon;
+	}
+
+	private final Weapon weapon;
+
+	/**
+	 * Return the number of samples per candidate shot of this shot
+	 * evaluator.
+	 */
+	@Basic
+	@Immutable
+	public int getNbSamples() {
+		return nbSamples;
+	}
+
+	private final int nbSamples;
+
+	/**
+	 * Return the standard deviation in radians of the aiming error of this
+	 * shot evaluator.
+	 */
+	@Basic
+	@Immutable
+	public double getDirectionDeviation() {
+		return directionDeviation;
+	}
+
+	private final double directionDeviation;
+
+	private final double timeStep;
+
+	private final long seed;
+
+	/**
+	 * Variables registering the coordinates of the shooter when this shot
+	 * evaluator was created.
+	 */
+	private final double shooterX, shooterY;
+
+	/**
+	 * Arrays registering the coordinates and the radius of each worm other
+	 * than the shooter when this shot evaluator was created.
+	 */
+	private final double[] targetX, targetY, targetRadius;
+
+
+
+
+	//EVALUATION
+	/**
+	 * Return the expected damage of each combination of the given directions
+	 * and the given propulsion yields.
+	 *
+	 * @param 	directions
+	 * 			The directions of the candidate shots.
+	 * @param 	yields
+	 * 			The propulsion yields of the candidate shots.
+	 * @return	...
+	 * 		  |	for each i in 0..directions.length-1:
+	 * 		  |		for each j in 0..yields.length-1:
+	 * 		  |			result[i][j] == getWeapon().getDamage()
+	 * 		  |				* the fraction of getNbSamples() shots with yields[j],
+	 * 		  |				  aimed at directions[i] with a normal error of
+	 * 		  |				  getDirectionDeviation(), that hit a worm other
+	 * 		  |				  than getShooter()
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	(directions == null) || (yields == null)
+	 * 		  |	|| for some direction in directions:
+	 * 		  |		! GameObject.isValidDirection(direction)
+	 */
+	public double[][] getExpectedDamage(double[] directions, int[] yields)
+			throws IllegalArgumentException {
+		if ((directions == null) || (yields == null))
+			throw new IllegalArgumentException();
+		for (double direction : directions) {
+			if (! GameObject.isValidDirection(direction))
+				throw new IllegalArgumentException();
+		}
+		double[][] result = new double[directions.length][yields.length];
+		EVALUATION_POOL.invoke(new Evaluation(this, directions, yields,
+				result, 0, directions.length * yields.length));
+		return result;
+	}
+
+	/**
+	 * Return the mean damage over the samples of the shot in the given
+	 * direction with the given propulsion yield.
+	 * 	The aiming errors of each candidate are drawn from a generator seeded
+	 * 	with the seed of this shot evaluator and the given candidate index,
+	 * 	so the result does not depend on the order of evaluation.
+	 */
+	private double getExpectedDamage(double direction, int yield,
+			int candidate) {
+		Random random = new Random(seed * 31 + candidate);
+		double speed = weapon.getForce(yield) / weapon.getProjecileMass()
+				* 0.5;
+		int hits = 0;
+		for (int sample = 0; sample < nbSamples; sample++) {
+			double aim = direction + directionDeviation * random.nextGaussian();
+			if (hitsTarget(aim, speed))
+				hits++;
+		}
+		return (double) hits * weapon.getDamage() / nbSamples;
+	}
+
+	/**
+	 * Check whether a projectile fired in the given direction at the given
+	 * speed hits a worm other than the shooter before it hits impassable
+	 * terrain or leaves the world.
+	 */
+	private boolean hitsTarget(double direction, double speed) {
+		double offset = weapon.getProjectileRadius();
+		Trajectory trajectory = new Trajectory(
+				shooterX + offset * Math.cos(direction),
+				shooterY + offset * Math.sin(direction),
+				speed * Math.cos(direction), speed * Math.sin(direction),
+				GameObject.getGravityOfEarth());
+		long lastStep = trajectory.getFirstStepOutside(0, 0,
+				world.getWidth(), world.getHeight(), timeStep);
+		lastStep = getTerrainHitStep(trajectory, lastStep);
+		double radius = Projectile.getRadiusForMass(
+				weapon.getProjecileMass());
+		for (int target = 0; target < targetX.length; target++) {
+			if (trajectory.getFirstStepInsideCircle(targetX[target],
+					targetY[target], radius + targetRadius[target], timeStep,
+					lastStep) > 0)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Return the first time step before the given last step at which a
+	 * projectile following the given trajectory is in impassable terrain,
+	 * or the given last step if there is no such step.
+	 */
+	private long getTerrainHitStep(Trajectory trajectory, long lastStep) {
+		double radius = Projectile.getRadiusForMass(
+				weapon.getProjecileMass());
+		long step = 1;
+		while (step < lastStep) {
+			double time = step * timeStep;
+			double x = trajectory.getX(time);
+			double y = trajectory.getY(time);
+			if (world.isImpassableForObject(x, y, radius))
+				return step;
+			double clearance = world.getMinimalClearance(x, y) - radius;
+			if (clearance == Double.POSITIVE_INFINITY)
+				return lastStep;
+			double duration = trajectory.getDurationFor(clearance, time);
+			step = Math.max(step + 1,
+					(long) Math.floor((time + duration) / timeStep) + 1);
+		}
+		return lastStep;
+	}
+
+	/**
+	 * Pool of threads in which candidate shots are evaluated in parallel.
+	 */
+	private static final ForkJoinPool EVALUATION_POOL = new ForkJoinPool();
+
+	/**
+	 * A class of tasks evaluating the candidate shots in a range of a grid
+	 * of directions and propulsion yields.
+	 * 	The candidates are numbered row by row; ranges of more than
+	 * 	EVALUATION_THRESHOLD candidates are split in halves that are
+	 * 	evaluated in parallel. Each task writes only the entries of its own
+	 * 	range of the result.
+	 */
+	private static class Evaluation extends RecursiveAction {
+
+		private Evaluation(ShotEvaluator evaluator, double[] directions,
+				int[] yields, double[][] result, int from, int to) {
+			this.evaluator = evaluator;
+			this.directions = directions;
+			this.yields = yields;
+			this.result = result;
+			this.from = from;
+			this.to = to;
+		}
+
+		private final ShotEvaluator evaluator;
+
+		private final double[] directions;
+
+		private final int[] yields;
+
+		private final double[][] result;
+
+		private final int from;
+
+		private final int to;
+
+		@Override
+		protected void compute() {
+			if (to - from <= EVALUATION_THRESHOLD) {
+				for (int candidate = from; candidate < to; candidate++) {
+					int i = candidate / yields.length;
+					int j = candidate % yields.length;
+					result[i][j] = evaluator.getExpectedDamage(directions[i],
+							yields[j], candidate);
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new Evaluation(evaluator, directions, yields, result,
+					from, middle),
+					new Evaluation(evaluator, directions, yields, result,
+					middle, to));
+		}
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Variable registering the number of candidates below which a range
+		 * is evaluated in a single thread.
+		 */
+		private static final int EVALUATION_THRESHOLD = 4;
+
+	}
+
+}
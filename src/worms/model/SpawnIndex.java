@@ -0,0 +1,172 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of spawn indices involving a world and a radius.
+ * 	A spawn index lists positions of its world at which an object with its
+ * 	radius can be placed, i.e. positions that are adjacent to impassable
+ * 	terrain. The positions are found by letting the object drop on each
+ * 	floor surface of the world, sampled in vertical lines a quarter of the
+ * 	radius apart; the floors below each line are found with the column
+ * 	surfaces of the world, so the index is computed without scanning the
+ * 	passable area of the world.
+ *
+ * @invar	Each position of each spawn index is adjacent to impassable
+ * 			terrain for its radius.
+ * 		  |	for each index in 0..getNbPositions()-1:
+ * 		  |		getWorld().isAdjacent(getX(index), getY(index), getRadius())
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+public class SpawnIndex {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new spawn index for objects with the given radius in
+	 * the given world.
+	 *
+	 * @param 	world
+	 * 			The world for this new spawn index.
+	 * @param 	radius
+	 * 			The radius of the objects to place.
+	 * @post	...
+	 * 		  |	new.getWorld() == world
+	 * @post	...
+	 * 		  |	new.getRadius() == radius
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	(world == null) || ! (0 < radius < infinity)
+	 */
+	public SpawnIndex(World world, double radius)
+			throws IllegalArgumentException {
+		if ((world == null) || ! ((radius > 0)
+				&& (radius < Double.POSITIVE_INFINITY)))
+			throw new IllegalArgumentException();
+		this.world = world;
+		this.radius = radius;
+		this.positions = computePositions();
+	}
+
+	/**
+	 * Variable registering the number of vertical lines per radius along
+	 * which the floors are sampled.
+	 */
+	private static final int LINES_PER_RADIUS = 4;
+
+
+
+
+	/**
+	 * Return the world of this spawn index.
+	 */
+	@Basic
+	@Immutable
+	public World getWorld() {
+		return world;
+	}
+
+	private final World world;
+
+	/**
+	 * Return the radius of the objects placed by this spawn index.
+	 */
+	@Basic
+	@Immutable
+	public double getRadius() {
+		return radius;
+	}
+
+	private final double radius;
+
+
+
+
+	//POSITIONS
+	/**
+	 * Return the number of positions of this spawn index.
+	 */
+	@Basic
+	@Immutable
+	public int getNbPositions() {
+		return positions.length / 2;
+	}
+
+	/**
+	 * Return the X coordinate of the position of this spawn index at the
+	 * given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	(index < 0) || (index >= getNbPositions())
+	 */
+	@Basic
+	@Immutable
+	public double getX(int index) throws IndexOutOfBoundsException {
+		if ((index < 0) || (index >= getNbPositions()))
+			throw new IndexOutOfBoundsException();
+		return positions[2 * index];
+	}
+
+	/**
+	 * Return the Y coordinate of the position of this spawn index at the
+	 * given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	(index < 0) || (index >= getNbPositions())
+	 */
+	@Basic
+	@Immutable
+	public double getY(int index) throws IndexOutOfBoundsException {
+		if ((index < 0) || (index >= getNbPositions()))
+			throw new IndexOutOfBoundsException();
+		return positions[2 * index + 1];
+	}
+
+	/**
+	 * Compute the positions of this spawn index.
+	 * 	An object dropped along a vertical line stops where it comes within
+	 * 	1.1 times its radius of a floor; a twentieth of its radius lower it
+	 * 	is adjacent to that floor. The search then continues below that
+	 * 	floor.
+	 */
+	private double[] computePositions() {
+		double outerRadius = 1.1 * radius;
+		double step = radius / LINES_PER_RADIUS;
+		double[] result = new double[32];
+		int size = 0;
+		for (double x = radius; x <= world.getWidth() - radius; x += step) {
+			double y = world.getHeight() - radius;
+			while (true) {
+				double landingY = world.getLandingHeight(x, y, outerRadius);
+				if (landingY == Double.NEGATIVE_INFINITY) break;
+				double spawnY = landingY - 0.05 * radius;
+				if (world.isAdjacent(x, spawnY, radius)) {
+					if (size == result.length) {
+						double[] larger = new double[2 * size];
+						System.arraycopy(result, 0, larger, 0, size);
+						result = larger;
+					}
+					result[size++] = x;
+					result[size++] = spawnY;
+				}
+				// below the floor that was reached
+				y = landingY - 2 * outerRadius;
+			}
+		}
+		double[] trimmed = new double[size];
+		System.arraycopy(result, 0, trimmed, 0, size);
+		return trimmed;
+	}
+
+	/**
+	 * Array registering the coordinates of the positions of this spawn index,
+	 * one position after the other.
+	 */
+	private final double[] positions;
+
+}
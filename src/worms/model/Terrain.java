@@ -0,0 +1,304 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of terrains involving a number of rows and a number of columns of
+ * pixels which are either passable or impassable.
+ * 	The pixels are stored as a bit set in an array of longs, one bit for each
+ * 	pixel. Each row starts at a new long (i.e. rows are word-aligned) so that
+ * 	the pixels of a row can be inspected in blocks of 64 pixels. A set bit
+ * 	marks an impassable pixel.
+ *
+ * @invar	The number of rows of each terrain is strictly positive.
+ * 		  |	getNbRows() > 0
+ * @invar	The number of columns of each terrain is strictly positive.
+ * 		  |	getNbColumns() > 0
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+public class Terrain {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new terrain with the given number of rows and the given
+	 * number of columns in which all pixels are passable.
+	 *
+	 * @param 	nbRows
+	 * 			The number of rows of pixels for this new terrain.
+	 * @param 	nbColumns
+	 * 			The number of columns of pixels for this new terrain.
+	 * @post	The number of rows of this new terrain is equal to the given
+	 * 			number of rows.
+	 * 		  |	new.getNbRows() == nbRows
+	 * @post	The number of columns of this new terrain is equal to the given
+	 * 			number of columns.
+	 * 		  |	new.getNbColumns() == nbColumns
+	 * @post	Each pixel of this new terrain is passable.
+	 * 		  |	for each row in 0..nbRows-1:
+	 * 		  |		for each column in 0..nbColumns-1:
+	 * 		  |			new.isPassable(row, column)
+	 * @throws	IllegalArgumentException
+	 * 			The given number of rows or columns is not strictly positive.
+	 * 		  |	(nbRows <= 0) || (nbColumns <= 0)
+	 */
+	@Raw
+	public Terrain(int nbRows, int nbColumns) throws IllegalArgumentException {
+		if ((nbRows <= 0) || (nbColumns <= 0))
+			throw new IllegalArgumentException();
+		this.nbRows = nbRows;
+		this.nbColumns = nbColumns;
+		this.nbBlocksPerRow = (nbColumns + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		this.blocks = new long[nbRows * nbBlocksPerRow];
+	}
+
+	/**
+	 * Initialize this new terrain from the given passable map.
+	 *
+	 * @param 	passableMap
+	 * 			The passable map (i.e. a matrix of rows of pixels) for this new
+	 * 			terrain.
+	 * @effect	This new terrain is initialized with the number of rows and the
+	 * 			number of columns of the given passable map.
+	 * 		  |	this(passableMap.length, passableMap[0].length)
+	 * @post	Each pixel of this new terrain is passable if and only if the
+	 * 			corresponding pixel in the given passable map is passable.
+	 * 		  |	for each row in 0..passableMap.length-1:
+	 * 		  |		for each column in 0..passableMap[0].length-1:
+	 * 		  |			new.isPassable(row, column) == passableMap[row][column]
+	 * @throws	IllegalArgumentException
+	 * 			The given passable map is not effective, is empty or is not
+	 * 			rectangular.
+	 */
+	public Terrain(boolean[][] passableMap) throws IllegalArgumentException {
+		this(getNbRows(passableMap), getNbColumns(passableMap));
+		for (int row = 0; row < nbRows; row++) {
+			boolean[] pixels = passableMap[row];
+			if (pixels.length != nbColumns)
+				throw new IllegalArgumentException();
+			for (int column = 0; column < nbColumns; column++) {
+				if (! pixels[column]) {
+					setImpassable(row, column);
+				}
+			}
+		}
+	}
+
+	private static int getNbRows(boolean[][] passableMap) {
+		if (passableMap == null) throw new IllegalArgumentException();
+		return passableMap.length;
+	}
+
+	private static int getNbColumns(boolean[][] passableMap) {
+		if ((passableMap == null) || (passableMap.length == 0)
+				|| (passableMap[0] == null))
+			throw new IllegalArgumentException();
+		return passableMap[0].length;
+	}
+
+
+
+
+	//DIMENSIONS
+	/**
+	 * Return the number of rows of pixels of this terrain.
+	 */
+	@Basic
+	@Immutable
+	public int getNbRows() {
+		return nbRows;
+	}
+
+	private final int nbRows;
+
+	/**
+	 * Return the number of columns of pixels of this terrain.
+	 */
+	@Basic
+	@Immutable
+	public int getNbColumns() {
+		return nbColumns;
+	}
+
+	private final int nbColumns;
+
+	/**
+	 * Return the number of blocks of 64 pixels in each row of this terrain.
+	 *
+	 * @return	...
+	 * 		  |	result == ceil(getNbColumns() / 64)
+	 */
+	@Basic
+	@Immutable
+	public int getNbBlocksPerRow() {
+		return nbBlocksPerRow;
+	}
+
+	private final int nbBlocksPerRow;
+
+	/**
+	 * Variable registering the number of pixels in each block of a row.
+	 */
+	public static final int BLOCK_SIZE = 64;
+
+
+
+
+	//PASSABILITY
+	/**
+	 * Check whether the given row and the given column denote a pixel of this
+	 * terrain.
+	 *
+	 * @return	...
+	 * 		  |	result ==
+	 * 		  |		(row >= 0) && (row < getNbRows())
+	 * 		  |	 && (column >= 0) && (column < getNbColumns())
+	 */
+	public boolean isValidPixel(int row, int column) {
+		return ( (row >= 0) && (row < nbRows)
+			  && (column >= 0) && (column < nbColumns) );
+	}
+
+	/**
+	 * Check whether the pixel at the given row and the given column of this
+	 * terrain is passable.
+	 *
+	 * @param 	row
+	 * 			The row of the pixel to check.
+	 * @param 	column
+	 * 			The column of the pixel to check.
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	! isValidPixel(row, column)
+	 */
+	public boolean isPassable(int row, int column)
+			throws IndexOutOfBoundsException {
+		if (! isValidPixel(row, column))
+			throw new IndexOutOfBoundsException();
+		return (blocks[row * nbBlocksPerRow + (column >>> 6)]
+				& (1L << column)) == 0;
+	}
+
+	/**
+	 * Check whether the pixel at the given row and the given column of this
+	 * terrain is impassable.
+	 *
+	 * @effect	...
+	 * 		  |	result == (! isPassable(row, column))
+	 */
+	public boolean isImpassable(int row, int column)
+			throws IndexOutOfBoundsException {
+		return (! isPassable(row, column));
+	}
+
+	/**
+	 * Return the block of 64 pixels at the given block index in the given row
+	 * of this terrain.
+	 * 	Bit i of the resulting block is set if and only if the pixel at column
+	 * 	64*block + i is impassable. Bits beyond the last column are never set.
+	 *
+	 * @param 	row
+	 * 			The row of the block.
+	 * @param 	block
+	 * 			The index of the block in the given row.
+	 * @return	...
+	 * 		  |	for each i in 0..63:
+	 * 		  |		((result >>> i) & 1) == 1 ==
+	 * 		  |			( (64*block + i < getNbColumns())
+	 * 		  |		   && isImpassable(row, 64*block + i) )
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	(row < 0) || (row >= getNbRows())
+	 * 		  |	|| (block < 0) || (block >= getNbBlocksPerRow())
+	 */
+	public long getBlock(int row, int block) throws IndexOutOfBoundsException {
+		if ((row < 0) || (row >= nbRows) || (block < 0)
+				|| (block >= nbBlocksPerRow))
+			throw new IndexOutOfBoundsException();
+		return blocks[row * nbBlocksPerRow + block];
+	}
+
+	/**
+	 * Check whether any pixel in the given row of this terrain with a column
+	 * from the given lower column (inclusive) up to the given upper column
+	 * (exclusive) is impassable.
+	 * 	Columns outside this terrain are ignored.
+	 *
+	 * @param 	row
+	 * 			The row to inspect.
+	 * @param 	colFrom
+	 * 			The first column to inspect.
+	 * @param 	colTo
+	 * 			The column right after the last column to inspect.
+	 * @return	...
+	 * 		  |	result ==
+	 * 		  |		for some column in max(colFrom, 0)..min(colTo, getNbColumns())-1:
+	 * 		  |			isImpassable(row, column)
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	(row < 0) || (row >= getNbRows())
+	 */
+	public boolean isAnyImpassableInRow(int row, int colFrom, int colTo)
+			throws IndexOutOfBoundsException {
+		if ((row < 0) || (row >= nbRows))
+			throw new IndexOutOfBoundsException();
+		if (colFrom < 0) colFrom = 0;
+		if (colTo > nbColumns) colTo = nbColumns;
+		if (colFrom >= colTo) return false;
+		int offset = row * nbBlocksPerRow;
+		int first = colFrom >>> 6;
+		int last = (colTo - 1) >>> 6;
+		long firstMask = -1L << colFrom;
+		long lastMask = -1L >>> (63 - ((colTo - 1) & 63));
+		if (first == last) {
+			return (blocks[offset + first] & firstMask & lastMask) != 0;
+		}
+		if ((blocks[offset + first] & firstMask) != 0) return true;
+		for (int block = first + 1; block < last; block++) {
+			if (blocks[offset + block] != 0) return true;
+		}
+		return (blocks[offset + last] & lastMask) != 0;
+	}
+
+	/**
+	 * Mark the pixel at the given row and the given column of this terrain as
+	 * impassable.
+	 */
+	private void setImpassable(int row, int column) {
+		blocks[row * nbBlocksPerRow + (column >>> 6)] |= (1L << column);
+	}
+
+	/**
+	 * Return a passable map representing this terrain.
+	 * 	The resulting matrix is a fresh copy; changing it does not affect this
+	 * 	terrain.
+	 *
+	 * @return	...
+	 * 		  |	for each row in 0..getNbRows()-1:
+	 * 		  |		for each column in 0..getNbColumns()-1:
+	 * 		  |			result[row][column] == isPassable(row, column)
+	 */
+	public boolean[][] toPassableMap() {
+		boolean[][] passableMap = new boolean[nbRows][nbColumns];
+		for (int row = 0; row < nbRows; row++) {
+			for (int column = 0; column < nbColumns; column++) {
+				passableMap[row][column] = isPassable(row, column);
+			}
+		}
+		return passableMap;
+	}
+
+	/**
+	 * Array registering the pixels of this terrain, row after row, in blocks
+	 * of 64 pixels.
+	 *
+	 * @invar	...
+	 * 		  |	blocks.length == getNbRows() * getNbBlocksPerRow()
+	 */
+	private final long[] blocks;
+
+}
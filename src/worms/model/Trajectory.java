@@ -0,0 +1,414 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of ballistic trajectories involving a start position, an initial
+ * velocity and a gravitational acceleration.
+ * 	A trajectory describes the parabola followed by the centre of a game
+ * 	object during a jump. Time is measured in seconds from the start of the
+ * 	jump. Since jumps are simulated in time steps of a fixed size, the
+ * 	queries of a trajectory return the first time step (counted from 1) at
+ * 	which a condition holds; the conditions are solved analytically as
+ * 	polynomials in time, so the cost does not depend on the number of steps.
+ *
+ * @invar	The gravitational acceleration of each trajectory is positive.
+ * 		  |	getGravity() > 0
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+@Value
+public class Trajectory {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new trajectory starting at the given coordinates with
+	 * the given velocity, under the given gravitational acceleration.
+	 *
+	 * @param 	startX
+	 * 			The X coordinate at which this new trajectory starts.
+	 * @param 	startY
+	 * 			The Y coordinate at which this new trajectory starts.
+	 * @param 	velocityX
+	 * 			The initial horizontal velocity in m/s.
+	 * @param 	velocityY
+	 * 			The initial vertical velocity in m/s.
+	 * @param 	gravity
+	 * 			The gravitational acceleration in m/s^2.
+	 * @post	...
+	 * 		  |	(new.getX(0) == startX) && (new.getY(0) == startY)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	! (gravity > 0)
+	 */
+	public Trajectory(double startX, double startY, double velocityX,
+			double velocityY, double gravity) throws IllegalArgumentException {
+		if (! (gravity > 0))
+			throw new IllegalArgumentException();
+		this.startX = startX;
+		this.startY = startY;
+		this.velocityX = velocityX;
+		this.velocityY = velocityY;
+		this.gravity = gravity;
+	}
+
+	private final double startX;
+
+	private final double startY;
+
+	private final double velocityX;
+
+	private final double velocityY;
+
+
+
+
+	/**
+	 * Return the gravitational acceleration of this trajectory in m/s^2.
+	 */
+	@Basic
+	@Immutable
+	public double getGravity() {
+		return gravity;
+	}
+
+	private final double gravity;
+
+	/**
+	 * Return the X coordinate on this trajectory at the given time.
+	 *
+	 * @return	...
+	 * 		  |	result == startX + velocityX * time
+	 */
+	public double getX(double time) {
+		return startX + velocityX * time;
+	}
+
+	/**
+	 * Return the Y coordinate on this trajectory at the given time.
+	 *
+	 * @return	...
+	 * 		  |	result == startY + velocityY * time
+	 * 		  |		- 0.5 * getGravity() * time^2
+	 */
+	public double getY(double time) {
+		return startY + (velocityY * time - 0.5 * gravity * time * time);
+	}
+
+	/**
+	 * Return the speed in m/s along this trajectory at the given time.
+	 *
+	 * @return	...
+	 * 		  |	result == sqrt(velocityX^2
+	 * 		  |		+ (velocityY - getGravity() * time)^2)
+	 */
+	public double getSpeed(double time) {
+		double vy = velocityY - gravity * time;
+		return Math.sqrt(velocityX * velocityX + vy * vy);
+	}
+
+	/**
+	 * Return an upper bound for the duration from the given time during
+	 * which the centre of this trajectory travels at most the given distance.
+	 * 	Since the speed grows at most by getGravity() per second, the
+	 * 	distance travelled in a duration h is at most
+	 * 	getSpeed(time) * h + getGravity() * h^2 / 2.
+	 *
+	 * @return	...
+	 * 		  |	for each h in 0..result:
+	 * 		  |		length of this trajectory from time to time + h
+	 * 		  |			<= distance
+	 */
+	public double getDurationFor(double distance, double time) {
+		if (! (distance > 0)) return 0;
+		double speed = getSpeed(time);
+		return 2 * distance
+				/ (speed + Math.sqrt(speed * speed + 2 * gravity * distance));
+	}
+
+	/**
+	 * Return the smallest Y coordinate on this trajectory between the start
+	 * and the given time.
+	 */
+	public double getMinY(double time) {
+		return Math.min(getY(0), getY(time));
+	}
+
+	/**
+	 * Return the largest Y coordinate on this trajectory between the start
+	 * and the given time.
+	 */
+	public double getMaxY(double time) {
+		double apexTime = velocityY / gravity;
+		if ((apexTime > 0) && (apexTime < time))
+			return getY(apexTime);
+		return Math.max(getY(0), getY(time));
+	}
+
+
+
+
+	/**
+	 * Check whether this trajectory is equal to the given object.
+	 * 
+	 * @return	True if and only if the given object is a trajectory with the
+	 * 			same start position, initial velocity and gravity as this
+	 * 			trajectory.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (other == null)
+			return false;
+		if (this.getClass() != other.getClass())
+			return false;
+		Trajectory otherTrajectory = (Trajectory) other;
+		return (startX == otherTrajectory.startX)
+			&& (startY == otherTrajectory.startY)
+			&& (velocityX == otherTrajectory.velocityX)
+			&& (velocityY == otherTrajectory.velocityY)
+			&& (gravity == otherTrajectory.gravity);
+	}
+	
+	/**
+	 * Return the hash code of this trajectory.
+	 */
+	@Override
+	public int hashCode() {
+		long bits = Double.doubleToLongBits(startX);
+		bits = 31 * bits + Double.doubleToLongBits(startY);
+		bits = 31 * bits + Double.doubleToLongBits(velocityX);
+		bits = 31 * bits + Double.doubleToLongBits(velocityY);
+		bits = 31 * bits + Double.doubleToLongBits(gravity);
+		return (int) (bits ^ (bits >>> 32));
+	}
+
+
+
+
+	//TIME STEPS
+	/**
+	 * Return the first time step, not beyond the given maximal step, at which
+	 * the centre of this trajectory lies strictly inside the circle with the
+	 * given centre and the given radius.
+	 *
+	 * @param 	centreX
+	 * 			The X coordinate of the centre of the circle.
+	 * @param 	centreY
+	 * 			The Y coordinate of the centre of the circle.
+	 * @param 	radius
+	 * 			The radius of the circle.
+	 * @param 	dt
+	 * 			The size of a time step.
+	 * @param 	maxStep
+	 * 			The last time step to consider.
+	 * @return	...
+	 * 		  |	if for some step in 1..maxStep:
+	 * 		  |		distance from (getX(step * dt), getY(step * dt)) to
+	 * 		  |			(centreX, centreY) < radius
+	 * 		  |		then result == the smallest such step
+	 * 		  |	else result == -1
+	 */
+	public long getFirstStepInsideCircle(double centreX, double centreY,
+			double radius, double dt, long maxStep) {
+		return getFirstStepInsideCircle(centreX, centreY, radius, dt, 1,
+				maxStep);
+	}
+
+	/**
+	 * Return the first time step, not before the given minimal step and not
+	 * beyond the given maximal step, at which the centre of this trajectory
+	 * lies strictly inside the circle with the given centre and the given
+	 * radius.
+	 *
+	 * @return	...
+	 * 		  |	if for some step in max(1, minStep)..maxStep:
+	 * 		  |		distance from (getX(step * dt), getY(step * dt)) to
+	 * 		  |			(centreX, centreY) < radius
+	 * 		  |		then result == the smallest such step
+	 * 		  |	else result == -1
+	 */
+	public long getFirstStepInsideCircle(double centreX, double centreY,
+			double radius, double dt, long minStep, long maxStep) {
+		return getFirstNegativeStep(getCirclePolynomial(centreX, centreY,
+				radius), dt, minStep, maxStep);
+	}
+
+	/**
+	 * Return the first time step, not beyond the given maximal step, at which
+	 * the centre of this trajectory lies strictly outside the circle with the
+	 * given centre and the given radius.
+	 *
+	 * @return	...
+	 * 		  |	if for some step in 1..maxStep:
+	 * 		  |		distance from (getX(step * dt), getY(step * dt)) to
+	 * 		  |			(centreX, centreY) > radius
+	 * 		  |		then result == the smallest such step
+	 * 		  |	else result == -1
+	 */
+	public long getFirstStepOutsideCircle(double centreX, double centreY,
+			double radius, double dt, long maxStep) {
+		double[] polynomial = getCirclePolynomial(centreX, centreY, radius);
+		for (int i = 0; i < polynomial.length; i++) {
+			polynomial[i] = -polynomial[i];
+		}
+		return getFirstNegativeStep(polynomial, dt, 1, maxStep);
+	}
+
+	/**
+	 * Return the polynomial in time of the squared distance from this
+	 * trajectory to the given centre, minus the square of the given radius.
+	 */
+	private double[] getCirclePolynomial(double centreX, double centreY,
+			double radius) {
+		double x = startX - centreX;
+		double y = startY - centreY;
+		double a = 0.5 * gravity;
+		// |(x + vx t, y + vy t - a t^2)|^2 - radius^2
+		return new double[] {
+			x * x + y * y - radius * radius,
+			2 * (x * velocityX + y * velocityY),
+			velocityX * velocityX + velocityY * velocityY - 2 * a * y,
+			-2 * a * velocityY,
+			a * a
+		};
+	}
+
+	/**
+	 * Return the first time step at which the centre of this trajectory lies
+	 * outside the rectangle with the given corners.
+	 * 	Since every trajectory eventually drops below any height, such a step
+	 * 	always exists.
+	 *
+	 * @return	...
+	 * 		  |	let
+	 * 		  |		x = getX(result * dt), y = getY(result * dt)
+	 * 		  |	in
+	 * 		  |		(x < minX) || (x > maxX) || (y < minY) || (y > maxY)
+	 * @return	...
+	 * 		  |	for each step in 1..result-1:
+	 * 		  |		(getX(step * dt), getY(step * dt)) lies inside the
+	 * 		  |			rectangle
+	 */
+	public long getFirstStepOutside(double minX, double minY, double maxX,
+			double maxY, double dt) {
+		double a = 0.5 * gravity;
+		// the trajectory is below minY for good after its last root
+		double dy = startY - minY;
+		double discriminant = velocityY * velocityY + 4 * a * Math.max(dy, 0);
+		double belowTime = (velocityY + Math.sqrt(discriminant)) / (2 * a);
+		long maxStep = (long) Math.floor(Math.max(belowTime, 0) / dt) + 1;
+		long result = maxStep;
+		double[][] conditions = {
+			{ startX - minX, velocityX },
+			{ maxX - startX, -velocityX },
+			{ startY - minY, velocityY, -a },
+			{ maxY - startY, -velocityY, a }
+		};
+		for (double[] condition : conditions) {
+			long step = getFirstNegativeStep(condition, dt, 1, result);
+			if (step > 0)
+				result = step;
+		}
+		return result;
+	}
+
+	/**
+	 * Return the first time step, not before the given minimal step and not
+	 * beyond the given maximal step, at which the given polynomial is
+	 * negative.
+	 * 	The roots of the polynomial isolate the intervals in which it is
+	 * 	negative; the first step inside such an interval is checked by
+	 * 	evaluating the polynomial itself.
+	 *
+	 * @param 	polynomial
+	 * 			The coefficients of the polynomial, constant term first.
+	 * @return	...
+	 * 		  |	if for some step in max(1, minStep)..maxStep:
+	 * 		  |		evaluate(polynomial, step * dt) < 0
+	 * 		  |		then result == the smallest such step
+	 * 		  |	else result == -1
+	 */
+	private static long getFirstNegativeStep(double[] polynomial, double dt,
+			long minStep, long maxStep) {
+		minStep = Math.max(1, minStep);
+		if (maxStep < minStep) return -1;
+		double end = maxStep * dt;
+		double from = (minStep - 1) * dt;
+		double[] roots = getRoots(polynomial, from, end);
+		for (int i = 0; i <= roots.length; i++) {
+			double to = (i < roots.length) ? roots[i] : end;
+			if ((to > from) && (evaluate(polynomial, 0.5 * (from + to)) < 0)) {
+				long step = Math.max(minStep, (long) Math.floor(from / dt));
+				for (; (step * dt <= to + dt) && (step <= maxStep); step++) {
+					if (evaluate(polynomial, step * dt) < 0)
+						return step;
+				}
+			}
+			from = to;
+		}
+		return -1;
+	}
+
+	/**
+	 * Return the value of the given polynomial at the given time.
+	 */
+	private static double evaluate(double[] polynomial, double time) {
+		double result = 0;
+		for (int i = polynomial.length - 1; i >= 0; i--) {
+			result = result * time + polynomial[i];
+		}
+		return result;
+	}
+
+	/**
+	 * Return the roots of the given polynomial between the given bounds, in
+	 * increasing order.
+	 * 	The roots of the derivative split the interval into pieces on which
+	 * 	the polynomial is monotone; each piece holds at most one root, which
+	 * 	is found by bisection.
+	 */
+	private static double[] getRoots(double[] polynomial, double from,
+			double to) {
+		int degree = polynomial.length - 1;
+		if (degree < 1) return new double[0];
+		double[] bounds;
+		if (degree == 1) {
+			bounds = new double[] {from, to};
+		} else {
+			double[] derivative = new double[degree];
+			for (int i = 1; i <= degree; i++) {
+				derivative[i - 1] = i * polynomial[i];
+			}
+			double[] extrema = getRoots(derivative, from, to);
+			bounds = new double[extrema.length + 2];
+			bounds[0] = from;
+			System.arraycopy(extrema, 0, bounds, 1, extrema.length);
+			bounds[bounds.length - 1] = to;
+		}
+		double[] roots = new double[bounds.length - 1];
+		int nbRoots = 0;
+		for (int i = 0; i < bounds.length - 1; i++) {
+			double low = bounds[i];
+			double high = bounds[i + 1];
+			double lowValue = evaluate(polynomial, low);
+			double highValue = evaluate(polynomial, high);
+			if ((lowValue < 0) == (highValue < 0)) continue;
+			for (int iteration = 0; iteration < 100; iteration++) {
+				double middle = 0.5 * (low + high);
+				if ((middle <= low) || (middle >= high)) break;
+				if ((evaluate(polynomial, middle) < 0) == (lowValue < 0)) {
+					low = middle;
+				} else {
+					high = middle;
+				}
+			}
+			roots[nbRoots++] = 0.5 * (low + high);
+		}
+		double[] result = new double[nbRoots];
+		System.arraycopy(roots, 0, result, 0, nbRoots);
+		return result;
+	}
+
+}
@@ -1,13 +1,18 @@
 package worms.model;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.lang.Math;
 
 import static worms.util.Util.*;
@@ -16,7 +21,7 @@ import be.kuleuven.cs.som.annotate.*;
 /**
  * ...
  * 	 
- * @invar	Each world has a proper projectile.
+ * @invar	Each world has proper projectiles.
  * 		  |	hasProperProjectile()
  * @invar	The worms attached to each world must be proper worms for that 
  * 			world.
@@ -44,7 +49,7 @@ public class World {
 	 * @post	...
 	 * 		  |	new.getHeight() == height
 	 * @post	...
-	 * 		  |	new.getPassableMap() == passableMap
+	 * 		  |	Arrays.deepEquals(new.getPassableMap(), passableMap)
 	 * @throws	IllegalArgumentException
 	 * 		  	...
 	 * 		  |	! isValidWidth(width)
@@ -56,7 +61,7 @@ public class World {
 			Random random) {
 		this.width = width;
 		this.height = height;
-		this.passableMap = passableMap;
+		this.terrain = new Terrain(passableMap);
 		isTerminated = false;
 		horizontalResolution = getNoHorizontalPixels() / getWidth();
 		verticalResolution = getNoVerticalPixels() / getHeight();
@@ -64,6 +69,96 @@ public class World {
 		verticalScale = getHeight() / getNoVerticalPixels();
 		pixelWidth = getWidth() / getNoHorizontalPixels();
 		pixelHeight = getHeight() / getNoVerticalPixels();
+		distanceField = new DistanceField(getTerrain(), getPixelWidth(),
+				getPixelHeight());
+		wormGrid = new WormGrid(getWidth(), getHeight());
+		surfaces = computeSurfaces();
+	}
+	
+	/**
+	 * Initialize this new world as a snapshot of the given world, without
+	 * any worms or projectiles.
+	 * 	The terrain of the given world, its distance field and its surfaces
+	 * 	are shared by reference. The spawn indices refer to the world they
+	 * 	were computed for, so this new world starts with an empty cache of
+	 * 	its own.
+	 */
+	private World(World source) {
+		this.width = source.width;
+		this.height = source.height;
+		this.terrain = source.terrain;
+		isTerminated = false;
+		horizontalResolution = source.horizontalResolution;
+		verticalResolution = source.verticalResolution;
+		horizontalScale = source.horizontalScale;
+		verticalScale = source.verticalScale;
+		pixelWidth = source.pixelWidth;
+		pixelHeight = source.pixelHeight;
+		distanceField = source.distanceField;
+		wormGrid = new WormGrid(getWidth(), getHeight());
+		surfaces = source.surfaces;
+	}
+	
+	
+	
+	
+	//SNAPSHOTS
+	/**
+	 * Return a snapshot of this world.
+	 * 	A snapshot is a new world with the same terrain as this world, to
+	 * 	which copies of the worms and the projectiles of this world are
+	 * 	attached in the same state, in the same order and in the same order
+	 * 	of turns. Moves, jumps and shots in a snapshot leave this world
+	 * 	untouched, and the other way around, so a snapshot can be used to try
+	 * 	out a turn and be dropped afterwards.
+	 * 	The terrain, its distance field and its surfaces are shared by
+	 * 	reference; taking a snapshot therefore only costs the copies of the
+	 * 	worms and projectiles. A snapshot computes its own spawn indices, so
+	 * 	it holds no references to this world. The programs of the worms are
+	 * 	not copied.
+	 * 
+	 * @return	...
+	 * 		  |	(result.getTerrain() == getTerrain())
+	 * 		  |	&& (result.getWidth() == getWidth())
+	 * 		  |	&& (result.getHeight() == getHeight())
+	 * @return	...
+	 * 		  |	(result.getNbWorms() == getNbWorms())
+	 * 		  |	&& for each index in 0..getNbWorms()-1:
+	 * 		  |		(result.getWormAt(index) != getWormAt(index))
+	 * 		  |	 && (result.getWormAt(index).getName()
+	 * 		  |			== getWormAt(index).getName())
+	 * 		  |	 && (result.getWormAt(index).getPosition()
+	 * 		  |			.equals(getWormAt(index).getPosition()))
+	 * @return	...
+	 * 		  |	(result.getNbProjectiles() == getNbProjectiles())
+	 * 		  |	&& (result.isGameStarted() == isGameStarted())
+	 * @throws	IllegalStateException
+	 * 			...
+	 * 		  |	isTerminated()
+	 */
+	public World snapshot() throws IllegalStateException {
+		if (isTerminated())
+			throw new IllegalStateException();
+		World result = new World(this);
+		Map<Worm, Worm> copies = new IdentityHashMap<Worm, Worm>();
+		for (Worm worm : worms) {
+			Worm copy = worm.copy();
+			copies.put(worm, copy);
+			result.registerWorm(copy);
+		}
+		for (Worm worm : worms) {
+			copies.get(worm).setTurnLinks(copies.get(worm.getPreviousInTurn()),
+					copies.get(worm.getNextInTurn()));
+		}
+		result.firstInTurn = copies.get(firstInTurn);
+		result.nextTurnWorm = copies.get(nextTurnWorm);
+		result.currentWorm = copies.get(currentWorm);
+		result.gameStarted = gameStarted;
+		for (Projectile projectile : projectiles) {
+			result.addAsProjectile(projectile.copy(
+					copies.get(projectile.getShooter())));
+		}
+		return result;
 	}
 	
 	
@@ -75,14 +170,14 @@ public class World {
 	 * 
 	 * @post	...
 	 * 		  |	new.isTerminated()
-	 * @post	This world no longer references a projectile as the projectile
-	 * 		  	to which it is attached.
-	 * 		  |	new.getProjectile() == null
-	 * @post	If this world was not already terminated and if this world had
-	 * 			an effective projectile, the projectile to which this world was
-	 * 			attached no longer has a world attached to it.
-	 * 		  |	if ((! this.isTerminated()) && (getProjectile != null))
-	 * 		  |		then (! ((new) this.getProjectile()).hasWorld() )
+	 * @post	This world no longer references any projectiles.
+	 * 		  |	new.getNbProjectiles() == 0
+	 * @post	If this world was not already terminated, the projectiles to
+	 * 			which this world was attached no longer have a world attached
+	 * 			to them.
+	 * 		  |	if (! this.isTerminated())
+	 * 		  |		then for each projectile in getAllProjectiles():
+	 * 		  |			(! (new projectile).hasWorld() )
 	 * @post	No worms are any longer attached to this world.
 	 * 		  |	new.getNbWorms() == 0
 	 * @post	...
@@ -93,18 +188,22 @@ public class World {
 	 * 		  |		this.removeAsWorm(worm)
 	 */
 	public void terminate() {
-		if ((! this.isTerminated()) && (getProjectile() != null)) {
-			getProjectile().setWorld(null);
-		}
 		setProjectile(null);
 		Iterator<Worm> iterator = worms.iterator();
 		while (iterator.hasNext()) {
 			Worm worm = iterator.next();
 			if (hasAsWorm(worm)) {
 				worm.setWorld(null);
+				worm.setTurnLinks(null, null);
 			}
 			iterator.remove();
 		}
+		wormIndices.clear();
+		wormTable.clear();
+		wormsByName.clear();
+		firstInTurn = null;
+		nextTurnWorm = null;
+		wormGrid.clear();
 		isTerminated = true;
 	}
 	
@@ -210,10 +309,14 @@ public class World {
 	/**
 	 * Return the passable map of this world.
 	 * 	A passable map consists of rows and columns of pixels presented as a
-	 * 	matrix.
+	 * 	matrix. The resulting matrix is built from the terrain of this world;
+	 * 	changing it does not affect this world.
+	 * 
+	 * @return	...
+	 * 		  |	result == getTerrain().toPassableMap()
 	 */
 	public boolean[][] getPassableMap() { 
-		return passableMap;
+		return getTerrain().toPassableMap();
 	}
 	
 	/**
@@ -221,10 +324,10 @@ public class World {
 	 * 
 	 * @return	...
 	 * 		  |	result ==
-	 * 		  |		getPassableMap().length
+	 * 		  |		getTerrain().getNbColumns()
 	 */
 	public int getNoHorizontalPixels() {
-		return getPassableMap()[0].length;
+		return getTerrain().getNbColumns();
 	}
 	
 	/**
@@ -232,16 +335,131 @@ public class World {
 	 * 
 	 * @return	...
 	 * 		  |	result ==
-	 * 		  |		getPassableMap()[0].length
+	 * 		  |		getTerrain().getNbRows()
 	 */
 	public int getNoVerticalPixels() { 
-		return getPassableMap().length;
+		return getTerrain().getNbRows();
+	}
+	
+	/**
+	 * Return the terrain of this world.
+	 */
+	@Basic
+	@Immutable
+	public Terrain getTerrain() {
+		return terrain;
 	}
 
 	/**
-	 * Variable referencing the passable map of this world.
+	 * Variable referencing the terrain of this world.
+	 */
+	private final Terrain terrain;
+	
+	/**
+	 * Return the distance field of the terrain of this world.
+	 */
+	@Basic
+	@Immutable
+	public DistanceField getDistanceField() {
+		return distanceField;
+	}
+	
+	/**
+	 * Variable referencing the distance field of the terrain of this world.
+	 */
+	private final DistanceField distanceField;
+	
+	/**
+	 * Return the heights in metres of the floor surfaces in the given column
+	 * of pixels of this world, in increasing order.
+	 * 	A floor surface is the top of an impassable pixel of which the pixel
+	 * 	straight above is passable or outside this world.
+	 * 
+	 * @param	column
+	 * 			The index of the column of pixels.
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	(column < 0) || (column >= getNoHorizontalPixels())
+	 */
+	public double[] getSurfaces(int column) throws IndexOutOfBoundsException {
+		return surfaces[column].clone();
+	}
+	
+	/**
+	 * Return the largest Y coordinate, not above the given Y coordinate, at 
+	 * which an object falling straight down from the given coordinates comes
+	 * nearer than the given distance to an impassable pixel of this world.
+	 * 	For each column of pixels within the given distance of the given X
+	 * 	coordinate, the highest floor surface the object can reach is found by
+	 * 	a binary search over the surfaces of that column.
+	 * 
+	 * @return	...
+	 * 		  |	for each y' in result..y:
+	 * 		  |		for each impassable pixel of getTerrain():
+	 * 		  |			distance from (x, y') to that pixel >= distance
+	 * @return	If no impassable pixel lies below the given coordinates within
+	 * 			the given distance of the fall line, the result is negative
+	 * 			infinity.
+	 */
+	public double getLandingHeight(double x, double y, double distance) {
+		double pixelWidth = getPixelWidth();
+		int columnFrom = Math.max(0, 
+				(int) Math.floor((x - distance) / pixelWidth));
+		int columnTo = Math.min(getNoHorizontalPixels() - 1,
+				(int) Math.floor((x + distance) / pixelWidth));
+		double result = Double.NEGATIVE_INFINITY;
+		for (int column = columnFrom; column <= columnTo; column++) {
+			double left = column * pixelWidth;
+			double gap = Math.max(0, Math.max(left - x, x - left - pixelWidth));
+			if (gap >= distance) continue;
+			double reach = Math.sqrt(distance * distance - gap * gap);
+			double[] columnSurfaces = surfaces[column];
+			// the highest surface with surface + reach <= y
+			int low = 0;
+			int high = columnSurfaces.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (columnSurfaces[middle] + reach <= y) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			if (low > 0) {
+				result = Math.max(result, columnSurfaces[low - 1] + reach);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Compute the floor surfaces in each column of pixels of this world.
+	 */
+	private double[][] computeSurfaces() {
+		Terrain terrain = getTerrain();
+		int nbRows = terrain.getNbRows();
+		double[][] result = new double[terrain.getNbColumns()][];
+		double[] buffer = new double[nbRows];
+		for (int column = 0; column < result.length; column++) {
+			int size = 0;
+			// from the bottom row up, so the heights are increasing
+			for (int row = nbRows - 1; row >= 0; row--) {
+				if (terrain.isImpassable(row, column)
+				  && ((row == 0) || terrain.isPassable(row - 1, column))) {
+					buffer[size++] = (nbRows - row) * getPixelHeight();
+				}
+			}
+			result[column] = new double[size];
+			System.arraycopy(buffer, 0, result[column], 0, size);
+		}
+		return result;
+	}
+	
+	/**
+	 * Variable registering the heights of the floor surfaces in each column
+	 * of pixels of this world.
 	 */
-	private boolean[][] passableMap;
+	private final double[][] surfaces;
 	
 	
 	
@@ -350,31 +568,48 @@ public class World {
 	/**
 	 * Check whether the given position is passable.
 	 * 
+	 * @effect	...
+	 * 		  |	result == isPassable(position.getX(), position.getY())
+	 */
+	public boolean isPassable(Position position) {
+		return isPassable(position.getX(), position.getY());
+	}
+	
+	/**
+	 * Check whether the position with the given X coordinate and the given Y
+	 * coordinate is passable.
+	 * 	A position on the border between two pixels is passable if at least one
+	 * 	of both pixels is passable; a position on the corner of four pixels is
+	 * 	passable if two neighbouring pixels are passable. Positions outside the
+	 * 	borders of this world are passable.
+	 * 
 	 * @return	...
 	 * 		  |	let
-	 * 		  |		passableMap = getPassableMap()
-	 * 		  |		&& x = getPixelRow(position) - 1
-	 * 		  |		&& y = getPixelColumn(position) - 1
+	 * 		  |		row = getPixelRow(x, y) - 1
+	 * 		  |		&& column = getPixelColumn(x, y) - 1
 	 * 		  |	in
-	 * 		  |		passableMap[x][y] == true
+	 * 		  |		getTerrain().isPassable(row, column)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	(! Position.isValidCoordinate(x))
+	 * 		  |	|| (! Position.isValidCoordinate(y))
 	 */
-	public boolean isPassable(Position position) {
-		double x = position.getX();
-		double y = position.getY();
+	public boolean isPassable(double x, double y) 
+			throws IllegalArgumentException {
+		if ((! Position.isValidCoordinate(x)) 
+				|| (! Position.isValidCoordinate(y))) {
+			throw new IllegalArgumentException();
+		}
 		double rx = x%getPixelWidth();
 		double ry = y%getPixelHeight();
 		if (fuzzyEquals(rx, 0) && fuzzyEquals(ry, 0)) {
 			//check boven, onder, links en rechts
 			double dx = getPixelWidth()/2;
 			double dy = getPixelHeight()/2;
-			Position topLeft = new Position(x - dx, y + dy);
-			Position topRight = new Position(x + dx, y + dy);
-			Position bottomLeft = new Position(x - dx, y - dy);
-			Position bottomRight = new Position(x + dx, y - dy);
-			boolean topLeftPassable = isPassable(topLeft);
-			boolean topRightPassable = isPassable(topRight);
-			boolean bottomLeftPassable = isPassable(bottomLeft);
-			boolean bottomRightPassable = isPassable(bottomRight);
+			boolean topLeftPassable = isPassable(x - dx, y + dy);
+			boolean topRightPassable = isPassable(x + dx, y + dy);
+			boolean bottomLeftPassable = isPassable(x - dx, y - dy);
+			boolean bottomRightPassable = isPassable(x + dx, y - dy);
 			if (topLeftPassable && topRightPassable) {
 				return true;
 			} else if (topRightPassable && bottomRightPassable) {
@@ -389,10 +624,8 @@ public class World {
 		} else if (fuzzyEquals(rx, 0) && (! fuzzyEquals(ry, 0))) {
 			//check links en rechts
 			double dx = getPixelWidth()/2;
-			Position left = new Position(x-dx, y);
-			Position right = new Position(x+dx, y);
-			boolean leftImpassable = isImpassable(left);
-			boolean rightImpassable = isImpassable(right);
+			boolean leftImpassable = isImpassable(x - dx, y);
+			boolean rightImpassable = isImpassable(x + dx, y);
 			if (leftImpassable && rightImpassable) {
 				return false;
 			} else {
@@ -401,10 +634,8 @@ public class World {
 		} else if (fuzzyEquals(ry, 0) && (!fuzzyEquals(rx, 0))) {
 			//check boven en onder
 			double dy = getPixelHeight()/2;
-			Position top = new Position(x, y+dy);
-			Position bottom = new Position(x, y-dy);
-			boolean topImpassable = isImpassable(top);
-			boolean bottomImpassable = isImpassable(bottom);
+			boolean topImpassable = isImpassable(x, y + dy);
+			boolean bottomImpassable = isImpassable(x, y - dy);
 			if (topImpassable && bottomImpassable) {
 				return false;
 			} else {
@@ -412,28 +643,56 @@ public class World {
 			}
 		} else {
 			//normaal
-			int X = getPixelRow(position) - 1;
-			int Y = getPixelColumn(position) - 1;
-			if (! isInsideWorldBorders(position)) {
+			if (! isInsideWorldBorders(x, y)) {
 				// outside world borders
 				return true;
 			} else {
-				return (getPassableMap()[X][Y] == true);
+				int row = getPixelRow(x, y) - 1;
+				int column = getPixelColumn(x, y) - 1;
+				return getTerrain().isPassable(row, column);
 			}
 		}
 		
 	}
 	
 	/**
+	 * Return the row of pixels in the passable map of this world where the 
+	 * position with the given coordinates is located.
+	 */
+	private int getPixelRow(double x, double y) {
+		return (getNoVerticalPixels() - (int) (y * getVerticalResolution()));
+	}
+	
+	/**
+	 * Return the column of pixels in the passable map of this world where the 
+	 * position with the given coordinates is located.
+	 */
+	private int getPixelColumn(double x, double y) {
+		return (int) (x * getHorizontalResolution() + 1);
+	}
+	
+	/**
+	 * Check whether the given position lies inside the borders of this world.
 	 * 
-	 * @param position
-	 * @return
+	 * @effect	...
+	 * 		  |	result == isInsideWorldBorders(position.getX(), position.getY())
 	 */
 	public boolean isInsideWorldBorders(Position position) {
-		double X = position.getX();
-		double Y = position.getY();
-		if ((X < 0) || (X > getWidth())
-				|| (Y < 0) || (Y > getHeight()) ) {
+		return isInsideWorldBorders(position.getX(), position.getY());
+	}
+	
+	/**
+	 * Check whether the position with the given X coordinate and the given Y
+	 * coordinate lies inside the borders of this world.
+	 * 
+	 * @return	...
+	 * 		  |	result ==
+	 * 		  |		(x >= 0) && (x <= getWidth())
+	 * 		  |	 && (y >= 0) && (y <= getHeight())
+	 */
+	public boolean isInsideWorldBorders(double x, double y) {
+		if ((x < 0) || (x > getWidth())
+				|| (y < 0) || (y > getHeight()) ) {
 			return false;
 		} else {
 			return true;
@@ -461,17 +720,27 @@ public class World {
 	 *		  |			&& isInsideWorldBorders(right) )
 	 */
 	public boolean objectIsInsideWorldBorders(Position position, double radius) {
-		Position top = position.translate(0, radius);
-		Position bottom = position.translate(0, -radius);
-		Position left = position.translate(-radius, 0);
-		Position right = position.translate(radius, 0);
-		
-		if (isInsideWorldBorders(top) && isInsideWorldBorders(bottom)
-				&& isInsideWorldBorders(left) && isInsideWorldBorders(right)) {
-			return true;
-		} else {
-			return false;
-		}
+		return objectIsInsideWorldBorders(position.getX(), position.getY(),
+				radius);
+	}
+	
+	/**
+	 * Check whether an object with the given radius at the given coordinates
+	 * lies inside the borders of this world.
+	 * 
+	 * @return	...
+	 * 		  |	result ==
+	 * 		  |		 ( isInsideWorldBorders(x, y + radius) 
+	 * 		  |		&& isInsideWorldBorders(x, y - radius)
+	 * 		  |		&& isInsideWorldBorders(x - radius, y) 
+	 * 		  |		&& isInsideWorldBorders(x + radius, y) )
+	 */
+	public boolean objectIsInsideWorldBorders(double x, double y, 
+			double radius) {
+		return (isInsideWorldBorders(x, y + radius) 
+				&& isInsideWorldBorders(x, y - radius)
+				&& isInsideWorldBorders(x - radius, y) 
+				&& isInsideWorldBorders(x + radius, y));
 	}
 
 	/**
@@ -487,77 +756,147 @@ public class World {
 	}
 	
 	/**
-	 * ...
+	 * Check whether the position with the given coordinates is impassable.
 	 * 
-	 * @param 	position
-	 * 			...
+	 * @effect	...
+	 * 		  |	result == (! isPassable(x, y))
+	 */
+	public boolean isImpassable(double x, double y) { 
+		return (! isPassable(x, y));
+	}
+	
+	/**
+	 * Check whether the annulus with the given outer radius and the given
+	 * inner radius around the given position is passable.
+	 * 
+	 * @effect	...
+	 * 		  |	result == isPassableArea(position.getX(), position.getY(),
+	 * 		  |		outerRadius, innerRadius)
+	 */
+	public boolean isPassableArea(Position position, double outerRadius,
+			double innerRadius) {
+		return isPassableArea(position.getX(), position.getY(), outerRadius,
+				innerRadius);
+	}
+	
+	/**
+	 * Check whether the annulus with the given outer radius and the given
+	 * inner radius around the given coordinates is passable.
+	 * 	The pixels that may overlap the annulus are looked up in a cached disk
+	 * 	stencil. Each row span of the stencil is first tested as a whole on the
+	 * 	terrain; only the impassable pixels found that way are tested against
+	 * 	the exact annulus. A pixel overlapping the annulus by less than
+	 * 	DEFAULT_EPSILON is considered not to overlap it, like positions on the
+	 * 	border between two pixels in isPassable().
+	 * 
+	 * @param 	x
+	 * 			The X coordinate of the centre of the annulus.
+	 * @param 	y
+	 * 			The Y coordinate of the centre of the annulus.
 	 * @param 	outerRadius
-	 * 			...
+	 * 			The outer radius of the annulus.
 	 * @param 	innerRadius
-	 * 			...
+	 * 			The inner radius of the annulus.
 	 * @return	...
 	 * 		  | if (for each radius in innerRadius..outerRadius:
 	 * 		  |		  for each angle in 0..2*Pi:
-	 * 		  |			(getPassableMap()[radius*cos(angle)][radius*sin(angle)]
-	 * 		  |				== true) )
+	 * 		  |			isPassable(x + radius*cos(angle), 
+	 * 		  |				y + radius*sin(angle)) )
 	 * 		  |	then result == true
 	 */
-	public boolean isPassableArea(Position position, double outerRadius,
+	public boolean isPassableArea(double x, double y, double outerRadius,
 			double innerRadius) {
-		double dr;
-		double dtheta;
-		double angle = 0;
-		double radius;
-		double x;
-		double y;
-		double x0 = position.getX();
-		double y0 = position.getY();
-		
-		if (getHorizontalScale() >= getVerticalScale()) {
-			dr = getHorizontalScale();
-		} else {
-			dr = getVerticalScale();
-		}
-		
-		//Basic checkpoints
-		for (int i = 1; i <= 4; i++) {
-			double alfa = Math.PI * i / 2;
-			x = outerRadius * Math.cos(alfa) + x0;
-			y = outerRadius * Math.sin(alfa) + y0;
-			if (isImpassable(new Position(x, y))) {
+		DiskStencil stencil = getStencil(outerRadius, innerRadius);
+		Terrain terrain = getTerrain();
+		int row0 = getNoVerticalPixels() - 1
+				- (int) Math.floor(y * getVerticalResolution());
+		int column0 = (int) Math.floor(x * getHorizontalResolution());
+		for (int i = 0; i < stencil.getNbRowOffsets(); i++) {
+			int row = row0 + stencil.getRowOffset(i);
+			if ((row < 0) || (row >= getNoVerticalPixels())) continue;
+			if (overlapsImpassablePixel(terrain, row, 
+					column0 + stencil.getLeftFrom(i), 
+					column0 + stencil.getLeftTo(i),
+					x, y, outerRadius, innerRadius)
+			  || overlapsImpassablePixel(terrain, row, 
+					column0 + stencil.getRightFrom(i), 
+					column0 + stencil.getRightTo(i),
+					x, y, outerRadius, innerRadius)) {
 				return false;
 			}
 		}
-		
-		radius = innerRadius;
-		while  (radius < outerRadius){
-			dtheta = dr/radius;
-			angle = 0;
-			while  (angle < 2*Math.PI){
-				x = radius * Math.cos(angle) + x0;
-				y = radius * Math.sin(angle) + y0;
-				if (isImpassable(new Position(x, y))) {
-					return false;
+		return true;
+	}
+	
+	/**
+	 * Check whether any impassable pixel in the given row of the given 
+	 * terrain, with a column from the given lower column (inclusive) up to the
+	 * given upper column (exclusive), overlaps the annulus with the given 
+	 * outer radius and the given inner radius around (x, y).
+	 */
+	private boolean overlapsImpassablePixel(Terrain terrain, int row, 
+			int columnFrom, int columnTo, double x, double y, 
+			double outerRadius, double innerRadius) {
+		if (! terrain.isAnyImpassableInRow(row, columnFrom, columnTo)) {
+			return false;
+		}
+		columnFrom = Math.max(columnFrom, 0);
+		columnTo = Math.min(columnTo, getNoHorizontalPixels());
+		double pixelWidth = getPixelWidth();
+		double pixelHeight = getPixelHeight();
+		double bottom = (getNoVerticalPixels() - 1 - row) * pixelHeight;
+		double dyNear = Math.max(0, Math.max(bottom - y, y - bottom - pixelHeight));
+		double dyFar = Math.max(y - bottom, bottom + pixelHeight - y);
+		double outer = outerRadius - DEFAULT_EPSILON;
+		double inner = innerRadius + DEFAULT_EPSILON;
+		for (int column = columnFrom; column < columnTo; column++) {
+			if (terrain.isImpassable(row, column)) {
+				double left = column * pixelWidth;
+				double dxNear = Math.max(0, 
+						Math.max(left - x, x - left - pixelWidth));
+				double dxFar = Math.max(x - left, left + pixelWidth - x);
+				if ((dxNear * dxNear + dyNear * dyNear < outer * outer)
+				  && (dxFar * dxFar + dyFar * dyFar > inner * inner)) {
+					return true;
 				}
-				angle = angle + dtheta;
 			}
-			radius = radius + dr;
-			
 		}
-		dtheta = dr/outerRadius;
-		angle = 0;
-		while  (angle < 2*Math.PI) {
-			x = outerRadius * Math.cos(angle) + x0;
-			y = outerRadius * Math.sin(angle) + y0;
-			if (isImpassable(new Position(x, y))) {
-				return false;
-			}
-			angle = angle + dtheta;
+		return false;
+	}
+	
+	/**
+	 * Return a disk stencil for the given outer radius and the given inner
+	 * radius at the resolution of this world.
+	 * 	Stencils are kept in a direct-mapped cache, so repeated queries for 
+	 * 	the same radii (e.g. those of a single worm) do not build a new one.
+	 * 	Stencils are immutable, so concurrent queries at worst build the same
+	 * 	stencil twice.
+	 * 
+	 * @return	...
+	 * 		  |	(result.getOuterRadius() == outerRadius)
+	 * 		  |	&& (result.getInnerRadius() == innerRadius)
+	 */
+	private DiskStencil getStencil(double outerRadius, double innerRadius) {
+		long bits = Double.doubleToLongBits(outerRadius) * 31
+				+ Double.doubleToLongBits(innerRadius);
+		int index = (int) (bits ^ (bits >>> 32)) & (stencils.length - 1);
+		DiskStencil stencil = stencils[index];
+		if ((stencil == null) || (stencil.getOuterRadius() != outerRadius)
+				|| (stencil.getInnerRadius() != innerRadius)) {
+			stencil = new DiskStencil(outerRadius, innerRadius,
+					getPixelWidth(), getPixelHeight());
+			stencils[index] = stencil;
 		}
-			
-		return true;
+		return stencil;
 	}
 	
+	/**
+	 * Array caching the disk stencils most recently used by this world.
+	 * 
+	 * @invar	The length of the array is a power of two.
+	 */
+	private final DiskStencil[] stencils = new DiskStencil[64];
+	
 	/**
 	 * ...
 	 * 
@@ -575,6 +914,97 @@ public class World {
 		return (! isPassableArea(position, outerRadius, innerRadius));
 	}
 	
+	/**
+	 * Check whether the annulus with the given outer radius and the given
+	 * inner radius around the given coordinates is impassable.
+	 * 
+	 * @effect	...
+	 * 		  |	result == (! isPassableArea(x, y, outerRadius, innerRadius))
+	 */
+	public boolean isImpassableArea(double x, double y, double outerRadius,
+			double innerRadius) {
+		return (! isPassableArea(x, y, outerRadius, innerRadius));
+	}
+	
+	/**
+	 * Return a lower bound for the distance in metres from the given position
+	 * to the nearest impassable pixel of this world.
+	 * 
+	 * @effect	...
+	 * 		  |	result == getMinimalClearance(position.getX(), position.getY())
+	 */
+	public double getMinimalClearance(Position position) {
+		return getMinimalClearance(position.getX(), position.getY());
+	}
+	
+	/**
+	 * Return a lower bound for the distance in metres from the position with
+	 * the given coordinates to the nearest impassable pixel of this world.
+	 * 	The bound is read from the distance field at the pixel nearest to the
+	 * 	given position and corrected for the offset of the given position from
+	 * 	the centre of that pixel and for the size of the pixels.
+	 * 
+	 * @return	...
+	 * 		  |	for each impassable pixel in getTerrain():
+	 * 		  |		result <= distance from (x, y) to that pixel
+	 */
+	public double getMinimalClearance(double x, double y) {
+		int column = getNearestColumnIndex(x);
+		int row = getNearestRowIndex(y);
+		double dx = x - (column + 0.5) * getPixelWidth();
+		double dy = y - (getNoVerticalPixels() - row - 0.5) * getPixelHeight();
+		double halfDiagonal = 0.5 * Math.sqrt(getPixelWidth() * getPixelWidth()
+				+ getPixelHeight() * getPixelHeight());
+		return getDistanceField().getDistance(row, column) 
+				- Math.sqrt(dx * dx + dy * dy) - halfDiagonal;
+	}
+	
+	/**
+	 * Return an upper bound for the distance in metres from the given position
+	 * to the nearest impassable pixel of this world.
+	 * 
+	 * @effect	...
+	 * 		  |	result == getMaximalClearance(position.getX(), position.getY())
+	 */
+	public double getMaximalClearance(Position position) {
+		return getMaximalClearance(position.getX(), position.getY());
+	}
+	
+	/**
+	 * Return an upper bound for the distance in metres from the position with
+	 * the given coordinates to the nearest impassable pixel of this world.
+	 * 
+	 * @return	...
+	 * 		  |	for some impassable pixel in getTerrain():
+	 * 		  |		result >= distance from (x, y) to that pixel
+	 */
+	public double getMaximalClearance(double x, double y) {
+		int column = getNearestColumnIndex(x);
+		int row = getNearestRowIndex(y);
+		double dx = x - (column + 0.5) * getPixelWidth();
+		double dy = y - (getNoVerticalPixels() - row - 0.5) * getPixelHeight();
+		return getDistanceField().getDistance(row, column) 
+				+ Math.sqrt(dx * dx + dy * dy);
+	}
+	
+	/**
+	 * Return the index of the column of pixels nearest to the given X 
+	 * coordinate.
+	 */
+	private int getNearestColumnIndex(double x) {
+		int column = (int) Math.floor(x * getHorizontalResolution());
+		return Math.max(0, Math.min(getNoHorizontalPixels() - 1, column));
+	}
+	
+	/**
+	 * Return the index of the row of pixels nearest to the given Y coordinate.
+	 */
+	private int getNearestRowIndex(double y) {
+		int row = getNoVerticalPixels() - 1
+				- (int) Math.floor(y * getVerticalResolution());
+		return Math.max(0, Math.min(getNoVerticalPixels() - 1, row));
+	}
+	
 	/**
 	 * Check whether the given position is passable for an object with the given
 	 * radius.
@@ -584,11 +1014,35 @@ public class World {
 	 * @param 	radius
 	 * 			...
 	 * @effect	...
-	 * 		  |	result == isPassableArea(position, radius, 0)
-	 * 
+	 * 		  |	result == 
+	 * 		  |		isPassableForObject(position.getX(), position.getY(), radius)
 	 */
 	public boolean isPassableForObject(Position position, double radius) {
-		return isPassableArea(position, radius, 0);
+		return isPassableForObject(position.getX(), position.getY(), radius);
+	}
+	
+	/**
+	 * Check whether the position with the given coordinates is passable for 
+	 * an object with the given radius.
+	 * 
+	 * @return	If the given position is certainly farther than the given 
+	 * 			radius from any impassable pixel, the result is true. If it is
+	 * 			certainly nearer, the result is false.
+	 * 		  |	if (getMinimalClearance(x, y) > radius)
+	 * 		  |		then result == true
+	 * 		  |	else if (getMaximalClearance(x, y) < radius)
+	 * 		  |		then result == false
+	 * @effect	Otherwise, the area covered by the object is scanned.
+	 * 		  |	else result == isPassableArea(x, y, radius, 0)
+	 */
+	public boolean isPassableForObject(double x, double y, double radius) {
+		if (getMinimalClearance(x, y) > radius) {
+			return true;
+		} else if (getMaximalClearance(x, y) < radius) {
+			return false;
+		} else {
+			return isPassableArea(x, y, radius, 0);
+		}
 	}
 	
 	/**
@@ -599,12 +1053,23 @@ public class World {
 	 * @param 	radius
 	 * 			...
 	 * @return	...
-	 * 		  |	result == (! isPassableArea(position, radius, 0))
+	 * 		  |	result == (! isPassableForObject(position, radius))
 	 */
 	public boolean isImpassableForObject(Position position, double radius) {
 		return (! isPassableForObject(position, radius));
 	}
 	
+	/**
+	 * Check whether the position with the given coordinates is impassable for
+	 * an object with the given radius.
+	 * 
+	 * @return	...
+	 * 		  |	result == (! isPassableForObject(x, y, radius))
+	 */
+	public boolean isImpassableForObject(double x, double y, double radius) {
+		return (! isPassableForObject(x, y, radius));
+	}
+	
 	/**
 	 * Checks whether the given position is passable and adjacent to an
 	 * impassable position for an object with the given radius.
@@ -614,16 +1079,48 @@ public class World {
 	 * @param	radius
 	 * 			... 
 	 * @effect	...
-	 * 		  |	result ==
-	 * 		  |		(isPassableForObject(position, radius)
-	 * 		  |	   && isImpassableArea(position, 1.1*radius, radius)
-	 * 		  |	   && objectInsideWorldBorders(position, radius) )
+	 * 		  |	result == isAdjacent(position.getX(), position.getY(), radius)
 	 */
 	public boolean isAdjacent(Position position, double radius) {
+		return isAdjacent(position.getX(), position.getY(), radius);
+	}
+	
+	/**
+	 * Checks whether the position with the given coordinates is passable and
+	 * adjacent to an impassable position for an object with the given radius.
+	 * 
+	 * @return	If the given position is certainly farther than 1.1 times the
+	 * 			given radius from any impassable pixel or certainly nearer than
+	 * 			the given radius, the result is false.
+	 * 		  |	if ( (getMinimalClearance(x, y) > 1.1*radius)
+	 * 		  |	  || (getMaximalClearance(x, y) < radius) )
+	 * 		  |		then result == false
+	 * @effect	Else if the nearest impassable pixel is certainly between the
+	 * 			given radius and 1.1 times the given radius, only the world 
+	 * 			borders are checked.
+	 * 		  |	else if ( (getMinimalClearance(x, y) > radius)
+	 * 		  |		   && (getMaximalClearance(x, y) <= 1.1*radius) )
+	 * 		  |		then result == objectInsideWorldBorders(x, y, radius)
+	 * @effect	Otherwise, the area around the object is scanned.
+	 * 		  |	else result ==
+	 * 		  |		(isPassableForObject(x, y, radius)
+	 * 		  |	   && isImpassableArea(x, y, 1.1*radius, radius)
+	 * 		  |	   && objectInsideWorldBorders(x, y, radius) )
+	 */
+	public boolean isAdjacent(double x, double y, double radius) {
 		double outerRadius = 1.1 * radius;
-		return (isPassableForObject(position, radius)
-				&& isImpassableArea(position, outerRadius, radius)
-				&& objectInsideWorldBorders(position, radius));
+		double minimalClearance = getMinimalClearance(x, y);
+		double maximalClearance = getMaximalClearance(x, y);
+		if ((minimalClearance > outerRadius) || (maximalClearance < radius)) {
+			return false;
+		} else if ((minimalClearance > radius) 
+				&& (maximalClearance <= outerRadius)) {
+			return objectInsideWorldBorders(x, y, radius);
+		} else {
+			return (isPassableForObject(x, y, radius)
+					&& isImpassableArea(x, y, outerRadius, radius)
+					&& objectInsideWorldBorders(x, y, radius));
+		}
 	}
 	
 	/**
@@ -633,29 +1130,52 @@ public class World {
 	 * 			...
 	 * @param 	radius
 	 * 			...
-	 * @return	...
-	 * 		  |	result ==
-	 * 		  |		for angle in 0..2*Pi:
-	 * 		  |			isPassable(New Position(getRadius * cos(angle), 
-	 * 		  |				getRadius * sin(angle)))
+	 * @effect	...
+	 * 		  |	result == objectInsideWorldBorders(position.getX(), 
+	 * 		  |		position.getY(), radius)
 	 */
 	public boolean objectInsideWorldBorders(Position position, double radius) {
-		double x;
-		double y;
-		double x0 = position.getX();
-		double y0 = position.getY();
-		
-		for (int i = 1; i <= 4; i++) {
-			double alfa = Math.PI * i / 2;
-			x = radius * Math.cos(alfa) + x0;
-			y = radius * Math.sin(alfa) + y0;
-			if (isImpassable(new Position(x, y))) {
+		return objectInsideWorldBorders(position.getX(), position.getY(), 
+				radius);
+	}
+	
+	/**
+	 * Check whether the four outermost points of an object with the given 
+	 * radius at the given coordinates are passable.
+	 * 	The points are taken DEFAULT_EPSILON inside the object, so an object
+	 * 	overlapping impassable terrain by less than DEFAULT_EPSILON passes
+	 * 	this check, as it passes the scan in isPassableArea().
+	 * 
+	 * @return	...
+	 * 		  |	let
+	 * 		  |		distance = max(0, radius - DEFAULT_EPSILON)
+	 * 		  |	in
+	 * 		  |		result ==
+	 * 		  |			for angle in Pi/2, Pi, 3*Pi/2, 2*Pi:
+	 * 		  |				isPassable(x + distance * cos(angle), 
+	 * 		  |					y + distance * sin(angle))
+	 */
+	public boolean objectInsideWorldBorders(double x, double y, double radius) {
+		double distance = Math.max(0, radius - DEFAULT_EPSILON);
+		for (int i = 0; i < 4; i++) {
+			if (isImpassable(distance * CHECKPOINT_COSINES[i] + x,
+					distance * CHECKPOINT_SINES[i] + y)) {
 				return false;
 			}
 		}
 		return true;
 	}
 	
+	/**
+	 * Arrays registering the cosines and sines of the angles Pi/2, Pi, 3*Pi/2
+	 * and 2*Pi, at which objectInsideWorldBorders() checks an object.
+	 */
+	private static final double[] CHECKPOINT_COSINES = {Math.cos(Math.PI / 2),
+		Math.cos(Math.PI), Math.cos(3 * Math.PI / 2), Math.cos(2 * Math.PI)};
+	
+	private static final double[] CHECKPOINT_SINES = {Math.sin(Math.PI / 2),
+		Math.sin(Math.PI), Math.sin(3 * Math.PI / 2), Math.sin(2 * Math.PI)};
+	
 	/**
 	 * ...
 	 * 
@@ -663,61 +1183,320 @@ public class World {
 	 * 			...
 	 * @param 	radius
 	 * 			...
-	 * @return	...
-	 * 		  |	if for some worm in getAllWorms():
-	 * 		  |		position.getDistanceFrom(worm.getPosition()) 
-	 * 		  |			< (radius + worm.getRadius())
-	 * 		  |		then result == true
-	 * 		  |	else result == false
+	 * @effect	...
+	 * 		  |	result == overlaps(position.getX(), position.getY(), radius)
 	 */
 	public boolean overlaps(Position position, double radius) {
-		Iterator<Worm> iterator = getAllWorms().iterator();
-		while (iterator.hasNext()) {
-			Worm worm = iterator.next();
-			if (position.getDistanceFrom(worm.getPosition())
-					< (radius + worm.getRadius())) {
-				return true;
-			}
-		}
-		return false;
+		return overlaps(position.getX(), position.getY(), radius);
 	}
 	
 	/**
-	 * ...
+	 * Check whether an object with the given radius at the given coordinates
+	 * overlaps with a worm of this world.
+	 * 
+	 * @return	...
+	 * 		  |	result == (getOverlappingWorm(x, y, radius) != null)
+	 */
+	public boolean overlaps(double x, double y, double radius) {
+		return (getOverlappingWorm(x, y, radius) != null);
+	}
+	
+	/**
+	 * ...
+	 * 
+	 * @param 	position
+	 * 			...
+	 * @param 	radius
+	 * 			...
+	 * @effect	...
+	 * 		  |	result == 
+	 * 		  |		getOverlappingWorm(position.getX(), position.getY(), radius)
+	 */
+	public Worm getOverlappingWorm(Position position, double radius) {
+		return getOverlappingWorm(position.getX(), position.getY(), radius);
+	}
+	
+	/**
+	 * Return a worm of this world that overlaps with an object with the given
+	 * radius at the given coordinates.
+	 * 	Only the worms registered in the cells of the worm grid of this world
+	 * 	near the given coordinates are inspected.
 	 * 
-	 * @param 	position
-	 * 			...
-	 * @param 	radius
-	 * 			...
 	 * @return	...
 	 * 		  |	if for some worm in getAllWorms():
-	 * 		  |		position.getDistanceFrom(worm.getPosition()) 
+	 * 		  |		distance from (x, y) to worm.getPosition() 
 	 * 		  |			< (radius + worm.getRadius())
 	 * 		  |		then result == worm
 	 * 		  |	else result == null
 	 */
-	public Worm getOverlappingWorm(Position position, double radius) {
-		Iterator<Worm> iterator = getAllWorms().iterator();
-		while (iterator.hasNext()) {
-			Worm worm = iterator.next();
-			if (position.getDistanceFrom(worm.getPosition())
-					< (radius + worm.getRadius())) {
-				return worm;
+	public Worm getOverlappingWorm(double x, double y, double radius) {
+		return wormGrid.getOverlappingWorm(x, y, radius, null);
+	}
+	
+	/**
+	 * Return a worm of this world, other than the given worm, that overlaps
+	 * with an object with the given radius at the given coordinates.
+	 * 
+	 * @return	...
+	 * 		  |	if for some worm in getAllWorms():
+	 * 		  |		(worm != excluded)
+	 * 		  |	 && (distance from (x, y) to worm.getPosition() 
+	 * 		  |			< (radius + worm.getRadius()))
+	 * 		  |		then result == worm
+	 * 		  |	else result == null
+	 */
+	public Worm getOverlappingWorm(double x, double y, double radius,
+			Worm excluded) {
+		return wormGrid.getOverlappingWorm(x, y, radius, excluded);
+	}
+	
+	/**
+	 * Return the worm of this world of which the centre is nearest to the
+	 * given coordinates, other than the given worm.
+	 * 
+	 * @param 	x
+	 * 			The X coordinate to search from.
+	 * @param 	y
+	 * 			The Y coordinate to search from.
+	 * @param 	excluded
+	 * 			The worm to ignore, if effective.
+	 * @return	...
+	 * 		  |	for each worm in getAllWorms():
+	 * 		  |		if (worm != excluded)
+	 * 		  |			then distance from (x, y) to result.getPosition()
+	 * 		  |				<= distance from (x, y) to worm.getPosition()
+	 */
+	public Worm getNearestWorm(double x, double y, Worm excluded) {
+		return wormGrid.getNearestWorm(x, y, excluded);
+	}
+	
+	/**
+	 * Return what the ray from the given coordinates in the given direction
+	 * hits first in this world, ignoring the given worm.
+	 * 	The pixels crossed by the ray are visited one by one in the order in
+	 * 	which the ray enters them (Amanatides and Woo), up to the first
+	 * 	impassable pixel or the border of this world. The worms are then
+	 * 	searched along that stretch of the ray in the grid of this world.
+	 * 	The cost is proportional to the number of pixels and cells crossed.
+	 * 
+	 * @param 	x
+	 * 			The X coordinate at which the ray starts.
+	 * @param 	y
+	 * 			The Y coordinate at which the ray starts.
+	 * @param 	angle
+	 * 			The direction of the ray.
+	 * @param 	excluded
+	 * 			The worm to ignore, if effective.
+	 * @return	If the circle of a worm other than the given worm is hit
+	 * 			before impassable terrain and before the ray leaves this
+	 * 			world, the first such worm is hit.
+	 * 		  |	if (result.hitsWorm())
+	 * 		  |		then (result.getWorm() != excluded)
+	 * 		  |		  && hasAsWorm(result.getWorm())
+	 * @return	Otherwise, if the ray reaches an impassable pixel before it
+	 * 			leaves this world, terrain is hit at the distance at which the
+	 * 			ray enters that pixel.
+	 * 		  |	if (result.hitsTerrain())
+	 * 		  |		then isImpassable(x + (result.getDistance() + epsilon)
+	 * 		  |			* cos(angle), y + (result.getDistance() + epsilon)
+	 * 		  |			* sin(angle))
+	 * @return	Otherwise, nothing is hit.
+	 * 		  |	else result == RayHit.NONE
+	 */
+	public RayHit castRay(double x, double y, double angle, Worm excluded) {
+		double directionX = Math.cos(angle);
+		double directionY = Math.sin(angle);
+		Terrain terrain = getTerrain();
+		int nbRows = terrain.getNbRows();
+		int nbColumns = terrain.getNbColumns();
+		double pixelWidth = getPixelWidth();
+		double pixelHeight = getPixelHeight();
+		// rows are counted from the bottom of the world here
+		int column = (int) Math.floor(x / pixelWidth);
+		int row = (int) Math.floor(y / pixelHeight);
+		int stepColumn = (directionX > 0) ? 1 : -1;
+		int stepRow = (directionY > 0) ? 1 : -1;
+		double nextX = (column + ((directionX > 0) ? 1 : 0)) * pixelWidth;
+		double nextY = (row + ((directionY > 0) ? 1 : 0)) * pixelHeight;
+		double exitX = (directionX == 0) ? Double.POSITIVE_INFINITY
+				: (nextX - x) / directionX;
+		double exitY = (directionY == 0) ? Double.POSITIVE_INFINITY
+				: (nextY - y) / directionY;
+		double deltaX = pixelWidth / Math.abs(directionX);
+		double deltaY = pixelHeight / Math.abs(directionY);
+		double entry = 0;
+		boolean terrainHit = false;
+		while ((column >= 0) && (column < nbColumns) && (row >= 0)
+				&& (row < nbRows)) {
+			if (terrain.isImpassable(nbRows - 1 - row, column)) {
+				terrainHit = true;
+				break;
+			}
+			if (exitX < exitY) {
+				entry = exitX;
+				column += stepColumn;
+				exitX += deltaX;
+			} else {
+				entry = exitY;
+				row += stepRow;
+				exitY += deltaY;
 			}
 		}
-		return null;
+		RayHit wormHit = wormGrid.getFirstWormOnRay(x, y, directionX,
+				directionY, entry, excluded);
+		if (wormHit != null)
+			return wormHit;
+		if (terrainHit)
+			return new RayHit(entry, null);
+		return RayHit.NONE;
 	}
 	
+	/**
+	 * Return the first worm of this world in the direction of the given worm
+	 * turned by the given offset, or null if the search meets impassable
+	 * terrain or the borders of this world first.
+	 * 
+	 * @return	...
+	 * 		  |	result == castRay(worm.getX(), worm.getY(),
+	 * 		  |		worm.getDirection() + offset, worm).getWorm()
+	 */
+	public Worm searchObject(Worm worm, double offset) {
+		return castRay(worm.getX(), worm.getY(), worm.getDirection() + offset,
+				worm).getWorm();
+	}
+	
+	/**
+	 * Return a list containing each worm of this world of which the centre
+	 * lies inside the rectangle with the given corners.
+	 * 	Worms of which the centre lies just outside the rectangle may be
+	 * 	included as well.
+	 * 
+	 * @return	...
+	 * 		  |	for each worm in getAllWorms():
+	 * 		  |		if ( (minX <= worm.getPosition().getX() <= maxX)
+	 * 		  |		  && (minY <= worm.getPosition().getY() <= maxY) )
+	 * 		  |			then result.contains(worm)
+	 */
+	public List<Worm> getWormsNear(double minX, double minY, double maxX,
+			double maxY) {
+		List<Worm> result = new ArrayList<Worm>();
+		wormGrid.collectWorms(minX, minY, maxX, maxY, result);
+		return result;
+	}
+	
+	/**
+	 * Return the largest radius of the worms that have been added to this
+	 * world.
+	 */
+	public double getMaxWormRadius() {
+		return wormGrid.getMaxRadius();
+	}
+	
+	/**
+	 * Register that the given worm of this world has moved from the given old
+	 * coordinates to its current position.
+	 */
+	void relocateWorm(Worm worm, double oldX, double oldY) {
+		wormGrid.move(worm, oldX, oldY);
+		updateWorm(worm);
+	}
+	
+	/**
+	 * Register that the radius of the given worm of this world may have 
+	 * changed.
+	 */
+	void resizeWorm(Worm worm) {
+		wormGrid.updateRadius(worm);
+		updateWorm(worm);
+	}
+	
+	/**
+	 * Register that the state of the given worm of this world may have
+	 * changed.
+	 */
+	void updateWorm(Worm worm) {
+		int slot = getIndexOfWorm(worm);
+		if (slot >= 0)
+			wormTable.update(slot);
+	}
+	
+	/**
+	 * Variable referencing the grid in which the worms of this world are 
+	 * registered by position.
+	 * 
+	 * @invar	...
+	 * 		  |	wormGrid.getNbWorms() == getNbWorms()
+	 */
+	private final WormGrid wormGrid;
+	
 	
 	
 	
 	//ASSOCIATIONS (defensive)
 	/**
-	 * Return the live projectile of this world. 
+	 * Return the active projectile of this world.
+	 * 	The active projectile is the live projectile that was attached to this
+	 * 	world last.
+	 * 
+	 * @return	...
+	 * 		  |	if (getNbProjectiles() == 0)
+	 * 		  |		then result == null
+	 * 		  |	else result == getProjectileAt(getNbProjectiles() - 1)
+	 */
+	public Projectile getProjectile() {
+		if (projectiles.isEmpty())
+			return null;
+		return projectiles.get(projectiles.size() - 1);
+	}
+	
+	/**
+	 * Return the live projectile of this world at the given index.
+	 * 
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	(index < 0) || (index >= getNbProjectiles())
+	 */
+	@Basic
+	public Projectile getProjectileAt(int index)
+			throws IndexOutOfBoundsException {
+		return projectiles.get(index);
+	}
+	
+	/**
+	 * Return the number of live projectiles of this world.
 	 */
 	@Basic
-	public Projectile getProjectile() { 
-		return projectile;
+	public int getNbProjectiles() {
+		return projectiles.size();
+	}
+	
+	/**
+	 * Return a list of all the live projectiles of this world, in the order
+	 * in which they were attached to this world.
+	 * 
+	 * @return	...
+	 * 		  |	for each index in 0..getNbProjectiles()-1:
+	 * 		  |		result.get(index) == getProjectileAt(index)
+	 */
+	public List<Projectile> getAllProjectiles() {
+		return Collections.unmodifiableList(projectiles);
+	}
+	
+	/**
+	 * Check whether this world has the given projectile as one of its live
+	 * projectiles.
+	 * 
+	 * @return	...
+	 * 		  |	result == 
+	 * 		  |		for some index in 0..getNbProjectiles()-1:
+	 * 		  |			getProjectileAt(index) == projectile
+	 */
+	public boolean hasAsProjectile(Projectile projectile) {
+		for (int i = 0; i < projectiles.size(); i++) {
+			if (projectiles.get(i) == projectile)
+				return true;
+		}
+		return false;
 	}
 	
 	/**
@@ -745,24 +1524,79 @@ public class World {
 	}
 	
 	/**
-	 * Check whether this world has a proper projectile attached to it.
+	 * Check whether this world has proper projectiles attached to it.
 	 * 	Check for consistency of mutual reference implied by bidirectional
 	 * 	association.
 	 * 
 	 * @return	...
 	 * 		  |	result ==
-	 * 		  |		( canHaveAsProjectile(getProjectile())
-	 * 		  |	   && ( (getProjectile() == null)
-	 * 		  |		 ||	(getProjectile().getWorld() == this) ) )
+	 * 		  |		for each projectile in getAllProjectiles():
+	 * 		  |			( canHaveAsProjectile(projectile)
+	 * 		  |		   && (projectile != null)
+	 * 		  |		   && (projectile.getWorld() == this) )
 	 */
 	public boolean hasProperProjectile() {
-		return ( canHaveAsProjectile(getProjectile())
-			  &&  ( (getProjectile() == null)
-				 ||	(getProjectile().getWorld() == this)) ); 
+		for (Projectile projectile : projectiles) {
+			if ( (projectile == null) || (! canHaveAsProjectile(projectile))
+					|| (projectile.getWorld() != this) )
+				return false;
+		}
+		return true;
 	}
 	
 	/**
-	 * Set the projectile which is active in this world to the given projectile.
+	 * Attach the given projectile to this world as a live projectile.
+	 * 
+	 * @param 	projectile
+	 * 			The projectile to attach.
+	 * @post	...
+	 * 		  |	new.getProjectile() == projectile
+	 * @post	...
+	 * 		  |	new.getNbProjectiles() == this.getNbProjectiles() + 1
+	 * @post	...
+	 * 		  |	(new projectile).getWorld() == this
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	(projectile == null) || (! canHaveAsProjectile(projectile))
+	 * 		  |	|| (projectile.getWorld() != null)
+	 */
+	public void addAsProjectile(Projectile projectile)
+			throws IllegalArgumentException {
+		if ( (projectile == null) || (! canHaveAsProjectile(projectile))
+				|| (projectile.getWorld() != null) )
+			throw new IllegalArgumentException();
+		projectiles.add(projectile);
+		projectile.setWorld(this);
+	}
+	
+	/**
+	 * Detach the given projectile from this world.
+	 * 
+	 * @param 	projectile
+	 * 			The projectile to detach.
+	 * @post	...
+	 * 		  |	! new.hasAsProjectile(projectile)
+	 * @post	...
+	 * 		  |	(new projectile).getWorld() == null
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	! hasAsProjectile(projectile)
+	 */
+	public void removeAsProjectile(Projectile projectile)
+			throws IllegalArgumentException {
+		if (! hasAsProjectile(projectile))
+			throw new IllegalArgumentException();
+		for (int i = 0; i < projectiles.size(); i++) {
+			if (projectiles.get(i) == projectile) {
+				projectiles.remove(i);
+				break;
+			}
+		}
+		projectile.setWorld(null);
+	}
+	
+	/**
+	 * Set the only live projectile of this world to the given projectile.
 	 * 
 	 * @param 	projectile
 	 * 			...
@@ -770,10 +1604,12 @@ public class World {
 	 * 		  |	new.getProjectile() == projectile
 	 * @post	...
 	 * 		  |	if (projectile != null)
-	 * 		  |		then new.getProjectile().getWorld() == this
-	 * 		  |	else
-	 * 		  |		if (this.getProjectile() != null)
-	 * 		  |			then (new this.getProjectile()).getWorld() == null
+	 * 		  |		then new.getNbProjectiles() == 1
+	 * 		  |	else new.getNbProjectiles() == 0
+	 * @post	...
+	 * 		  |	for each other in this.getAllProjectiles():
+	 * 		  |		if (other != projectile)
+	 * 		  |			then (new other).getWorld() == null
 	 * @throws	IllegalArgumentException
 	 * 			...
 	 * 		  |	! canHaveAsProjectile(projectile)
@@ -783,32 +1619,133 @@ public class World {
 		if (! canHaveAsProjectile(projectile)) {
 			throw new IllegalArgumentException();
 		}
-		if (projectile != null) {
-			this.projectile = projectile;
-			getProjectile().setWorld(this);
-		} else {
-			if (getProjectile() != null) {
-				getProjectile().setWorld(null);
-				this.projectile = null;
+		for (int i = projectiles.size() - 1; i >= 0; i--) {
+			Projectile other = projectiles.get(i);
+			if (other != projectile) {
+				projectiles.remove(i);
+				other.setWorld(null);
 			}
 		}
-		
+		if ((projectile != null) && projectiles.isEmpty()) {
+			projectiles.add(projectile);
+			projectile.setWorld(this);
+		}
 	}
 	
 	/**
 	 * Checks whether this world has a live effective projectile attached to it.
 	 * 
 	 * @return	...
-	 * 		  |	result == (getProjectile() != null)
+	 * 		  |	result == (getNbProjectiles() > 0)
 	 */
 	public boolean hasProjectile() {
-		return (getProjectile() != null);
+		return (! projectiles.isEmpty());
+	}
+	
+	/**
+	 * List referencing the live projectiles of this world, in the order in
+	 * which they were attached to this world.
+	 */
+	private final List<Projectile> projectiles = new ArrayList<Projectile>();
+	
+	
+	
+	
+	//PROJECTILES
+	/**
+	 * Launch a new projectile from the given worm of this world.
+	 * 
+	 * @param 	shooter
+	 * 			The worm that fires the projectile.
+	 * @param 	x
+	 * 			The X coordinate at which the projectile is launched.
+	 * @param 	y
+	 * 			The Y coordinate at which the projectile is launched.
+	 * @param 	direction
+	 * 			The direction in which the projectile is launched.
+	 * @param 	mass
+	 * 			The mass of the projectile.
+	 * @param 	damage
+	 * 			The damage the projectile inflicts on the worm it hits.
+	 * @param 	launchForce
+	 * 			The force with which the projectile is launched.
+	 * @return	...
+	 * 		  |	result == new.getProjectile()
+	 * @effect	...
+	 * 		  |	addAsProjectile(result)
+	 * @effect	...
+	 * 		  |	result.launch(shooter)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	! hasAsWorm(shooter)
+	 */
+	public Projectile launchProjectile(Worm shooter, double x, double y,
+			double direction, double mass, int damage, double launchForce)
+			throws IllegalArgumentException {
+		if (! hasAsWorm(shooter))
+			throw new IllegalArgumentException();
+		Projectile projectile = new Projectile(new Position(x, y), direction,
+				mass, damage, launchForce);
+		addAsProjectile(projectile);
+		projectile.launch(shooter);
+		return projectile;
 	}
 	
 	/**
-	 * Variable referencing the live projectile in this world. 
+	 * Advance all live projectiles of this world over the given duration.
+	 * 	All projectiles are stepped in one pass; each of them is moved along
+	 * 	its trajectory in time steps of the given size and checked against
+	 * 	the borders of this world, the impassable terrain and the worm grid
+	 * 	of this world.
+	 * 
+	 * @param 	duration
+	 * 			The duration over which to advance the projectiles.
+	 * @param 	timeStep
+	 * 			The time step in which a projectile will not completely move
+	 * 			through a piece of impassable terrain.
+	 * @effect	...
+	 * 		  |	for each projectile in this.getAllProjectiles():
+	 * 		  |		projectile.advance(duration, timeStep)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	! (duration >= 0) || ! (timeStep > 0)
 	 */
-	private Projectile projectile;
+	public void stepProjectiles(double duration, double timeStep)
+			throws IllegalArgumentException {
+		if (! (duration >= 0) || ! (timeStep > 0))
+			throw new IllegalArgumentException();
+		Projectile[] live = projectiles.toArray(
+				new Projectile[projectiles.size()]);
+		for (Projectile projectile : live) {
+			projectile.advance(duration, timeStep);
+		}
+	}
+	
+	/**
+	 * Advance all live projectiles of this world until each of them has
+	 * hit a worm, the terrain or the borders of this world.
+	 * 
+	 * @effect	...
+	 * 		  |	while (hasProjectile())
+	 * 		  |		stepProjectiles(PROJECTILE_TICK, PROJECTILE_TIME_STEP)
+	 */
+	public void landProjectiles() {
+		while (hasProjectile()) {
+			stepProjectiles(PROJECTILE_TICK, PROJECTILE_TIME_STEP);
+		}
+	}
+	
+	/**
+	 * Variable registering the duration of one tick over which the live
+	 * projectiles of a world are advanced together.
+	 */
+	private static final double PROJECTILE_TICK = 0.1;
+	
+	/**
+	 * Variable registering the time step in which the live projectiles of a
+	 * world are moved along their trajectories.
+	 */
+	private static final double PROJECTILE_TIME_STEP = 0.0001;
 	
 	/**
 	 * Check whether this world has the given worm as one of the worms attached
@@ -819,7 +1756,7 @@ public class World {
 	 */
 	@Basic
 	public boolean hasAsWorm(Worm worm) {
-		return worms.contains(worm);
+		return wormIndices.containsKey(worm);
 	}
 	
 	/**
@@ -842,7 +1779,7 @@ public class World {
 		if (worm == null) return false;
 		else return ( (! this.isTerminated())
 				&& (! worm.isTerminated())
-				&& this.isAdjacent(worm.getPosition(), worm.getRadius()) );
+				&& this.isAdjacent(worm.getX(), worm.getY(), worm.getRadius()) );
 	}
 	
 	/**
@@ -874,7 +1811,7 @@ public class World {
 	 */
 	@Basic
 	public int getNbWorms() {
-		return getAllWorms().size();		
+		return worms.size();
 	}
 	
 	/**
@@ -884,10 +1821,13 @@ public class World {
 	 * @param 	worm
 	 * 			The worm to look for.
 	 * @return	...
-	 * 		  |	result == getAllWorms().getIndexOf(worm)
+	 * 		  |	if (hasAsWorm(worm))
+	 * 		  |		then getWormAt(result) == worm
+	 * 		  |	else result == -1
 	 */
 	public int getIndexOfWorm(Worm worm) {
-		return worms.indexOf(worm);
+		Integer index = wormIndices.get(worm);
+		return (index == null) ? -1 : index;
 	}
 	
 	/**
@@ -920,6 +1860,8 @@ public class World {
 	
 	/**
 	 * Return a list collecting all worms associated with this world.
+	 * 	The list is a read-only view; the order of its worms changes when a
+	 * 	worm is removed from this world.
 	 * 
 	 * @return	...
 	 * 		  |	result != null
@@ -929,7 +1871,7 @@ public class World {
 	 * 		  |		this.hasAsWorm(worm)
 	 */
 	public List<Worm> getAllWorms() {
-		return worms;
+		return Collections.unmodifiableList(worms);
 	}
 	
 	/**
@@ -953,8 +1895,114 @@ public class World {
 		if (! canHaveAsWorm(worm)) throw new IllegalArgumentException();
 		if ((worm != null) && (worm.getWorld() != null))
 			throw new IllegalArgumentException();
+		registerWorm(worm);
+	}
+	
+	/**
+	 * Add the given worms to the list of worms attached to this world.
+	 * 	All worms are checked before any of them is added, so either all
+	 * 	worms are added or none is. The positions of the worms are checked
+	 * 	in parallel.
+	 * 
+	 * @param 	newWorms
+	 * 			The worms to add.
+	 * @effect	...
+	 * 		  |	for each worm in newWorms:
+	 * 		  |		addAsWorm(worm)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	for some worm in newWorms:
+	 * 		  |		(! canHaveAsWorm(worm)) || (worm.getWorld() != null)
+	 * @throws	IllegalArgumentException
+	 * 			The given collection contains the same worm more than once.
+	 * 		  |	for some worm in newWorms:
+	 * 		  |		the number of occurrences of worm in newWorms > 1
+	 */
+	public void addAsWorms(Collection<Worm> newWorms)
+			throws IllegalArgumentException {
+		Worm[] array = newWorms.toArray(new Worm[newWorms.size()]);
+		Set<Worm> distinctWorms = Collections.newSetFromMap(
+				new IdentityHashMap<Worm, Boolean>());
+		for (Worm worm : array) {
+			if ((worm == null) || (worm.getWorld() != null)
+					|| (! distinctWorms.add(worm)))
+				throw new IllegalArgumentException();
+		}
+		if (! VALIDATION_POOL.invoke(
+				new WormValidation(this, array, 0, array.length)))
+			throw new IllegalArgumentException();
+		for (Worm worm : array) {
+			registerWorm(worm);
+		}
+	}
+	
+	/**
+	 * Attach the given worm to this world, without any checks.
+	 */
+	private void registerWorm(Worm worm) {
 		worm.setWorld(this);
+		wormIndices.put(worm, worms.size());
 		worms.add(worm);
+		wormTable.add(worm);
+		wormGrid.add(worm);
+		linkInTurn(worm);
+		registerName(worm, worm.getName());
+	}
+	
+	/**
+	 * Pool of threads in which worms are checked in parallel.
+	 */
+	private static final ForkJoinPool VALIDATION_POOL = new ForkJoinPool();
+	
+	/**
+	 * A class of tasks checking whether a world can have the worms in a
+	 * range of an array as its worms.
+	 * 	Ranges of more than VALIDATION_THRESHOLD worms are split in halves
+	 * 	that are checked in parallel.
+	 */
+	private static class WormValidation extends RecursiveTask<Boolean> {
+		
+		private WormValidation(World world, Worm[] worms, int from, int to) {
+			this.world = world;
+			this.worms = worms;
+			this.from = from;
+			this.to = to;
+		}
+		
+		private final World world;
+		
+		private final Worm[] worms;
+		
+		private final int from;
+		
+		private final int to;
+		
+		@Override
+		protected Boolean compute() {
+			if (to - from <= VALIDATION_THRESHOLD) {
+				for (int i = from; i < to; i++) {
+					if (! world.canHaveAsWorm(worms[i]))
+						return false;
+				}
+				return true;
+			}
+			int middle = (from + to) >>> 1;
+			WormValidation left = new WormValidation(world, worms, from, 
+					middle);
+			left.fork();
+			boolean right = new WormValidation(world, worms, middle, to)
+					.compute();
+			return left.join() && right;
+		}
+		
+		private static final long serialVersionUID = 1L;
+		
+		/**
+		 * Variable registering the number of worms below which a range is
+		 * checked in a single thread.
+		 */
+		private static final int VALIDATION_THRESHOLD = 1024;
+		
 	}
 	
 	/**
@@ -975,12 +2023,53 @@ public class World {
 	public void removeAsWorm(Worm worm) {
 		if (worm == null) throw new IllegalArgumentException();
 		if (hasAsWorm(worm)) {
+			wormGrid.remove(worm);
+			unlinkFromTurn(worm);
+			// move the last worm into the slot of the removed worm
+			unregisterName(worm, worm.getName());
+			int index = wormIndices.remove(worm);
+			wormTable.remove(index);
+			Worm lastWorm = worms.remove(worms.size() - 1);
+			if (lastWorm != worm) {
+				worms.set(index, lastWorm);
+				wormIndices.put(lastWorm, index);
+			}
 			worm.setWorld(null);
 			worm.terminate();
 		}
-		worms.remove(worm);
 	}
 	
+	/**
+	 * Map registering the index in the list of worms of each worm attached
+	 * to this world, by identity.
+	 * 
+	 * @invar	...
+	 * 		  |	for each worm in worms:
+	 * 		  |		worms.get(wormIndices.get(worm)) == worm
+	 */
+	private final Map<Worm, Integer> wormIndices = 
+			new IdentityHashMap<Worm, Integer>();
+	
+	/**
+	 * Return the table in which the state of the worms of this world is
+	 * registered column by column.
+	 * 	The slot of each worm in the table is its index in this world.
+	 * 
+	 * @return	...
+	 * 		  |	for each index in 0..getNbWorms()-1:
+	 * 		  |		result.getWormAt(index) == getWormAt(index)
+	 */
+	@Basic
+	public WormTable getWormTable() {
+		return wormTable;
+	}
+	
+	/**
+	 * Variable referencing the table registering the state of the worms of
+	 * this world.
+	 */
+	private final WormTable wormTable = new WormTable();
+	
 	/**
 	 * List collecting references to worms attached to this world.
 	 * 
@@ -996,19 +2085,85 @@ public class World {
 	private final List<Worm> worms = new ArrayList<Worm>();
 	
 	/**
-	 * Return the projectile and all the worms attached to this world
+	 * Return a set collecting the worms of this world with the given name.
+	 * 
+	 * @return	...
+	 * 		  |	for each worm in Worm:
+	 * 		  |		result.contains(worm) ==
+	 * 		  |		  ( this.hasAsWorm(worm)
+	 * 		  |		 && worm.getName().equals(name) )
+	 */
+	public Set<Worm> getWormsNamed(String name) {
+		Set<Worm> namedWorms = wormsByName.get(name);
+		if (namedWorms == null)
+			return Collections.emptySet();
+		return Collections.unmodifiableSet(namedWorms);
+	}
+	
+	/**
+	 * Check whether this world has a worm with the given name.
+	 * 
+	 * @return	...
+	 * 		  |	result == (! getWormsNamed(name).isEmpty())
+	 */
+	public boolean hasWormNamed(String name) {
+		return wormsByName.containsKey(name);
+	}
+	
+	/**
+	 * Register that the given worm of this world was renamed from the given
+	 * old name to its current name.
+	 */
+	void renameWorm(Worm worm, String oldName) {
+		if (hasAsWorm(worm)) {
+			unregisterName(worm, oldName);
+			registerName(worm, worm.getName());
+		}
+	}
+	
+	private void registerName(Worm worm, String name) {
+		Set<Worm> namedWorms = wormsByName.get(name);
+		if (namedWorms == null) {
+			namedWorms = Collections.newSetFromMap(
+					new IdentityHashMap<Worm, Boolean>());
+			wormsByName.put(name, namedWorms);
+		}
+		namedWorms.add(worm);
+	}
+	
+	private void unregisterName(Worm worm, String name) {
+		Set<Worm> namedWorms = wormsByName.get(name);
+		if (namedWorms != null) {
+			namedWorms.remove(worm);
+			if (namedWorms.isEmpty())
+				wormsByName.remove(name);
+		}
+	}
+	
+	/**
+	 * Map registering the worms attached to this world by their name.
 	 * 
-	 * @return	The resulting collection contains the projectile attached to 
-	 * 			this world if any, and all worms attached to this world.
-	 * 		  | (if (hasProjectile()) 
-	 * 		  |		then result.contains(getProjectile()) )
+	 * @invar	...
+	 * 		  |	for each name in wormsByName.keySet():
+	 * 		  |		! wormsByName.get(name).isEmpty()
+	 */
+	private final Map<String, Set<Worm>> wormsByName = 
+			new HashMap<String, Set<Worm>>();
+	
+	/**
+	 * Return the projectiles and all the worms attached to this world
+	 * 
+	 * @return	The resulting collection contains the live projectiles
+	 * 			attached to this world, and all worms attached to this world.
+	 * 		  | ( for each projectile in getAllProjectiles():
+	 * 		  |		 result.contains(projectile) )
 	 * 		  | && ( for each worm in worms:
 	 * 		  |		 result.contains(worm) )
 	 */
 	public Set<Object> getAllWorldObjects() {
 		final Set<Object> allObjects = new HashSet<Object>();
 		allObjects.addAll(worms);
-		if (hasProjectile()) allObjects.add(projectile);
+		allObjects.addAll(projectiles);
 		return allObjects;
 	}
 	
@@ -1016,26 +2171,41 @@ public class World {
 	
 	
 	//GAME
+	/**
+	 * Start the game in this world.
+	 * 	The worms controlled by a program take their turns in order until a
+	 * 	worm controlled by the player is reached. If every worm is controlled
+	 * 	by a program, each of them takes one turn and the turn stays with the
+	 * 	last of them.
+	 */
 	public void startGame() {		
 		gameStarted = true;
-		int index = 0;
-		setCurrentWorm(getAllWorms().get(index));
-		while (getCurrentWorm().hasProgram()) {			
+		setCurrentWorm(firstInTurn);
+		int nbTurns = getNbWorms();
+		while ((nbTurns > 0) && getCurrentWorm().hasProgram()) {
 			getCurrentWorm().getProgram().run();
-			index += 1;
-			setCurrentWorm(getAllWorms().get(index));
+			nbTurns -= 1;
+			if ((nbTurns > 0) && (getNbWorms() > 0)) {
+				selectNextInTurn();
+			} else {
+				nbTurns = 0;
+			}
 		}
 	}
 	
+	/**
+	 * Start the turn of the next worm in this world.
+	 * 	The projectiles still in flight from the previous turn land before
+	 * 	the next worm is selected.
+	 * 
+	 * @effect	...
+	 * 		  |	if (! isGameFinished())
+	 * 		  |		then landProjectiles()
+	 */
 	public void startNextTurn() {
 		if (! isGameFinished()) {
-			int index = worms.indexOf(getCurrentWorm());
-			if (index >= worms.size() - 1) {
-				index = 0;
-			} else {
-				index += 1;
-			}
-			setCurrentWorm(worms.get(index));
+			landProjectiles();
+			selectNextInTurn();
 			Worm worm = getCurrentWorm();
 			worm.setCurrentActionPoints(worm.getActionPointsMaximum());
 			worm.addHitPoints(10);
@@ -1047,30 +2217,29 @@ public class World {
 	
 	public void addWorm(Program program) {
 		if (! isGameStarted()) {
-			int max = getAllWorms().size();
-			int index = randomInt(0, max);
-			Collections.shuffle(Arrays.asList(nameList));
-			String name = getNameAt(index);
-			List<String> currentWormNames = getAllWormNames();
-			while (currentWormNames.contains(name)) {
-				index = randomInt(0, max);
-				name = getNameAt(index);
-			}
+			String name = searchFreeName();
 			Worm newWorm = new Worm(new Position(0, 0), 0, 1, name);
 			
 			//find possible position
 			double minRadius = newWorm.getLowerRadiusBound();
-			double maxRadius = 4 * minRadius;
-			newWorm.setRadius(randomDouble(minRadius, maxRadius));
+			int bucket = randomInt(0, NB_SPAWN_RADII - 1);
+			double radius = getSpawnRadius(minRadius, bucket);
+			Position position = searchSpawnPosition(radius);
+			// smaller worms may still fit in a crowded world
+			while ((position == null) && (bucket > 0)) {
+				bucket -= 1;
+				radius = getSpawnRadius(minRadius, bucket);
+				position = searchSpawnPosition(radius);
+			}
+			if (position == null)
+				throw new IllegalStateException(
+						"No room left for a worm in this world.");
+			newWorm.setRadius(radius);
 			
 			double direction = randomDouble(Worm.getLowerAngleBound(),
 					Worm.getUpperAngleBound());
 			newWorm.setDirection(direction);
 			
-			Position position = searchAdjacentPosition(newWorm);
-			while (position == null) {
-				position = searchAdjacentPosition(newWorm);
-			}
 			newWorm.setPosition(position);
 			newWorm.setProgram(program);
 			
@@ -1078,42 +2247,101 @@ public class World {
 		}
 	}
 	
-	private Position searchAdjacentPosition(Worm worm) {
-		double R = worm.getRadius();
-		double x = randomDouble(0, getWidth());
-		double y = randomDouble(0, getHeight());
-		Position position = new Position(x, y);
-		
-		double x0 = getWidth() / 2.0;
-		double y0 = getHeight() / 2.0;
-		double angle = Math.atan((y0 - y) / (x0 - x));
-		double ds = 0.1 * worm.getRadius();
-		
-		while ((! isAdjacent(position, R)) && isInsideWorldBorders(position)) {
-			double dx = ds * Math.cos(angle);
-			double dy = ds * Math.sin(angle);
-			position = position.translate(dx, dy);
+	/**
+	 * Return the radius of a worm added by addWorm with the given lower 
+	 * radius bound, for the spawn radius with the given index.
+	 * 
+	 * @return	...
+	 * 		  |	result == minRadius * (1 + 3.0 * bucket / (NB_SPAWN_RADII - 1))
+	 */
+	private static double getSpawnRadius(double minRadius, int bucket) {
+		return minRadius * (1 + 3.0 * bucket / (NB_SPAWN_RADII - 1));
+	}
+	
+	/**
+	 * Variable registering the number of radii a worm added by addWorm can
+	 * have, evenly spread between its lower radius bound and four times that
+	 * bound. Each radius has its own spawn index. If no position is left for
+	 * the radius that is drawn, addWorm tries the smaller radii in turn.
+	 */
+	private static final int NB_SPAWN_RADII = 8;
+	
+	/**
+	 * Variable registering the number of random positions of a spawn index
+	 * that are tried before its positions are inspected one by one.
+	 */
+	private static final int NB_SPAWN_DRAWS = 16;
+	
+	/**
+	 * Return a random position of this world at which an object with the
+	 * given radius is adjacent to impassable terrain and does not overlap
+	 * with any worm of this world.
+	 * 
+	 * @return	If the spawn index of this world for the given radius has a
+	 * 			position that does not overlap with any worm, such a position.
+	 * 		  |	if (for some index in 0..getSpawnIndex(radius).getNbPositions()-1:
+	 * 		  |		getOverlappingWorm(getSpawnIndex(radius).getX(index),
+	 * 		  |			getSpawnIndex(radius).getY(index), radius) == null)
+	 * 		  |		then getOverlappingWorm(result, radius) == null
+	 * @return	Otherwise, the result is null.
+	 * 		  |	else result == null
+	 */
+	private Position searchSpawnPosition(double radius) {
+		SpawnIndex spawnIndex = getSpawnIndex(radius);
+		int nbPositions = spawnIndex.getNbPositions();
+		if (nbPositions == 0) return null;
+		int start = randomInt(0, nbPositions - 1);
+		for (int draw = 0; draw < NB_SPAWN_DRAWS; draw++) {
+			int index = (draw == 0) ? start : randomInt(0, nbPositions - 1);
+			double x = spawnIndex.getX(index);
+			double y = spawnIndex.getY(index);
+			if (getOverlappingWorm(x, y, radius) == null)
+				return new Position(x, y);
 		}
-		
-		if (! isInsideWorldBorders(position)){
-			return null;
-		} else {
-			return position;
+		// crowded world: inspect every position once
+		for (int i = 1; i < nbPositions; i++) {
+			int index = (start + i) % nbPositions;
+			double x = spawnIndex.getX(index);
+			double y = spawnIndex.getY(index);
+			if (getOverlappingWorm(x, y, radius) == null)
+				return new Position(x, y);
 		}
+		return null;
 	}
 	
-	public Worm getWinningWorm() {
-		Worm winningWorm;
-		Iterator<Worm> iterator = worms.iterator();
-		winningWorm = iterator.next();
-		while (iterator.hasNext()) {
-			Worm otherWorm = iterator.next();
-			if (otherWorm.getCurrentHitPoints() > winningWorm
-					.getCurrentHitPoints()) {
-				winningWorm = otherWorm;
-			}
+	/**
+	 * Return the spawn index of this world for objects with the given radius.
+	 * 	Spawn indices are computed when they are first needed and kept in a
+	 * 	direct-mapped cache.
+	 * 
+	 * @return	...
+	 * 		  |	(result.getWorld() == this) && (result.getRadius() == radius)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 		  |	! (0 < radius < infinity)
+	 */
+	public SpawnIndex getSpawnIndex(double radius)
+			throws IllegalArgumentException {
+		long bits = Double.doubleToLongBits(radius);
+		int index = (int) (bits ^ (bits >>> 32)) 
+				& (spawnIndices.length - 1);
+		SpawnIndex spawnIndex = spawnIndices[index];
+		if ((spawnIndex == null) || (spawnIndex.getRadius() != radius)) {
+			spawnIndex = new SpawnIndex(this, radius);
+			spawnIndices[index] = spawnIndex;
 		}
-		return winningWorm;
+		return spawnIndex;
+	}
+	
+	/**
+	 * Array caching the spawn indices most recently used by this world.
+	 * 
+	 * @invar	The length of the array is a power of two.
+	 */
+	private final SpawnIndex[] spawnIndices = new SpawnIndex[16];
+	
+	public Worm getWinningWorm() {
+		return getWormAt(wormTable.getSlotWithMostHitPoints());
 	}
 	
 	public boolean isGameFinished() {
@@ -1146,10 +2374,97 @@ public class World {
 	
 	private Worm currentWorm;
 	
+	/**
+	 * Link the given worm in the order of turns of this world, after all
+	 * other worms.
+	 */
+	private void linkInTurn(Worm worm) {
+		if (firstInTurn == null) {
+			worm.setTurnLinks(worm, worm);
+			firstInTurn = worm;
+		} else {
+			Worm lastInTurn = firstInTurn.getPreviousInTurn();
+			worm.setTurnLinks(lastInTurn, firstInTurn);
+			lastInTurn.setTurnLinks(lastInTurn.getPreviousInTurn(), worm);
+			firstInTurn.setTurnLinks(worm, firstInTurn.getNextInTurn());
+		}
+	}
+	
+	/**
+	 * Hand the turn to the worm after the current worm in the order of turns
+	 * of this world, or to the worm registered to take the next turn if the
+	 * current worm was removed from this world.
+	 */
+	private void selectNextInTurn() {
+		if (hasAsWorm(getCurrentWorm())) {
+			setCurrentWorm(getCurrentWorm().getNextInTurn());
+		} else {
+			setCurrentWorm(nextTurnWorm);
+		}
+		nextTurnWorm = null;
+	}
+	
+	/**
+	 * Unlink the given worm from the order of turns of this world.
+	 * 	If the given worm holds the current turn, or would take the next turn
+	 * 	after a current worm that was removed before, the worm after it is
+	 * 	registered to take the next turn.
+	 */
+	private void unlinkFromTurn(Worm worm) {
+		Worm previous = worm.getPreviousInTurn();
+		Worm next = worm.getNextInTurn();
+		boolean alone = (next == worm);
+		if ((worm == getCurrentWorm()) || (worm == nextTurnWorm)) {
+			nextTurnWorm = alone ? null : next;
+		}
+		if (alone) {
+			firstInTurn = null;
+		} else {
+			previous.setTurnLinks(previous.getPreviousInTurn(), next);
+			next.setTurnLinks(previous, next.getNextInTurn());
+			if (worm == firstInTurn) {
+				firstInTurn = next;
+			}
+		}
+		worm.setTurnLinks(null, null);
+	}
+	
+	/**
+	 * Variable referencing the worm that was added first among the worms
+	 * attached to this world, at which the order of turns starts.
+	 */
+	private Worm firstInTurn;
+	
+	/**
+	 * Variable referencing the worm that takes the next turn, if the current
+	 * worm is no longer attached to this world.
+	 */
+	private Worm nextTurnWorm;
+	
 	private String getNameAt(int index) {
 		return nameList[index];
 	}
 	
+	/**
+	 * Return a name that no worm of this world has.
+	 * 	A random name of the list of names is taken if it is still free.
+	 * 	Once all names of the list are taken, a number is appended to a
+	 * 	random name of the list.
+	 */
+	private String searchFreeName() {
+		int start = randomInt(0, nameList.length - 1);
+		for (int i = 0; i < nameList.length; i++) {
+			String name = getNameAt((start + i) % nameList.length);
+			if (! hasWormNamed(name))
+				return name;
+		}
+		int number = getNbWorms();
+		while (hasWormNamed(getNameAt(start) + " " + number)) {
+			number += 1;
+		}
+		return getNameAt(start) + " " + number;
+	}
+	
 	public String[] getAllNames() {
 		return nameList;
 	}
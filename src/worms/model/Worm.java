@@ -154,15 +154,15 @@ public class Worm extends GameObject {
 					// unable to move
 					steps = 0;
 				} else {
-					setPosition(passablePosition);
+					moveTo(passablePosition.getX(), passablePosition.getY());
 					fall();
 				}
 			} else {
 				double slope = Math.atan(
-						(this.getPosition().getY() - adjacentPosition.getY())
-						/ (this.getPosition().getX() - adjacentPosition.getX()) );
+						(getY() - adjacentPosition.getY())
+						/ (getX() - adjacentPosition.getX()) );
 				if (! canMove(slope)) throw new IllegalArgumentException();
-				setPosition(adjacentPosition);
+				moveTo(adjacentPosition.getX(), adjacentPosition.getY());
 				int consumedActionPoints = getConsumedActionPoints(slope);
 				decreaseActionPoints(consumedActionPoints);
 			}
@@ -173,6 +173,9 @@ public class Worm extends GameObject {
 	
 	/**
 	 * Let this worm fall until it hits impassabable terrain.
+	 * 	The fall is simulated in steps of a tenth of the radius of this worm,
+	 * 	but the steps above the landing height found by the world of this worm
+	 * 	are passed over at once.
 	 * 
 	 * @post	If there exist an adjacent position straight below this worm, 
 	 * 			the new position of this worm is the first adjacent position
@@ -198,24 +201,62 @@ public class Worm extends GameObject {
 		double dy = radius/10;
 		double travelledFallingMeters = 0;
 		World world = getWorld();
+		double x = getX();
+		double y = getY();
+		
+		// skip the steps that can neither be adjacent nor leave the world
+		double landingY = world.getLandingHeight(x, y, 
+				ADJACENCY_FACTOR * radius);
+		long skippedSteps = (long) Math.floor(
+				(y - Math.max(landingY, radius)) / dy) - 1;
+		if ( (skippedSteps > 0)
+		  && world.objectIsInsideWorldBorders(x, y - dy, radius)
+		  && world.objectIsInsideWorldBorders(x, y - skippedSteps * dy,
+				  radius) ) {
+			y -= skippedSteps * dy;
+			travelledFallingMeters += skippedSteps * dy;
+		}
 		
 		while (falling) {
-			Position position = getPosition().translate(0, -dy);
+			double nextY = y - dy;
 			travelledFallingMeters += dy;
-			if (! world.objectIsInsideWorldBorders(position, radius)) {
+			if (! world.objectIsInsideWorldBorders(x, nextY, radius)) {
+				moveTo(x, y);
 				getWorld().removeAsWorm(this);
 				falling = false;
-			} else if (getWorld().isAdjacent(position, getRadius())) {
+			} else if (world.isAdjacent(x, nextY, radius)) {
 				falling = false;
-				setPosition(position);
+				moveTo(x, nextY);
 				decreaseHitPoints(3 * (int) travelledFallingMeters + 1);
 			} else {
 				falling = true;
-				setPosition(position);
+				y = nextY;
 			}
 		}
 	}
 	
+	/**
+	 * Move this worm to the given coordinates.
+	 * 
+	 * @effect	This worm is moved as a game object.
+	 * 		  |	super.moveTo(x, y)
+	 * @effect	If this worm has a world, that world registers the move.
+	 * 		  |	if (hasWorld())
+	 * 		  |		then getWorld().relocateWorm(this, this.getX(), this.getY())
+	 * @effect	...
+	 * 		  |	invalidateJumpCache()
+	 */
+	@Override
+	void moveTo(double x, double y) throws IllegalArgumentException {
+		double oldX = getX();
+		double oldY = getY();
+		super.moveTo(x, y);
+		invalidateJumpCache();
+		if (hasWorld() && (! Double.isNaN(oldX))) {
+			getWorld().relocateWorm(this, oldX, oldY);
+		}
+	}
+	
 	/**
 	 * Check whether this worm can fall.
 	 * 
@@ -228,7 +269,7 @@ public class Worm extends GameObject {
 	public boolean canFall() {
 		return 
 			  (	hasWorld()
-			 &&	(! getWorld().isAdjacent(getPosition(), getRadius())) );
+			 &&	(! getWorld().isAdjacent(getX(), getY(), getRadius())) );
 	}
 	
 	/**
@@ -244,12 +285,12 @@ public class Worm extends GameObject {
 		double maxDivergence = 0;
 		double maxDistance = getRadius();
 		double minDistance = maxDistance;
-		double dr = maxDistance/58;
-		double stepSize = 0.0175;
+		double dr = maxDistance / SEARCH_DISTANCE_DIVISOR;
+		double stepSize = SEARCH_STEP_SIZE;
 		double dtheta;
 		Position optimalPosition;
 		
-		while (maxDivergence <= 0.7875) {
+		while (maxDivergence <= MAX_SEARCH_DIVERGENCE) {
 			distance = maxDistance;
 			divergence = maxDivergence;
 			
@@ -280,6 +321,26 @@ public class Worm extends GameObject {
 		return null;
 	}
 	
+	/**
+	 * Variable registering the step in radians by which the largest 
+	 * divergence of the polar search of getOptimalPosition grows with each
+	 * level of that search.
+	 */
+	private static final double SEARCH_STEP_SIZE = 0.0175;
+	
+	/**
+	 * Variable registering the largest divergence in radians from the 
+	 * direction of a worm at which the polar search of getOptimalPosition
+	 * looks for a position.
+	 */
+	private static final double MAX_SEARCH_DIVERGENCE = 0.7875;
+	
+	/**
+	 * Variable registering the number of steps into which the polar search 
+	 * of getOptimalPosition divides the radius of a worm.
+	 */
+	private static final double SEARCH_DISTANCE_DIVISOR = 58;
+	
 	/**
 	 * ...
 	 * 
@@ -297,32 +358,30 @@ public class Worm extends GameObject {
 	 */
 	private Position getOptimalPositionFromPolCoo(double divergence, 
 			double distance, boolean resultIsAdjacent) {
-		double x0 = getPosition().getX();
-		double y0 = getPosition().getY();
+		double x0 = getX();
+		double y0 = getY();
 		double direction = getDirection();
 		World world = getWorld();
 		double radius = getRadius();
-		Position left = new Position(
-				x0 + distance * Math.cos(direction + divergence), 
-				y0 + distance * Math.sin(direction + divergence) );
-		Position right = new Position(
-				x0 + distance * Math.cos(direction - divergence), 
-				y0 + distance * Math.sin(direction - divergence) );
+		double leftX = x0 + distance * Math.cos(direction + divergence);
+		double leftY = y0 + distance * Math.sin(direction + divergence);
+		double rightX = x0 + distance * Math.cos(direction - divergence);
+		double rightY = y0 + distance * Math.sin(direction - divergence);
 		
 		if (resultIsAdjacent) {
-			if (world.isAdjacent(left, radius)) {
-				return left;
+			if (world.isAdjacent(leftX, leftY, radius)) {
+				return new Position(leftX, leftY);
 			}
-			if (world.isAdjacent(right, radius)) {
-				return right;
+			if (world.isAdjacent(rightX, rightY, radius)) {
+				return new Position(rightX, rightY);
 			} 
 			return null;
 		} else if (! resultIsAdjacent) {
-			if (world.isPassableForObject(left, radius)) {
-				return left;
+			if (world.isPassableForObject(leftX, leftY, radius)) {
+				return new Position(leftX, leftY);
 			}
-			if (world.isPassableForObject(right, radius)) {
-				return right;
+			if (world.isPassableForObject(rightX, rightY, radius)) {
+				return new Position(rightX, rightY);
 			}
 			return null;
 		}
@@ -385,9 +444,10 @@ public class Worm extends GameObject {
 			throws IllegalArgumentException, IllegalArgumentException {
 		if (! canJump())
 			throw new IllegalArgumentException();
-		Position initialPosition = getPosition();
+		double initialX = getX();
+		double initialY = getY();
 		super.jump(timeStep);
-		if (! initialPosition.equals(getPosition())) {
+		if ((getX() != initialX) || (getY() != initialY)) {
 			setCurrentActionPoints(0);
 		}		
 	}
@@ -404,12 +464,15 @@ public class Worm extends GameObject {
 	@Override
 	public boolean canJump() {
 		return ( hasWorld()
-			  && getWorld().isAdjacent(getPosition(), getRadius())
+			  && getWorld().isAdjacent(getX(), getY(), getRadius())
 		      && (getCurrentActionPoints() > 0) );
 	}
 	
 	/**
 	 * Returns the time in seconds this worm needs for jumping.
+	 * 	The jump time is cached for the current state of this worm, the 
+	 * 	terrain of its world and the given time step, so that asking it again
+	 * 	before this worm changes does not trace the jump again.
 	 * 
 	 * @param	dt
 	 * 			The time step in which a worm will not completely move through
@@ -453,58 +516,182 @@ public class Worm extends GameObject {
 	public double jumpTime(double dt) {
 		if (! hasWorld()) return Double.POSITIVE_INFINITY;
 		
-		double jumpTime = 0;
-		boolean jumping = true;
-		Position startPosition = getPosition().clone();
-		Position jumpPosition = getPosition().clone();
-		Position pre = jumpPosition.clone();
+		if ( (dt != cachedTimeStep)
+		  || (getWorld() != cachedWorld)
+		  || (getWorld().getTerrain() != cachedTerrain) ) {
+			cachedJumpTime = computeJumpTime(dt);
+			cachedTimeStep = dt;
+			cachedWorld = getWorld();
+			cachedTerrain = getWorld().getTerrain();
+		}
+		return cachedJumpTime;
+	}
+	
+	/**
+	 * Compute the time in seconds this worm needs for jumping, as specified
+	 * by jumpTime(dt).
+	 * 	The trajectory is traced in steps as large as the clearance from the
+	 * 	terrain allows; the first time step at which this worm lands is then
+	 * 	found by bisection between the last two steps.
+	 */
+	private double computeJumpTime(double dt) {
 		World world = getWorld();
 		double radius = getRadius();
-		double jumpSpeed = jumpSpeed(getLaunchForce());
-		double interval = 0;
-		double ds = 0.1 * getRadius();
+		double startX = getX();
+		double startY = getY();
+		Trajectory trajectory = getJumpTrajectory();
+		long exitStep = trajectory.getFirstStepOutside(0, 0, world.getWidth(),
+				world.getHeight(), dt);
 		
-		while (jumping
-				&& (jumpPosition.getDistanceFrom(startPosition) < radius)
-				&& (world.isInsideWorldBorders(jumpPosition))) {
-			jumpTime += dt;
-			jumpPosition = jumpStep(jumpTime, jumpSpeed);
-			interval += jumpPosition.getDistanceFrom(pre);
-			pre = jumpPosition.clone();
-			while (interval < ds) {
-				jumpTime += dt;
-				jumpPosition = jumpStep(jumpTime, jumpSpeed);
-				interval += jumpPosition.getDistanceFrom(pre);
-				pre = jumpPosition.clone();
-			}
-			interval = 0;
-			if (world.isImpassableForObject(jumpPosition, radius)) {jumping = false;}
+		long step = 0;
+		double x = startX;
+		double y = startY;
+		while (distance(x, y, startX, startY) < radius) {
+			step = nextStep(trajectory, step, dt, 
+					world.getMinimalClearance(x, y) - radius);
+			if (step >= exitStep) return Double.POSITIVE_INFINITY;
+			x = trajectory.getX(step * dt);
+			y = trajectory.getY(step * dt);
+			if (world.isImpassableForObject(x, y, radius)) return 0;
 		}
 		
-		while (jumping && (world.isInsideWorldBorders(jumpPosition))) {
-			jumpTime += dt;
-			jumpPosition = jumpStep(jumpTime, jumpSpeed);
-			interval += jumpPosition.getDistanceFrom(pre);
-			pre = jumpPosition.clone();
-			while (interval < ds) {
-				jumpTime += dt;
-				jumpPosition = jumpStep(jumpTime, jumpSpeed);
-				interval += jumpPosition.getDistanceFrom(pre);
-				pre = jumpPosition.clone();
-			}
-			interval = 0;
-			if (world.isAdjacent(jumpPosition, radius)) {jumping = false;}
-		
+		long previousStep = step;
+		while (! isLandingPosition(world, x, y, radius)) {
+			previousStep = step;
+			step = nextStep(trajectory, step, dt, 
+					world.getMinimalClearance(x, y) - ADJACENCY_FACTOR * radius);
+			if (step >= exitStep) return Double.POSITIVE_INFINITY;
+			x = trajectory.getX(step * dt);
+			y = trajectory.getY(step * dt);
 		}
 		
-		if (! world.isAdjacent(jumpPosition, radius)) {
-			jumpTime = 0;
+		// bisection for the first step at which this worm lands
+		long high = step;
+		long low = previousStep;
+		while (high - low > 1) {
+			long middle = (low + high) >>> 1;
+			if (isLandingPosition(world, trajectory.getX(middle * dt), 
+					trajectory.getY(middle * dt), radius)) {
+				high = middle;
+			} else {
+				low = middle;
+			}
 		}
-		if (! world.isInsideWorldBorders(jumpPosition)) {
-			jumpTime = Double.POSITIVE_INFINITY;
+		if (! world.isAdjacent(trajectory.getX(high * dt),
+				trajectory.getY(high * dt), radius)) {
+			high = step;
 		}
-		
-		return jumpTime;
+		if (! world.isAdjacent(trajectory.getX(high * dt),
+				trajectory.getY(high * dt), radius)) {
+			return 0;
+		}
+		return high * dt;
+	}
+	
+	/**
+	 * Return the time step following the given time step on the given
+	 * trajectory, such that this worm moves at most the given clearance, but
+	 * no less than a tenth of its radius in between.
+	 * 	A tenth of the radius is the width of the band of positions adjacent
+	 * 	to impassable terrain, so a worm cannot pass from a position far from
+	 * 	the terrain to a position inside it in a single step.
+	 */
+	private long nextStep(Trajectory trajectory, long step, double dt,
+			double clearance) {
+		if (clearance == Double.POSITIVE_INFINITY) return Long.MAX_VALUE;
+		double time = step * dt;
+		double duration = trajectory.getDurationFor(
+				Math.max(clearance, (ADJACENCY_FACTOR - 1) * getRadius()),
+				time);
+		return Math.max(step + 1, (long) Math.floor((time + duration) / dt));
+	}
+	
+	/**
+	 * Check whether a jump of an object with the given radius ends at the 
+	 * given coordinates, because they are adjacent to or inside impassable
+	 * terrain.
+	 */
+	private static boolean isLandingPosition(World world, double x, double y,
+			double radius) {
+		return world.isAdjacent(x, y, radius) 
+				|| world.isImpassableForObject(x, y, radius);
+	}
+	
+	/**
+	 * Variable registering the factor by which the radius of a worm is 
+	 * multiplied to obtain the largest distance at which it is adjacent to 
+	 * impassable terrain.
+	 */
+	private static final double ADJACENCY_FACTOR = 1.1;
+	
+	/**
+	 * Return the trajectory this worm follows when it jumps from its current
+	 * position.
+	 * 	The trajectory is cached until the position, the direction, the 
+	 * 	action points or the mass of this worm change.
+	 * 
+	 * @return	...
+	 * 		  |	let
+	 * 		  |		speed = jumpSpeed(getLaunchForce())
+	 * 		  |	in
+	 * 		  |		result.equals(new Trajectory(getX(), getY(), 
+	 * 		  |			speed * Math.cos(getDirection()),
+	 * 		  |			speed * Math.sin(getDirection()), 
+	 * 		  |			getGravityOfEarth()))
+	 */
+	public Trajectory getJumpTrajectory() {
+		if (jumpTrajectory == null) {
+			double jumpSpeed = jumpSpeed(getLaunchForce());
+			jumpTrajectory = new Trajectory(getX(), getY(),
+					jumpSpeed * Math.cos(getDirection()),
+					jumpSpeed * Math.sin(getDirection()), getGravityOfEarth());
+		}
+		return jumpTrajectory;
+	}
+	
+	/**
+	 * Forget the cached jump trajectory and jump time of this worm.
+	 * 
+	 * @post	...
+	 * 		  |	the next invocation of getJumpTrajectory() or jumpTime(dt)
+	 * 		  |	computes its result anew
+	 */
+	void invalidateJumpCache() {
+		jumpTrajectory = null;
+		cachedTimeStep = Double.NaN;
+	}
+	
+	/**
+	 * Variable referencing the cached jump trajectory of this worm, if any.
+	 */
+	private Trajectory jumpTrajectory;
+	
+	/**
+	 * Variable registering the cached jump time of this worm.
+	 */
+	private double cachedJumpTime;
+	
+	/**
+	 * Variable registering the time step for which the jump time of this worm
+	 * was cached. It is not a number if no jump time is cached.
+	 */
+	private double cachedTimeStep = Double.NaN;
+	
+	/**
+	 * Variables referencing the world and its terrain for which the jump time
+	 * of this worm was cached.
+	 */
+	private World cachedWorld;
+	
+	private Terrain cachedTerrain;
+	
+	/**
+	 * Return the distance between the points (x1, y1) and (x2, y2).
+	 */
+	private static double distance(double x1, double y1, double x2, double y2) {
+		double dx = x2 - x1;
+		double dy = y2 - y1;
+		return Math.sqrt(dx * dx + dy * dy);
 	}
 	
 	/**
@@ -536,6 +723,21 @@ public class Worm extends GameObject {
 	
 	
 	//DIRECTION RELATED METHODS (nominal)
+	/**
+	 * Set the direction of this worm to the given direction.
+	 * 
+	 * @effect	...
+	 * 		  |	super.setDirection(direction)
+	 * @effect	...
+	 * 		  |	invalidateJumpCache()
+	 */
+	@Override
+	@Raw
+	public void setDirection(double direction) {
+		super.setDirection(direction);
+		invalidateJumpCache();
+	}
+	
 	/**
 	 * Turn this worm by the given angle in radians by changing its direction.
 	 * @param 	angle
@@ -619,6 +821,26 @@ public class Worm extends GameObject {
 		 &&	(radius >= getLowerRadiusBound()) );
 	}
 	
+	/**
+	 * Set the radius of this worm to the given radius.
+	 * 
+	 * @effect	The radius of this worm is set as the radius of a game object.
+	 * 		  |	super.setRadius(radius)
+	 * @effect	If this worm has a world, that world registers the new radius.
+	 * 		  |	if (hasWorld())
+	 * 		  |		then getWorld().resizeWorm(this)
+	 * @effect	...
+	 * 		  |	invalidateJumpCache()
+	 */
+	@Override
+	public void setRadius(double radius) throws IllegalArgumentException {
+		super.setRadius(radius);
+		invalidateJumpCache();
+		if (hasWorld()) {
+			getWorld().resizeWorm(this);
+		}
+	}
+	
 	/**
 	 * Return the maximum action points this worm can have.
 	 *   The maximum of action points of this worm is derived from its mass.
@@ -682,6 +904,20 @@ public class Worm extends GameObject {
 		setMass(mass);
 	}
 	
+	/**
+	 * Set the mass of this worm to the given mass.
+	 * 
+	 * @effect	...
+	 * 		  |	super.setMass(mass)
+	 * @effect	...
+	 * 		  |	invalidateJumpCache()
+	 */
+	@Override
+	public void setMass(double mass) {
+		super.setMass(mass);
+		invalidateJumpCache();
+	}
+	
 	
 	
 	
@@ -767,6 +1003,8 @@ public class Worm extends GameObject {
 	 *		  |		currentActionPoints = actionPoints;
 	 *		  | if (actionPoints >= getActionPointsMaximum())
 	 *		  | 	this.currentActionPoints = getActionPointsMaximum();
+	 * @effect	...
+	 * 		  |	invalidateJumpCache()
 	 */
 	protected void setCurrentActionPoints(int actionPoints) {
 		if (actionPoints <= 0) {
@@ -777,6 +1015,7 @@ public class Worm extends GameObject {
 		} else if (actionPoints >= getActionPointsMaximum()) {
 			this.currentActionPoints = getActionPointsMaximum();
 		}
+		invalidateJumpCache();
 	}
 	
 	/**
@@ -852,6 +1091,9 @@ public class Worm extends GameObject {
 		} else if (hitPoints >= getActionPointsMaximum()) {
 			this.currentHitPoints = getActionPointsMaximum();
 		}
+		if (hasWorld()) {
+			getWorld().updateWorm(this);
+		}
 	}
 	
 	/**
@@ -879,6 +1121,9 @@ public class Worm extends GameObject {
 	 * 			The new name for this worm.
 	 * @post	The new name of this worm is equal to the given name.
 	 * 		  |	this.getName() == name
+	 * @effect	If this worm has a world, that world registers the new name.
+	 * 		  |	if (hasWorld())
+	 * 		  |		then getWorld().renameWorm(this, getName())
 	 * @throws	IllegalArgumentException()
 	 * 		  	The given name is not a valid name for any worm.
 	 * 		  |	! isValidName(name)
@@ -886,7 +1131,11 @@ public class Worm extends GameObject {
 	public void setName(String name) throws IllegalArgumentException {
 		if (! isValidName(name))
 			throw new IllegalArgumentException();
+		String oldName = this.name;
 		this.name = name;
+		if (hasWorld()) {
+			getWorld().renameWorm(this, oldName);
+		}
 	}
 	
 	/**
@@ -1181,6 +1430,85 @@ public class Worm extends GameObject {
 	
 	
 	
+	/**
+	 * Return a new worm in the same state as this worm, that is not attached
+	 * to any world and has no program.
+	 * 
+	 * @return	...
+	 * 		  |	(result != this) && (! result.hasWorld())
+	 * 		  |	&& (! result.hasProgram())
+	 * @return	...
+	 * 		  |	result.getPosition().equals(getPosition())
+	 * 		  |	&& (result.getDirection() == getDirection())
+	 * 		  |	&& (result.getRadius() == getRadius())
+	 * 		  |	&& (result.getName() == getName())
+	 * @return	...
+	 * 		  |	(result.getCurrentActionPoints() == getCurrentActionPoints())
+	 * 		  |	&& (result.getCurrentHitPoints() == getCurrentHitPoints())
+	 * 		  |	&& (result.getActiveWeapon() == getActiveWeapon())
+	 */
+	Worm copy() {
+		Worm result = new Worm(getPosition(), getDirection(), getRadius(),
+				getName());
+		result.setCurrentActionPoints(getCurrentActionPoints());
+		result.setCurrentHitPoints(getCurrentHitPoints());
+		result.weapons.clear();
+		result.weapons.addAll(weapons);
+		result.activeWeapon = activeWeapon;
+		return result;
+	}
+	
+	
+	
+	
+	//TURN ORDER
+	/**
+	 * Return the worm that takes its turn after this worm in the world of
+	 * this worm.
+	 * 	The worms of a world are linked in a circle in the order of their
+	 * 	turns; a worm that is not attached to a world is not linked.
+	 */
+	@Basic
+	Worm getNextInTurn() {
+		return nextInTurn;
+	}
+	
+	/**
+	 * Return the worm that takes its turn before this worm in the world of
+	 * this worm.
+	 */
+	@Basic
+	Worm getPreviousInTurn() {
+		return previousInTurn;
+	}
+	
+	/**
+	 * Link this worm between the given previous worm and the given next worm
+	 * in the order of turns.
+	 * 
+	 * @post	...
+	 * 		  |	new.getPreviousInTurn() == previous
+	 * @post	...
+	 * 		  |	new.getNextInTurn() == next
+	 */
+	void setTurnLinks(Worm previous, Worm next) {
+		this.previousInTurn = previous;
+		this.nextInTurn = next;
+	}
+	
+	/**
+	 * Variable referencing the worm that takes its turn after this worm.
+	 */
+	private Worm nextInTurn;
+	
+	/**
+	 * Variable referencing the worm that takes its turn before this worm.
+	 */
+	private Worm previousInTurn;
+	
+	
+	
+	
 	//SHOOTING
 	/**
 	 * Fire the active weapon of this worm (i.e. add an active projectile to 
@@ -1195,22 +1523,9 @@ public class Worm extends GameObject {
 	 * 		  |	new.getCurrentActionPoints() ==
 	 * 		  |		this.getCurrentActionPoints()
 	 * 		  |		- this.getActiveWeapon().getActionPointsCost()
-	 * @post	If the resulting position of the fired projectile overlaps with 
-	 * 			a worm in the world of this worm, the damage of the fired 
-	 * 			projectile shall be	subtracted from the hit points of the worm 
-	 * 			which is overlapped.
-	 * 		  |	let
-	 * 		  |		Worm hitWorm = getWorld().getOverlappingWorm(
-	 *		  |			projectile.getPosition(), projectile.getRadius())
-	 *		  |	in
-	 * 		  |		if (getWorld().overlaps(projectile.getPosition(),
-	 *		  |			projectile.getRadius()))
-	 *		  |			then hitWorm.decreaseHitPoints(inflictedHitPoints)
-	 * @post	The world of this worm shall have no effective projectile 
-	 * 			attached to it.
-	 * 		  |	new.getWorld().getProjectile() == null
-	 * @effect	Create a new projectile just outside the radius of this worm in
-	 * 			the direction this worm is facing and jump this new projectile.
+	 * @effect	Launch a new projectile from just outside the radius of this
+	 * 			worm in the direction this worm is facing. The projectiles
+	 * 			already in flight in the world of this worm are kept.
 	 * 		  |	let
 	 * 		  |		Weapon weapon = getActiveWeapon();
 	 *		  |		double force = weapon.getForce(propulsionYield);
@@ -1218,13 +1533,10 @@ public class Worm extends GameObject {
 	 *		  |		double direction = getDirection();
 	 *		  |		double dx = R * Math.cos(direction);
 	 *		  |		double dy = R * Math.sin(direction);
-	 *		  |		Position initialPosition = getPosition().translate(dx, dy);
-	 *		  |		double timestep = 0.0001;
 	 *		  |	in
-	 * 		  |		(Projectile projectile = new Projectile(initialPosition,
+	 * 		  |		getWorld().launchProjectile(this, getX() + dx, getY() + dy,
 	 *		  |			direction, weapon.getProjecileMass(), 
-	 *		  |			weapon.getDamage(), force))
-	 *		  |	 && (projectile.jump(timestep))
+	 *		  |			weapon.getDamage(), force)
 	 */
 	public void shoot(int propulsionYield) {
 		if (! canShoot()) return;
@@ -1235,12 +1547,10 @@ public class Worm extends GameObject {
 		double direction = getDirection();
 		double dx = R * Math.cos(direction);
 		double dy = R * Math.sin(direction);
-		Position initialPosition = getPosition().translate(dx, dy);
-		Projectile projectile = new Projectile(initialPosition, direction,
-				weapon.getProjecileMass(), weapon.getDamage(), force);
 
 		decreaseActionPoints(weapon.getActionPointsCost());
-		getWorld().setProjectile(projectile);
+		getWorld().launchProjectile(this, getX() + dx, getY() + dy, direction,
+				weapon.getProjecileMass(), weapon.getDamage(), force);
 	}
 	
 	/**
@@ -1255,7 +1565,7 @@ public class Worm extends GameObject {
 	 * 		  |			>= getActiveWeapon().getActionPointCost()) )
 	 */
 	public boolean canShoot() {
-		return ( getWorld().isAdjacent(getPosition(), getRadius())
+		return ( getWorld().isAdjacent(getX(), getY(), getRadius())
 			  && (getCurrentActionPoints()
 						>= getActiveWeapon().getActionPointsCost()));	
 	}
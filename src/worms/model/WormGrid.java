@@ -0,0 +1,522 @@
+package worms.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of uniform grids registering the worms of a world by the cell in
+ * which their centre is located.
+ * 	The size of the cells is at least twice the largest radius of the worms
+ * 	registered in the grid, so that a worm can only overlap objects in cells
+ * 	near its own cell. Worms outside the area covered by the grid are
+ * 	registered in the nearest cell at its border.
+ *
+ * @invar	The cell size of each grid is at least twice the largest radius of
+ * 			the worms in it.
+ * 		  |	getCellSize() >= 2 * getMaxRadius()
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+public class WormGrid {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new worm grid covering an area with the given width and
+	 * the given height.
+	 *
+	 * @param 	width
+	 * 			The width of the area covered by this new grid.
+	 * @param 	height
+	 * 			The height of the area covered by this new grid.
+	 * @post	This new grid contains no worms.
+	 * 		  |	new.getNbWorms() == 0
+	 */
+	public WormGrid(double width, double height) {
+		this.width = width;
+		this.height = height;
+		resize(INITIAL_CELL_SIZE);
+	}
+
+	private final double width;
+
+	private final double height;
+
+	/**
+	 * Variable registering the cell size of a new grid in metres.
+	 */
+	private static final double INITIAL_CELL_SIZE = 1;
+
+	/**
+	 * Variable registering the largest number of cells of any grid.
+	 */
+	private static final int MAX_NB_CELLS = 1 << 20;
+
+
+
+
+	/**
+	 * Return the size of the cells of this grid in metres.
+	 */
+	@Basic
+	public double getCellSize() {
+		return cellSize;
+	}
+
+	private double cellSize;
+
+	/**
+	 * Return the largest radius of the worms that have been registered in
+	 * this grid.
+	 */
+	@Basic
+	public double getMaxRadius() {
+		return maxRadius;
+	}
+
+	private double maxRadius = 0;
+
+	/**
+	 * Return the number of worms registered in this grid.
+	 */
+	@Basic
+	public int getNbWorms() {
+		return nbWorms;
+	}
+
+	private int nbWorms = 0;
+
+
+
+
+	//REGISTRATION
+	/**
+	 * Register the given worm in this grid at its current position.
+	 *
+	 * @param 	worm
+	 * 			The worm to register.
+	 * @post	...
+	 * 		  |	new.getNbWorms() == getNbWorms() + 1
+	 * @post	...
+	 * 		  |	new.getMaxRadius() >= worm.getRadius()
+	 */
+	public void add(Worm worm) {
+		updateRadius(worm);
+		cellAt(getCellIndex(worm.getX(), worm.getY()), true).add(worm);
+		nbWorms++;
+	}
+
+	/**
+	 * Remove the given worm, registered at its current position, from this
+	 * grid.
+	 *
+	 * @param 	worm
+	 * 			The worm to remove.
+	 * @post	...
+	 * 		  |	if (the given worm was registered in this grid)
+	 * 		  |		then new.getNbWorms() == getNbWorms() - 1
+	 */
+	public void remove(Worm worm) {
+		remove(worm, getCellIndex(worm.getX(), worm.getY()));
+	}
+
+	/**
+	 * Move the given worm, registered at the given old coordinates, to its
+	 * current position.
+	 *
+	 * @param 	worm
+	 * 			The worm to move.
+	 * @param 	oldX
+	 * 			The X coordinate at which the given worm was registered.
+	 * @param 	oldY
+	 * 			The Y coordinate at which the given worm was registered.
+	 */
+	public void move(Worm worm, double oldX, double oldY) {
+		int oldIndex = getCellIndex(oldX, oldY);
+		int newIndex = getCellIndex(worm.getX(), worm.getY());
+		if (oldIndex != newIndex) {
+			if (remove(worm, oldIndex)) {
+				cellAt(newIndex, true).add(worm);
+				nbWorms++;
+			}
+		}
+	}
+
+	/**
+	 * Register that the radius of the given worm may have changed.
+	 *
+	 * @post	...
+	 * 		  |	new.getMaxRadius() >= worm.getRadius()
+	 */
+	public void updateRadius(Worm worm) {
+		if (worm.getRadius() > maxRadius) {
+			maxRadius = worm.getRadius();
+			if (2 * maxRadius > cellSize) {
+				resize(2 * maxRadius);
+			}
+		}
+	}
+
+	/**
+	 * Remove all worms from this grid.
+	 *
+	 * @post	...
+	 * 		  |	new.getNbWorms() == 0
+	 */
+	public void clear() {
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] = null;
+		}
+		nbWorms = 0;
+	}
+
+	/**
+	 * Remove the given worm from the cell with the given index, comparing
+	 * worms by identity.
+	 */
+	private boolean remove(Worm worm, int index) {
+		List<Worm> cell = cellAt(index, false);
+		if (cell == null) return false;
+		for (int i = 0; i < cell.size(); i++) {
+			if (cell.get(i) == worm) {
+				int last = cell.size() - 1;
+				cell.set(i, cell.get(last));
+				cell.remove(last);
+				nbWorms--;
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+
+
+	//QUERIES
+	/**
+	 * Return a worm of this grid that overlaps with an object with the given
+	 * radius at the given coordinates, ignoring the given worm.
+	 *
+	 * @param 	x
+	 * 			The X coordinate of the centre of the object.
+	 * @param 	y
+	 * 			The Y coordinate of the centre of the object.
+	 * @param 	radius
+	 * 			The radius of the object.
+	 * @param 	excluded
+	 * 			The worm to ignore, if effective.
+	 * @return	...
+	 * 		  |	if for some worm in this grid, different from excluded:
+	 * 		  |		distance from (x, y) to worm.getPosition()
+	 * 		  |			< (radius + worm.getRadius())
+	 * 		  |		then result == worm
+	 * 		  |	else result == null
+	 */
+	public Worm getOverlappingWorm(double x, double y, double radius,
+			Worm excluded) {
+		if (nbWorms == 0) return null;
+		double reach = radius + maxRadius;
+		int columnFrom = getColumn(x - reach);
+		int columnTo = getColumn(x + reach);
+		int rowFrom = getRow(y - reach);
+		int rowTo = getRow(y + reach);
+		for (int row = rowFrom; row <= rowTo; row++) {
+			for (int column = columnFrom; column <= columnTo; column++) {
+				List<Worm> cell = cells[row * nbColumns + column];
+				if (cell == null) continue;
+				for (int i = 0; i < cell.size(); i++) {
+					Worm worm = cell.get(i);
+					if (worm == excluded) continue;
+					double dx = worm.getX() - x;
+					double dy = worm.getY() - y;
+					double distance = radius + worm.getRadius();
+					if (dx * dx + dy * dy < distance * distance) {
+						return worm;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Add the worms of this grid registered in the cells covering the
+	 * rectangle with the given corners to the given collection.
+	 * 	Besides each worm of which the centre lies inside the rectangle, the
+	 * 	collection may receive worms just outside it.
+	 *
+	 * @param 	result
+	 * 			The collection to which the worms are added.
+	 * @post	...
+	 * 		  |	for each worm in this grid:
+	 * 		  |		if ( (minX <= worm.getX() <= maxX)
+	 * 		  |		  && (minY <= worm.getY() <= maxY) )
+	 * 		  |			then result.contains(worm)
+	 */
+	public void collectWorms(double minX, double minY, double maxX,
+			double maxY, Collection<Worm> result) {
+		if (nbWorms == 0) return;
+		int columnFrom = getColumn(minX);
+		int columnTo = getColumn(maxX);
+		int rowFrom = getRow(minY);
+		int rowTo = getRow(maxY);
+		for (int row = rowFrom; row <= rowTo; row++) {
+			for (int column = columnFrom; column <= columnTo; column++) {
+				List<Worm> cell = cells[row * nbColumns + column];
+				if (cell != null) result.addAll(cell);
+			}
+		}
+	}
+
+	/**
+	 * Return the worm of this grid of which the centre is nearest to the
+	 * given coordinates, ignoring the given worm.
+	 * 	The cells are visited in rings of growing size around the cell of the
+	 * 	given coordinates, until no unvisited cell can hold a nearer worm.
+	 *
+	 * @param 	x
+	 * 			The X coordinate to search from.
+	 * @param 	y
+	 * 			The Y coordinate to search from.
+	 * @param 	excluded
+	 * 			The worm to ignore, if effective.
+	 * @return	...
+	 * 		  |	for each worm in this grid, different from excluded:
+	 * 		  |		distance from (x, y) to result.getPosition()
+	 * 		  |			<= distance from (x, y) to worm.getPosition()
+	 * @return	...
+	 * 		  |	if (there is no such worm)
+	 * 		  |		then result == null
+	 */
+	public Worm getNearestWorm(double x, double y, Worm excluded) {
+		if (nbWorms == 0) return null;
+		int column0 = getColumn(x);
+		int row0 = getRow(y);
+		boolean inside = (x >= 0) && (x <= width) && (y >= 0) && (y <= height);
+		int maxRing = Math.max(nbColumns, nbRows);
+		Worm nearestWorm = null;
+		double nearestDistance = Double.POSITIVE_INFINITY;
+		for (int ring = 0; ring <= maxRing; ring++) {
+			for (int row = row0 - ring; row <= row0 + ring; row++) {
+				if ((row < 0) || (row >= nbRows)) continue;
+				boolean edge = (row == row0 - ring) || (row == row0 + ring);
+				int step = edge ? 1 : 2 * ring;
+				for (int column = column0 - ring; column <= column0 + ring;
+						column += Math.max(step, 1)) {
+					if ((column < 0) || (column >= nbColumns)) continue;
+					List<Worm> cell = cells[row * nbColumns + column];
+					if (cell == null) continue;
+					for (int i = 0; i < cell.size(); i++) {
+						Worm worm = cell.get(i);
+						if (worm == excluded) continue;
+						double dx = worm.getX() - x;
+						double dy = worm.getY() - y;
+						double distance = Math.sqrt(dx * dx + dy * dy);
+						if (distance < nearestDistance) {
+							nearestDistance = distance;
+							nearestWorm = worm;
+						}
+					}
+				}
+			}
+			if (inside && (nearestDistance <= ring * cellSize)) {
+				return nearestWorm;
+			}
+		}
+		return nearestWorm;
+	}
+
+	/**
+	 * Return the first worm of this grid of which the circle is hit by the
+	 * ray from the given coordinates in the given direction, not farther than
+	 * the given distance, ignoring the given worm.
+	 * 	The cells crossed by the ray are visited in order. Since a worm that
+	 * 	is hit in a cell has its centre in that cell or in one of its eight
+	 * 	neighbours, the search stops as soon as a hit lies before the exit of
+	 * 	the cell being visited.
+	 *
+	 * @param 	x
+	 * 			The X coordinate at which the ray starts.
+	 * @param 	y
+	 * 			The Y coordinate at which the ray starts.
+	 * @param 	directionX
+	 * 			The X component of the unit direction of the ray.
+	 * @param 	directionY
+	 * 			The Y component of the unit direction of the ray.
+	 * @param 	maxDistance
+	 * 			The distance at which the ray ends.
+	 * @param 	excluded
+	 * 			The worm to ignore, if effective.
+	 * @return	...
+	 * 		  |	for each worm in this grid, different from excluded:
+	 * 		  |		if (the ray hits worm at some distance d <= maxDistance)
+	 * 		  |			then (result != null) && (result.getDistance() <= d)
+	 * @return	...
+	 * 		  |	if (result != null)
+	 * 		  |		then the ray hits result.getWorm() at
+	 * 		  |			result.getDistance()
+	 */
+	public RayHit getFirstWormOnRay(double x, double y, double directionX,
+			double directionY, double maxDistance, Worm excluded) {
+		if (nbWorms == 0) return null;
+		int column = (int) Math.floor(x / cellSize);
+		int row = (int) Math.floor(y / cellSize);
+		int stepColumn = (directionX > 0) ? 1 : -1;
+		int stepRow = (directionY > 0) ? 1 : -1;
+		double nextX = (column + ((directionX > 0) ? 1 : 0)) * cellSize;
+		double nextY = (row + ((directionY > 0) ? 1 : 0)) * cellSize;
+		double exitX = (directionX == 0) ? Double.POSITIVE_INFINITY
+				: (nextX - x) / directionX;
+		double exitY = (directionY == 0) ? Double.POSITIVE_INFINITY
+				: (nextY - y) / directionY;
+		double deltaX = cellSize / Math.abs(directionX);
+		double deltaY = cellSize / Math.abs(directionY);
+		Worm firstWorm = null;
+		double firstDistance = Double.POSITIVE_INFINITY;
+		double entry = 0;
+		while (entry <= maxDistance) {
+			if (((column < -1) && (stepColumn < 0))
+			  || ((column > nbColumns) && (stepColumn > 0))
+			  || ((row < -1) && (stepRow < 0))
+			  || ((row > nbRows) && (stepRow > 0)))
+				break;
+			int columnTo = Math.max(0, Math.min(nbColumns - 1, column + 1));
+			int rowTo = Math.max(0, Math.min(nbRows - 1, row + 1));
+			for (int r = Math.max(0, Math.min(nbRows - 1, row - 1));
+					r <= rowTo; r++) {
+				for (int c = Math.max(0, Math.min(nbColumns - 1, column - 1));
+						c <= columnTo; c++) {
+					List<Worm> cell = cells[r * nbColumns + c];
+					if (cell == null) continue;
+					for (int i = 0; i < cell.size(); i++) {
+						Worm worm = cell.get(i);
+						if (worm == excluded) continue;
+						double distance = getRayDistance(worm, x, y,
+								directionX, directionY);
+						if (distance < firstDistance) {
+							firstDistance = distance;
+							firstWorm = worm;
+						}
+					}
+				}
+			}
+			double exit = Math.min(exitX, exitY);
+			if (firstDistance <= exit) break;
+			entry = exit;
+			if (exitX < exitY) {
+				column += stepColumn;
+				exitX += deltaX;
+			} else {
+				row += stepRow;
+				exitY += deltaY;
+			}
+		}
+		if (firstDistance > maxDistance) return null;
+		return new RayHit(firstDistance, firstWorm);
+	}
+
+	/**
+	 * Return the distance along the ray from the given coordinates in the
+	 * given unit direction at which the ray enters the circle of the given
+	 * worm.
+	 * 	If the ray starts inside the circle, the result is zero; if it misses
+	 * 	the circle, the result is positive infinity.
+	 */
+	private static double getRayDistance(Worm worm, double x, double y,
+			double directionX, double directionY) {
+		double fromX = x - worm.getX();
+		double fromY = y - worm.getY();
+		double radius = worm.getRadius();
+		double c = fromX * fromX + fromY * fromY - radius * radius;
+		if (c <= 0) return 0;
+		double b = fromX * directionX + fromY * directionY;
+		double discriminant = b * b - c;
+		if ((b >= 0) || (discriminant < 0)) return Double.POSITIVE_INFINITY;
+		return -b - Math.sqrt(discriminant);
+	}
+
+
+
+
+	//CELLS
+	/**
+	 * Return the index of the cell in which a worm with its centre at the
+	 * given coordinates is registered.
+	 */
+	private int getCellIndex(double x, double y) {
+		return getRow(y) * nbColumns + getColumn(x);
+	}
+
+	/**
+	 * Return the column of the cells covering the given X coordinate, clamped
+	 * to the columns of this grid.
+	 */
+	private int getColumn(double x) {
+		int column = (int) Math.floor(x / cellSize);
+		return Math.max(0, Math.min(nbColumns - 1, column));
+	}
+
+	/**
+	 * Return the row of the cells covering the given Y coordinate, clamped to
+	 * the rows of this grid.
+	 */
+	private int getRow(double y) {
+		int row = (int) Math.floor(y / cellSize);
+		return Math.max(0, Math.min(nbRows - 1, row));
+	}
+
+	/**
+	 * Return the cell with the given index, creating it if requested.
+	 */
+	private List<Worm> cellAt(int index, boolean create) {
+		List<Worm> cell = cells[index];
+		if ((cell == null) && create) {
+			cell = new ArrayList<Worm>(4);
+			cells[index] = cell;
+		}
+		return cell;
+	}
+
+	/**
+	 * Rebuild the cells of this grid with cells of at least the given size.
+	 */
+	private void resize(double minimalCellSize) {
+		double size = Math.max(minimalCellSize,
+				Math.sqrt(width * height / MAX_NB_CELLS));
+		List<Worm>[] oldCells = cells;
+		cellSize = size;
+		nbColumns = Math.max(1, (int) Math.min(MAX_NB_CELLS,
+				Math.ceil(width / size)));
+		nbRows = Math.max(1, (int) Math.min(MAX_NB_CELLS / nbColumns,
+				Math.ceil(height / size)));
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		List<Worm>[] newCells = new List[nbColumns * nbRows];
+		cells = newCells;
+		nbWorms = 0;
+		if (oldCells != null) {
+			for (List<Worm> cell : oldCells) {
+				if (cell == null) continue;
+				for (Worm worm : cell) {
+					cellAt(getCellIndex(worm.getX(), worm.getY()), true)
+							.add(worm);
+					nbWorms++;
+				}
+			}
+		}
+	}
+
+	private int nbColumns;
+
+	private int nbRows;
+
+	/**
+	 * Array registering the worms in each cell, row after row. Cells without
+	 * worms may be null.
+	 */
+	private List<Worm>[] cells;
+
+}
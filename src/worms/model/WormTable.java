@@ -0,0 +1,283 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * A class of tables registering the state of worms column by column.
+ * 	Each worm in a table occupies a slot; the slots are dense, so the
+ * 	coordinates, radii and hit points of all worms in a table are stored in
+ * 	contiguous arrays of primitive values. Only the state read by scans over
+ * 	all worms of a world is registered.
+ * 	Scans over all worms of a table run over these arrays instead of
+ * 	following a reference to each worm and its position. When a worm is
+ * 	removed, the worm in the last slot moves into its slot.
+ * 	A table holds a copy of the state of its worms, which is refreshed by
+ * 	the world of the table each time the state of one of its worms changes.
+ *
+ * @invar	The number of worms of each table is not negative.
+ * 		  |	getNbWorms() >= 0
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+public class WormTable {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new worm table without any worms.
+	 *
+	 * @post	...
+	 * 		  |	new.getNbWorms() == 0
+	 */
+	public WormTable() {
+		resize(INITIAL_CAPACITY);
+	}
+
+	private static final int INITIAL_CAPACITY = 16;
+
+
+
+
+	/**
+	 * Return the number of worms in this table.
+	 */
+	@Basic
+	public int getNbWorms() {
+		return nbWorms;
+	}
+
+	private int nbWorms = 0;
+
+	/**
+	 * Return the worm in the given slot of this table.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	(slot < 0) || (slot >= getNbWorms())
+	 */
+	@Basic
+	public Worm getWormAt(int slot) throws IndexOutOfBoundsException {
+		checkSlot(slot);
+		return worms[slot];
+	}
+
+	/**
+	 * Return the X coordinate registered for the worm in the given slot.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	(slot < 0) || (slot >= getNbWorms())
+	 */
+	@Basic
+	public double getX(int slot) throws IndexOutOfBoundsException {
+		checkSlot(slot);
+		return x[slot];
+	}
+
+	/**
+	 * Return the Y coordinate registered for the worm in the given slot.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	(slot < 0) || (slot >= getNbWorms())
+	 */
+	@Basic
+	public double getY(int slot) throws IndexOutOfBoundsException {
+		checkSlot(slot);
+		return y[slot];
+	}
+
+	/**
+	 * Return the radius registered for the worm in the given slot.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	(slot < 0) || (slot >= getNbWorms())
+	 */
+	@Basic
+	public double getRadius(int slot) throws IndexOutOfBoundsException {
+		checkSlot(slot);
+		return radius[slot];
+	}
+
+	/**
+	 * Return the current hit points registered for the worm in the given
+	 * slot.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	(slot < 0) || (slot >= getNbWorms())
+	 */
+	@Basic
+	public int getHitPoints(int slot) throws IndexOutOfBoundsException {
+		checkSlot(slot);
+		return hitPoints[slot];
+	}
+
+	private void checkSlot(int slot) throws IndexOutOfBoundsException {
+		if ((slot < 0) || (slot >= nbWorms))
+			throw new IndexOutOfBoundsException();
+	}
+
+
+
+
+	//REGISTRATION
+	/**
+	 * Add the given worm to this table in a new last slot.
+	 *
+	 * @param 	worm
+	 * 			The worm to add.
+	 * @return	...
+	 * 		  |	result == this.getNbWorms()
+	 * @post	...
+	 * 		  |	new.getNbWorms() == this.getNbWorms() + 1
+	 * @post	...
+	 * 		  |	new.getWormAt(result) == worm
+	 * @effect	...
+	 * 		  |	update(result)
+	 */
+	int add(Worm worm) {
+		if (nbWorms == worms.length) {
+			resize(2 * worms.length);
+		}
+		int slot = nbWorms++;
+		worms[slot] = worm;
+		update(slot);
+		return slot;
+	}
+
+	/**
+	 * Remove the worm in the given slot from this table.
+	 *
+	 * @return	The worm that moved from the last slot into the given slot, or
+	 * 			null if the given slot was the last slot.
+	 * @post	...
+	 * 		  |	new.getNbWorms() == this.getNbWorms() - 1
+	 * @post	...
+	 * 		  |	if (result != null)
+	 * 		  |		then new.getWormAt(slot) == result
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	(slot < 0) || (slot >= getNbWorms())
+	 */
+	Worm remove(int slot) throws IndexOutOfBoundsException {
+		checkSlot(slot);
+		int last = --nbWorms;
+		Worm movedWorm = null;
+		if (slot != last) {
+			movedWorm = worms[last];
+			worms[slot] = movedWorm;
+			x[slot] = x[last];
+			y[slot] = y[last];
+			radius[slot] = radius[last];
+			hitPoints[slot] = hitPoints[last];
+		}
+		worms[last] = null;
+		return movedWorm;
+	}
+
+	/**
+	 * Copy the current state of the worm in the given slot into this table.
+	 *
+	 * @post	...
+	 * 		  |	let
+	 * 		  |		worm = getWormAt(slot)
+	 * 		  |	in
+	 * 		  |		(new.getX(slot) == worm.getX())
+	 * 		  |	 && (new.getY(slot) == worm.getY())
+	 * 		  |	 && (new.getRadius(slot) == worm.getRadius())
+	 * 		  |	 && (new.getHitPoints(slot) == worm.getCurrentHitPoints())
+	 * @throws	IndexOutOfBoundsException
+	 * 			...
+	 * 		  |	(slot < 0) || (slot >= getNbWorms())
+	 */
+	void update(int slot) throws IndexOutOfBoundsException {
+		checkSlot(slot);
+		Worm worm = worms[slot];
+		x[slot] = worm.getX();
+		y[slot] = worm.getY();
+		radius[slot] = worm.getRadius();
+		hitPoints[slot] = worm.getCurrentHitPoints();
+	}
+
+	/**
+	 * Remove all worms from this table.
+	 *
+	 * @post	...
+	 * 		  |	new.getNbWorms() == 0
+	 */
+	void clear() {
+		for (int slot = 0; slot < nbWorms; slot++) {
+			worms[slot] = null;
+		}
+		nbWorms = 0;
+	}
+
+
+
+
+	//SCANS
+	/**
+	 * Return the first slot of this table of which the worm has the most hit
+	 * points.
+	 *
+	 * @return	...
+	 * 		  |	if (getNbWorms() == 0)
+	 * 		  |		then result == -1
+	 * @return	...
+	 * 		  |	for each slot in 0..getNbWorms()-1:
+	 * 		  |		(getHitPoints(slot) <= getHitPoints(result))
+	 * 		  |	 && ( (slot < result)
+	 * 		  |		==> (getHitPoints(slot) < getHitPoints(result)) )
+	 */
+	public int getSlotWithMostHitPoints() {
+		int result = -1;
+		int most = Integer.MIN_VALUE;
+		for (int slot = 0; slot < nbWorms; slot++) {
+			if (hitPoints[slot] > most) {
+				most = hitPoints[slot];
+				result = slot;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Grow the arrays of this table to the given capacity.
+	 */
+	private void resize(int capacity) {
+		Worm[] newWorms = new Worm[capacity];
+		double[] newX = new double[capacity];
+		double[] newY = new double[capacity];
+		double[] newRadius = new double[capacity];
+		int[] newHitPoints = new int[capacity];
+		if (worms != null) {
+			System.arraycopy(worms, 0, newWorms, 0, nbWorms);
+			System.arraycopy(x, 0, newX, 0, nbWorms);
+			System.arraycopy(y, 0, newY, 0, nbWorms);
+			System.arraycopy(radius, 0, newRadius, 0, nbWorms);
+			System.arraycopy(hitPoints, 0, newHitPoints, 0, nbWorms);
+		}
+		worms = newWorms;
+		x = newX;
+		y = newY;
+		radius = newRadius;
+		hitPoints = newHitPoints;
+	}
+
+	/**
+	 * Array referencing the worm in each slot of this table.
+	 */
+	private Worm[] worms;
+
+	private double[] x;
+
+	private double[] y;
+
+	private double[] radius;
+
+	private int[] hitPoints;
+
+}
@@ -71,22 +71,6 @@ public class Program {
 		getMainStatement().execute();
 	}
 	
-	public boolean isPaused() {
-		return pause;
-	}
-	
-	private boolean pause = false;
-	
-	public void pause(Statement statement) {
-		pause = true;
-		statement.setExecutionFlag(true);
-	}
-	
-	public void resume(Statement statement) {
-		pause = false;
-		statement.setExecutionFlag(false);
-	}
-	
 	
 	
 	
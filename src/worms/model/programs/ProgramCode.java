@@ -0,0 +1,39 @@
+package worms.model.programs;
+
+/**
+ * An interface of the executable code of programs.
+ * 	The code of a program is a sequence of instructions, numbered from
+ * 	zero, that runs from a given program counter for at most a given
+ * 	number of instructions. It returns the program counter at which it
+ * 	stopped, so a later run resumes exactly there.
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+public interface ProgramCode {
+
+	/**
+	 * Return the number of instructions of this code.
+	 * 	A program counter equal to this number means the program has
+	 * 	finished.
+	 */
+	public int getSize();
+
+	/**
+	 * Run this code from the instruction with the given number.
+	 * 	The run stops before the instruction that would exceed the given
+	 * 	budget of instructions, at an action that the worm executing the
+	 * 	program cannot perform, or at the end of the code.
+	 *
+	 * @param 	programCounter
+	 * 			The number of the first instruction to run.
+	 * @param 	budget
+	 * 			The largest number of instructions to run.
+	 * @return	The number of the instruction at which the run stopped,
+	 * 			which is the next instruction to run.
+	 * 		  |	(0 <= result) && (result <= getSize())
+	 */
+	public int run(int programCounter, int budget);
+
+}
@@ -0,0 +1,633 @@
+package worms.model.programs.closures;
+
+import java.util.List;
+
+import worms.gui.game.IActionHandler;
+import worms.model.Program;
+import worms.model.Program.Kind;
+import worms.model.Worm;
+import worms.model.programs.ProgramCode;
+import worms.model.programs.expressions.ArithmeticOperation;
+import worms.model.programs.expressions.BoolExpression;
+import worms.model.programs.expressions.ComparisonExpression;
+import worms.model.programs.expressions.DoubleConstantExpression;
+import worms.model.programs.expressions.Expression;
+import worms.model.programs.expressions.Inspector;
+import worms.model.programs.expressions.IsWormExpression;
+import worms.model.programs.expressions.NullExpression;
+import worms.model.programs.expressions.SearchObjectExpression;
+import worms.model.programs.expressions.SelfExpression;
+import worms.model.programs.expressions.SquarerootExpression;
+import worms.model.programs.expressions.SubtractionExpression;
+import worms.model.programs.expressions.VariableExpression;
+import worms.model.programs.expressions.ComparisonExpression.Relation;
+import worms.model.programs.statements.ActionStatement;
+import worms.model.programs.statements.AssignmentStatement;
+import worms.model.programs.statements.Instruction;
+import worms.model.programs.statements.Statement;
+
+/**
+ * A class of closure compilers involving a program and the frames of its
+ * global variables.
+ * 	A closure compiler turns each instruction of the flattened main
+ * 	statement of its program into a step, built from a tree of closures for
+ * 	its expressions. Every closure is specialised when it is built: the
+ * 	frame and the slot of each variable, the operator of each arithmetic
+ * 	operation and comparison, the property read by each inspector and the
+ * 	action of each action statement are fixed, so running the steps does
+ * 	no look-ups and no dispatch on enumerations. Statements that fail at
+ * 	run time report their line and column in a program execution
+ * 	exception.
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+public class ClosureCompiler {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new closure compiler for the given program with the
+	 * given frames.
+	 *
+	 * @param 	program
+	 * 			The program to compile.
+	 * @param 	doubles
+	 * 			The frame of the global variables of kind double.
+	 * @param 	booleans
+	 * 			The frame of the global variables of kind boolean.
+	 * @param 	entities
+	 * 			The frame of the global variables of kind entity.
+	 */
+	public ClosureCompiler(Program program, double[] doubles,
+			boolean[] booleans, Object[] entities) {
+		this.program = program;
+		this.doubles = doubles;
+		this.booleans = booleans;
+		this.entities = entities;
+	}
+
+	private final Program program;
+
+	private final double[] doubles;
+
+	private final boolean[] booleans;
+
+	private final Object[] entities;
+
+
+
+
+	//CLOSURES
+	/**
+	 * An interface of closures computing a double.
+	 */
+	public interface DoubleClosure {
+		double evaluate();
+	}
+
+	/**
+	 * An interface of closures computing a boolean.
+	 */
+	public interface BooleanClosure {
+		boolean evaluate();
+	}
+
+	/**
+	 * An interface of closures computing an entity.
+	 */
+	public interface EntityClosure {
+		Worm evaluate();
+	}
+
+
+
+
+	//STATEMENTS
+	/**
+	 * An interface of closures executing a single instruction.
+	 */
+	public interface Step {
+
+		/**
+		 * Execute this step and return the number of the next instruction
+		 * to execute, or SUSPEND if the worm executing the program cannot
+		 * perform the action of this step.
+		 */
+		int execute();
+
+	}
+
+	/**
+	 * Variable registering the value a step returns to suspend the program
+	 * before that step.
+	 */
+	public static final int SUSPEND = -1;
+
+	/**
+	 * Return the code of the given linked main statement.
+	 * 	The main statement is flattened into instructions and each
+	 * 	instruction becomes a step. Running the code executes the step at
+	 * 	the program counter and moves the program counter to the number
+	 * 	the step returns. A statement that fails reports its line and
+	 * 	column in a program execution exception.
+	 *
+	 * @throws	UnsupportedOperationException
+	 * 			The given statement contains a statement or an expression
+	 * 			this compiler cannot translate.
+	 */
+	public ProgramCode compile(Statement main)
+			throws UnsupportedOperationException {
+		List<Instruction> instructions = Instruction.flatten(main);
+		final Step[] steps = new Step[instructions.size()];
+		final Statement[] statements = new Statement[steps.length];
+		for (int pc = 0; pc < steps.length; pc++) {
+			steps[pc] = compile(instructions.get(pc), pc);
+			statements[pc] = instructions.get(pc).getStatement();
+		}
+		return new ProgramCode() {
+			public int getSize() {
+				return steps.length;
+			}
+			public int run(int programCounter, int budget) {
+				int pc = programCounter;
+				try {
+					while ((pc < steps.length) && (budget > 0)) {
+						budget--;
+						int next = steps[pc].execute();
+						if (next == SUSPEND)
+							return pc;
+						pc = next;
+					}
+					return pc;
+				} catch (RuntimeException exc) {
+					throw new ProgramExecutionException(
+							statements[pc].getLine(), statements[pc].getCol(),
+							exc);
+				}
+			}
+		};
+	}
+
+	private Step compile(Instruction instruction, int pc)
+			throws UnsupportedOperationException {
+		final int next = pc + 1;
+		final int target = instruction.getTarget();
+		Statement statement = instruction.getStatement();
+		if (instruction.getOperation() == Instruction.Operation.JUMP) {
+			return new Step() {
+				public int execute() {
+					return target;
+				}
+			};
+		} else if (instruction.getOperation() == Instruction.Operation.BRANCH) {
+			final BooleanClosure condition = compileBoolean(
+					instruction.getCondition());
+			return new Step() {
+				public int execute() {
+					return condition.evaluate() ? next : target;
+				}
+			};
+		} else if (statement instanceof AssignmentStatement) {
+			return compileAssignment((AssignmentStatement) statement, next);
+		} else if (statement instanceof ActionStatement) {
+			return compileAction((ActionStatement) statement, next);
+		} else {
+			return compilePrint(statement.getExpression(), next);
+		}
+	}
+
+	private Step compileAssignment(AssignmentStatement assignment,
+			final int next) throws UnsupportedOperationException {
+		final int slot = assignment.getVariableSlot();
+		if (assignment.getVariableKind() == Kind.DOUBLE) {
+			final DoubleClosure value = compileDouble(
+					assignment.getExpression());
+			return new Step() {
+				public int execute() {
+					doubles[slot] = value.evaluate();
+					return next;
+				}
+			};
+		} else if (assignment.getVariableKind() == Kind.BOOLEAN) {
+			final BooleanClosure value = compileBoolean(
+					assignment.getExpression());
+			return new Step() {
+				public int execute() {
+					booleans[slot] = value.evaluate();
+					return next;
+				}
+			};
+		} else {
+			final EntityClosure value = compileEntity(
+					assignment.getExpression());
+			return new Step() {
+				public int execute() {
+					entities[slot] = value.evaluate();
+					return next;
+				}
+			};
+		}
+	}
+
+	/**
+	 * Return a step performing the given action, which suspends the program
+	 * if the action handler of the program does not perform it.
+	 */
+	private Step compileAction(ActionStatement statement, final int next)
+			throws UnsupportedOperationException {
+		final IActionHandler handler = program.getHandler();
+		switch (statement.getAction()) {
+		case TURN:
+			final DoubleClosure angle = compileDouble(
+					statement.getExpression());
+			return new Step() {
+				public int execute() {
+					return handler.turn(program.getWorm(), angle.evaluate())
+							? next : SUSPEND;
+				}
+			};
+		case FIRE:
+			final DoubleClosure propulsion = compileDouble(
+					statement.getExpression());
+			return new Step() {
+				public int execute() {
+					return handler.fire(program.getWorm(),
+							(int) propulsion.evaluate()) ? next : SUSPEND;
+				}
+			};
+		case MOVE:
+			return new Step() {
+				public int execute() {
+					return handler.move(program.getWorm()) ? next : SUSPEND;
+				}
+			};
+		case JUMP:
+			return new Step() {
+				public int execute() {
+					return handler.jump(program.getWorm()) ? next : SUSPEND;
+				}
+			};
+		case TOGGLEWEAP:
+			return new Step() {
+				public int execute() {
+					return handler.toggleWeapon(program.getWorm())
+							? next : SUSPEND;
+				}
+			};
+		default:
+			return new Step() {
+				public int execute() {
+					//do nothing (i.e. no action)
+					return next;
+				}
+			};
+		}
+	}
+
+	private Step compilePrint(Expression expression, final int next)
+			throws UnsupportedOperationException {
+		Kind kind = getKind(expression);
+		if (kind == Kind.DOUBLE) {
+			final DoubleClosure value = compileDouble(expression);
+			return new Step() {
+				public int execute() {
+					System.out.println(value.evaluate());
+					return next;
+				}
+			};
+		} else if (kind == Kind.BOOLEAN) {
+			final BooleanClosure value = compileBoolean(expression);
+			return new Step() {
+				public int execute() {
+					System.out.println(value.evaluate());
+					return next;
+				}
+			};
+		} else {
+			final EntityClosure value = compileEntity(expression);
+			return new Step() {
+				public int execute() {
+					System.out.println(value.evaluate());
+					return next;
+				}
+			};
+		}
+	}
+
+
+
+
+	//EXPRESSIONS
+	/**
+	 * Return the kind of the given expression.
+	 *
+	 * @throws	UnsupportedOperationException
+	 * 			The kind of the given expression is not known.
+	 */
+	private static Kind getKind(Expression expression)
+			throws UnsupportedOperationException {
+		if ((expression == null) || (expression.getKind() == null))
+			throw new UnsupportedOperationException(
+					"Cannot compile expression " + expression);
+		return expression.getKind();
+	}
+
+	private static UnsupportedOperationException unsupported(
+			Expression expression) {
+		return new UnsupportedOperationException(
+				"Cannot compile expression " + expression);
+	}
+
+	/**
+	 * Return a closure computing the value of the given expression as a
+	 * double.
+	 *
+	 * @throws	UnsupportedOperationException
+	 * 			The given expression is not of kind double, or contains an
+	 * 			expression this compiler cannot translate.
+	 */
+	public DoubleClosure compileDouble(Expression expression)
+			throws UnsupportedOperationException {
+		if (getKind(expression) != Kind.DOUBLE)
+			throw unsupported(expression);
+		if (expression instanceof DoubleConstantExpression) {
+			final double value = expression.evaluateDouble();
+			return new DoubleClosure() {
+				public double evaluate() {
+					return value;
+				}
+			};
+		} else if (expression instanceof VariableExpression) {
+			final int slot = ((VariableExpression) expression).getSlot();
+			return new DoubleClosure() {
+				public double evaluate() {
+					return doubles[slot];
+				}
+			};
+		} else if (expression instanceof ArithmeticOperation) {
+			ArithmeticOperation operation = (ArithmeticOperation) expression;
+			final DoubleClosure a = compileDouble(
+					operation.getFirstChildExpression());
+			final DoubleClosure b = compileDouble(
+					operation.getSecondChildExpression());
+			switch (operation.getOperation()) {
+			case ADDITION:
+				return new DoubleClosure() {
+					public double evaluate() {
+						return a.evaluate() + b.evaluate();
+					}
+				};
+			case SUBTRACTION:
+				return new DoubleClosure() {
+					public double evaluate() {
+						return a.evaluate() - b.evaluate();
+					}
+				};
+			case MULTIPLICATION:
+				return new DoubleClosure() {
+					public double evaluate() {
+						return a.evaluate() * b.evaluate();
+					}
+				};
+			default:
+				return new DoubleClosure() {
+					public double evaluate() {
+						return a.evaluate() / b.evaluate();
+					}
+				};
+			}
+		} else if (expression instanceof SubtractionExpression) {
+			SubtractionExpression operation = (SubtractionExpression) expression;
+			final DoubleClosure a = compileDouble(
+					operation.getFirstChildExpression());
+			final DoubleClosure b = compileDouble(
+					operation.getSecondChildExpression());
+			return new DoubleClosure() {
+				public double evaluate() {
+					return a.evaluate() - b.evaluate();
+				}
+			};
+		} else if (expression instanceof SquarerootExpression) {
+			final DoubleClosure a = compileDouble(
+					expression.getChildExpression());
+			return new DoubleClosure() {
+				public double evaluate() {
+					return Math.sqrt(a.evaluate());
+				}
+			};
+		} else if (expression instanceof Inspector) {
+			return compileInspector((Inspector) expression);
+		}
+		throw unsupported(expression);
+	}
+
+	private DoubleClosure compileInspector(Inspector inspector)
+			throws UnsupportedOperationException {
+		final EntityClosure worm = compileEntity(
+				inspector.getChildExpression());
+		switch (inspector.getType()) {
+		case X:
+			return new DoubleClosure() {
+				public double evaluate() {
+					return worm.evaluate().getX();
+				}
+			};
+		case Y:
+			return new DoubleClosure() {
+				public double evaluate() {
+					return worm.evaluate().getY();
+				}
+			};
+		case RADIUS:
+			return new DoubleClosure() {
+				public double evaluate() {
+					return worm.evaluate().getRadius();
+				}
+			};
+		case DIRECTION:
+			return new DoubleClosure() {
+				public double evaluate() {
+					return worm.evaluate().getDirection();
+				}
+			};
+		case AP:
+			return new DoubleClosure() {
+				public double evaluate() {
+					return worm.evaluate().getCurrentActionPoints();
+				}
+			};
+		case MAXAP:
+			return new DoubleClosure() {
+				public double evaluate() {
+					return worm.evaluate().getActionPointsMaximum();
+				}
+			};
+		case HP:
+			return new DoubleClosure() {
+				public double evaluate() {
+					return worm.evaluate().getCurrentHitPoints();
+				}
+			};
+		default:
+			return new DoubleClosure() {
+				public double evaluate() {
+					return worm.evaluate().getHitPointsMaximum();
+				}
+			};
+		}
+	}
+
+	/**
+	 * Return a closure computing the value of the given expression as a
+	 * boolean.
+	 *
+	 * @throws	UnsupportedOperationException
+	 * 			The given expression is not of kind boolean, or contains an
+	 * 			expression this compiler cannot translate.
+	 */
+	public BooleanClosure compileBoolean(Expression expression)
+			throws UnsupportedOperationException {
+		if (getKind(expression) != Kind.BOOLEAN)
+			throw unsupported(expression);
+		if (expression instanceof BoolExpression) {
+			final boolean value = expression.evaluateBoolean();
+			return new BooleanClosure() {
+				public boolean evaluate() {
+					return value;
+				}
+			};
+		} else if (expression instanceof VariableExpression) {
+			final int slot = ((VariableExpression) expression).getSlot();
+			return new BooleanClosure() {
+				public boolean evaluate() {
+					return booleans[slot];
+				}
+			};
+		} else if (expression instanceof ComparisonExpression) {
+			return compileComparison((ComparisonExpression) expression);
+		} else if (expression instanceof IsWormExpression) {
+			final EntityClosure entity = compileEntity(
+					expression.getChildExpression());
+			return new BooleanClosure() {
+				public boolean evaluate() {
+					return (entity.evaluate() instanceof Worm);
+				}
+			};
+		}
+		throw unsupported(expression);
+	}
+
+	private BooleanClosure compileComparison(ComparisonExpression comparison)
+			throws UnsupportedOperationException {
+		Expression first = comparison.getFirstChildExpression();
+		Expression second = comparison.getSecondChildExpression();
+		Relation relation = comparison.getRelation();
+		final boolean equal = (relation == Relation.EQUAL);
+		if ((relation == Relation.EQUAL) || (relation == Relation.NOTEQUAL)) {
+			if (comparison.getOperandKind() == Kind.BOOLEAN) {
+				final BooleanClosure a = compileBoolean(first);
+				final BooleanClosure b = compileBoolean(second);
+				return new BooleanClosure() {
+					public boolean evaluate() {
+						return (a.evaluate() == b.evaluate()) == equal;
+					}
+				};
+			} else if (comparison.getOperandKind() == Kind.ENTITY) {
+				final EntityClosure a = compileEntity(first);
+				final EntityClosure b = compileEntity(second);
+				return new BooleanClosure() {
+					public boolean evaluate() {
+						return (a.evaluate() == b.evaluate()) == equal;
+					}
+				};
+			}
+		}
+		final DoubleClosure a = compileDouble(first);
+		final DoubleClosure b = compileDouble(second);
+		switch (relation) {
+		case LESS:
+			return new BooleanClosure() {
+				public boolean evaluate() {
+					return a.evaluate() < b.evaluate();
+				}
+			};
+		case LESSOREQUAL:
+			return new BooleanClosure() {
+				public boolean evaluate() {
+					return a.evaluate() <= b.evaluate();
+				}
+			};
+		case GREATER:
+			return new BooleanClosure() {
+				public boolean evaluate() {
+					return a.evaluate() > b.evaluate();
+				}
+			};
+		case GREATEROREQUAL:
+			return new BooleanClosure() {
+				public boolean evaluate() {
+					return a.evaluate() >= b.evaluate();
+				}
+			};
+		case EQUAL:
+			return new BooleanClosure() {
+				public boolean evaluate() {
+					return a.evaluate() == b.evaluate();
+				}
+			};
+		default:
+			return new BooleanClosure() {
+				public boolean evaluate() {
+					return a.evaluate() != b.evaluate();
+				}
+			};
+		}
+	}
+
+	/**
+	 * Return a closure computing the value of the given expression as an
+	 * entity.
+	 *
+	 * @throws	UnsupportedOperationException
+	 * 			The given expression is not of kind entity, or contains an
+	 * 			expression this compiler cannot translate.
+	 */
+	public EntityClosure compileEntity(Expression expression)
+			throws UnsupportedOperationException {
+		if (getKind(expression) != Kind.ENTITY)
+			throw unsupported(expression);
+		if (expression instanceof NullExpression) {
+			return new EntityClosure() {
+				public Worm evaluate() {
+					return null;
+				}
+			};
+		} else if (expression instanceof VariableExpression) {
+			final int slot = ((VariableExpression) expression).getSlot();
+			return new EntityClosure() {
+				public Worm evaluate() {
+					return (Worm) entities[slot];
+				}
+			};
+		} else if (expression instanceof SelfExpression) {
+			return new EntityClosure() {
+				public Worm evaluate() {
+					return program.getWorm();
+				}
+			};
+		} else if (expression instanceof SearchObjectExpression) {
+			final DoubleClosure offset = compileDouble(
+					expression.getChildExpression());
+			return new EntityClosure() {
+				public Worm evaluate() {
+					Worm worm = program.getWorm();
+					return worm.getWorld().searchObject(worm,
+							offset.evaluate());
+				}
+			};
+		}
+		throw unsupported(expression);
+	}
+
+}
@@ -0,0 +1,64 @@
+package worms.model.programs.closures;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of exceptions signalling that a statement of a program failed
+ * while it was executed, involving the line and the column of that
+ * statement.
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+public class ProgramExecutionException extends RuntimeException {
+
+	/**
+	 * Initialize this new program execution exception for the statement at
+	 * the given line and column that failed with the given cause.
+	 *
+	 * @param 	line
+	 * 			The line of the statement that failed.
+	 * @param 	column
+	 * 			The column of the statement that failed.
+	 * @param 	cause
+	 * 			The exception with which the statement failed.
+	 * @post	...
+	 * 		  |	new.getLine() == line
+	 * @post	...
+	 * 		  |	new.getCol() == column
+	 * @post	...
+	 * 		  |	new.getCause() == cause
+	 */
+	public ProgramExecutionException(int line, int column, Throwable cause) {
+		super(line + "." + column + ": " + cause, cause);
+		this.line = line;
+		this.column = column;
+	}
+
+	/**
+	 * Return the line of the statement that failed.
+	 */
+	@Basic
+	@Immutable
+	public int getLine() {
+		return line;
+	}
+
+	private final int line;
+
+	/**
+	 * Return the column of the statement that failed.
+	 */
+	@Basic
+	@Immutable
+	public int getCol() {
+		return column;
+	}
+
+	private final int column;
+
+	private static final long serialVersionUID = 1L;
+
+}
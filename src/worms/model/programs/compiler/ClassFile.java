@@ -0,0 +1,224 @@
+package worms.model.programs.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A class of class files under construction, involving a name and the name
+ * of a super class.
+ * 	A class file collects the constant pool and the methods of a single
+ * 	public final class and assembles them in the binary format a class
+ * 	loader can define. Class files are written in version 49.0, so their
+ * 	methods need no stack map frames and are checked by the type-inferring
+ * 	verifier. Names are internal names, such as "java/lang/Object".
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+class ClassFile {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new class file for a class with the given name and the
+	 * given super class, without any methods.
+	 *
+	 * @param 	name
+	 * 			The internal name of the class.
+	 * @param 	superName
+	 * 			The internal name of the super class.
+	 */
+	ClassFile(String name, String superName) {
+		this.thisClass = getClassEntry(name);
+		this.superClass = getClassEntry(superName);
+	}
+
+	private final int thisClass;
+
+	private final int superClass;
+
+
+
+
+	//CONSTANT POOL
+	/**
+	 * Return the index of the constant pool entry holding the given string
+	 * in modified UTF-8, adding that entry if needed.
+	 */
+	int getUtf8Entry(String value) {
+		String key = "U" + value;
+		Integer index = entries.get(key);
+		if (index != null)
+			return index;
+		try {
+			pool.writeByte(1);
+			pool.writeUTF(value);
+		} catch (IOException exc) {
+			throw new UnsupportedOperationException(exc.toString());
+		}
+		return addEntry(key, 1);
+	}
+
+	/**
+	 * Return the index of the constant pool entry referring to the class with
+	 * the given internal name.
+	 */
+	int getClassEntry(String name) {
+		return getEntry("C" + name, 7, getUtf8Entry(name), -1);
+	}
+
+	/**
+	 * Return the index of the constant pool entry referring to the given
+	 * method of the given class.
+	 */
+	int getMethodEntry(String owner, String name, String descriptor) {
+		return getEntry("M" + owner + "." + name + descriptor, 10,
+				getClassEntry(owner), getNameAndTypeEntry(name, descriptor));
+	}
+
+	/**
+	 * Return the index of the constant pool entry referring to the given
+	 * field of the given class.
+	 */
+	int getFieldEntry(String owner, String name, String descriptor) {
+		return getEntry("F" + owner + "." + name + descriptor, 9,
+				getClassEntry(owner), getNameAndTypeEntry(name, descriptor));
+	}
+
+	private int getNameAndTypeEntry(String name, String descriptor) {
+		return getEntry("N" + name + ":" + descriptor, 12, getUtf8Entry(name),
+				getUtf8Entry(descriptor));
+	}
+
+	/**
+	 * Return the index of the constant pool entry holding the given double.
+	 * 	A double takes two entries of the constant pool.
+	 */
+	int getDoubleEntry(double value) {
+		String key = "D" + Double.doubleToRawLongBits(value);
+		Integer index = entries.get(key);
+		if (index != null)
+			return index;
+		try {
+			pool.writeByte(6);
+			pool.writeDouble(value);
+		} catch (IOException exc) {
+			throw new UnsupportedOperationException(exc.toString());
+		}
+		return addEntry(key, 2);
+	}
+
+	/**
+	 * Return the index of the entry with the given key, or add an entry with
+	 * the given tag and the given one or two references.
+	 */
+	private int getEntry(String key, int tag, int first, int second) {
+		Integer index = entries.get(key);
+		if (index != null)
+			return index;
+		try {
+			pool.writeByte(tag);
+			pool.writeShort(first);
+			if (second >= 0)
+				pool.writeShort(second);
+		} catch (IOException exc) {
+			throw new UnsupportedOperationException(exc.toString());
+		}
+		return addEntry(key, 1);
+	}
+
+	private int addEntry(String key, int size) {
+		int index = nbEntries;
+		nbEntries += size;
+		if (nbEntries > 0xFFFF)
+			throw new UnsupportedOperationException(
+					"Constant pool too large.");
+		entries.put(key, index);
+		return index;
+	}
+
+	/**
+	 * Variable registering the index of the next entry of the constant pool;
+	 * entry 0 is never used.
+	 */
+	private int nbEntries = 1;
+
+	private final Map<String, Integer> entries = new HashMap<String, Integer>();
+
+	private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+
+	private final DataOutputStream pool = new DataOutputStream(poolBytes);
+
+
+
+
+	//METHODS
+	/**
+	 * Add a public method with the given name, the given descriptor and the
+	 * given code to this class file.
+	 */
+	void addMethod(String name, String descriptor, Code code) {
+		try {
+			methods.writeShort(ACC_PUBLIC);
+			methods.writeShort(getUtf8Entry(name));
+			methods.writeShort(getUtf8Entry(descriptor));
+			methods.writeShort(1);
+			byte[] bytes = code.toByteArray();
+			methods.writeShort(getUtf8Entry("Code"));
+			methods.writeInt(12 + bytes.length + 8 * code.getNbHandlers());
+			methods.writeShort(code.getMaxStack());
+			methods.writeShort(code.getMaxLocals());
+			methods.writeInt(bytes.length);
+			methods.write(bytes);
+			methods.writeShort(code.getNbHandlers());
+			code.writeHandlers(methods);
+			methods.writeShort(0);
+		} catch (IOException exc) {
+			throw new UnsupportedOperationException(exc.toString());
+		}
+		nbMethods++;
+	}
+
+	private int nbMethods = 0;
+
+	private final ByteArrayOutputStream methodBytes =
+			new ByteArrayOutputStream();
+
+	private final DataOutputStream methods = new DataOutputStream(methodBytes);
+
+	/**
+	 * Return the bytes of this class file.
+	 */
+	byte[] toByteArray() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0);
+			out.writeShort(49);
+			out.writeShort(nbEntries);
+			poolBytes.writeTo(out);
+			out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+			out.writeShort(thisClass);
+			out.writeShort(superClass);
+			out.writeShort(0);
+			out.writeShort(0);
+			out.writeShort(nbMethods);
+			methodBytes.writeTo(out);
+			out.writeShort(0);
+		} catch (IOException exc) {
+			throw new UnsupportedOperationException(exc.toString());
+		}
+		return bytes.toByteArray();
+	}
+
+	private static final int ACC_PUBLIC = 0x0001;
+
+	private static final int ACC_FINAL = 0x0010;
+
+	private static final int ACC_SUPER = 0x0020;
+
+}
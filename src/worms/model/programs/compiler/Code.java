@@ -0,0 +1,418 @@
+package worms.model.programs.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class of method bodies under construction, involving a class file.
+ * 	Instructions are appended one at a time, each with the change it
+ * 	makes to the depth of the operand stack in words, so the code can
+ * 	report the largest depth it needs. Jumps refer to labels, which are
+ * 	resolved when the code is assembled.
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+class Code {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new code for a method of the given class file with the
+	 * given number of local variable slots.
+	 */
+	Code(ClassFile classFile, int maxLocals) {
+		this.classFile = classFile;
+		this.maxLocals = maxLocals;
+	}
+
+	private final ClassFile classFile;
+
+	/**
+	 * Return the number of local variable slots of this code.
+	 */
+	int getMaxLocals() {
+		return maxLocals;
+	}
+
+	private final int maxLocals;
+
+	/**
+	 * Return the largest depth of the operand stack reached by this code.
+	 */
+	int getMaxStack() {
+		return maxStack;
+	}
+
+	private int maxStack = 0;
+
+	/**
+	 * Return the depth of the operand stack at the current end of this code.
+	 */
+	int getStack() {
+		return stack;
+	}
+
+	private int stack = 0;
+
+	private void adjustStack(int change) {
+		stack += change;
+		if (stack > maxStack)
+			maxStack = stack;
+	}
+
+
+
+
+	//INSTRUCTIONS
+	/**
+	 * Append the instruction with the given opcode and no operands.
+	 */
+	void op(int opcode, int stackChange) {
+		bytes.write(opcode);
+		adjustStack(stackChange);
+	}
+
+	/**
+	 * Append an instruction pushing the given integer.
+	 */
+	void pushInt(int value) {
+		if ((value >= -1) && (value <= 5)) {
+			op(ICONST_0 + value, 1);
+		} else if ((value >= Byte.MIN_VALUE) && (value <= Byte.MAX_VALUE)) {
+			bytes.write(BIPUSH);
+			bytes.write(value);
+			adjustStack(1);
+		} else {
+			bytes.write(SIPUSH);
+			writeShort(value);
+			adjustStack(1);
+		}
+	}
+
+	/**
+	 * Append an instruction pushing the given double.
+	 */
+	void pushDouble(double value) {
+		if (Double.doubleToRawLongBits(value) == 0L) {
+			op(DCONST_0, 2);
+		} else if (value == 1) {
+			op(DCONST_1, 2);
+		} else {
+			bytes.write(LDC2_W);
+			writeShort(classFile.getDoubleEntry(value));
+			adjustStack(2);
+		}
+	}
+
+	/**
+	 * Append an instruction loading the reference in the given local
+	 * variable slot.
+	 */
+	void loadReference(int local) {
+		if (local <= 3) {
+			op(ALOAD_0 + local, 1);
+		} else {
+			bytes.write(ALOAD);
+			bytes.write(local);
+			adjustStack(1);
+		}
+	}
+
+	/**
+	 * Append an instruction storing a reference in the given local variable
+	 * slot.
+	 */
+	void storeReference(int local) {
+		if (local <= 3) {
+			op(ASTORE_0 + local, -1);
+		} else {
+			bytes.write(ASTORE);
+			bytes.write(local);
+			adjustStack(-1);
+		}
+	}
+
+	/**
+	 * Append an instruction loading the integer in the given local variable
+	 * slot.
+	 */
+	void loadInt(int local) {
+		if (local <= 3) {
+			op(ILOAD_0 + local, 1);
+		} else {
+			bytes.write(ILOAD);
+			bytes.write(local);
+			adjustStack(1);
+		}
+	}
+
+	/**
+	 * Append an instruction adding the given increment to the integer in the
+	 * given local variable slot.
+	 */
+	void increment(int local, int increment) {
+		bytes.write(IINC);
+		bytes.write(local);
+		bytes.write(increment);
+	}
+
+	/**
+	 * Append a field instruction with the given opcode for the given field.
+	 */
+	void field(int opcode, String owner, String name, String descriptor,
+			int stackChange) {
+		bytes.write(opcode);
+		writeShort(classFile.getFieldEntry(owner, name, descriptor));
+		adjustStack(stackChange);
+	}
+
+	/**
+	 * Append an invoke instruction with the given opcode for the given
+	 * method.
+	 */
+	void invoke(int opcode, String owner, String name, String descriptor,
+			int stackChange) {
+		bytes.write(opcode);
+		writeShort(classFile.getMethodEntry(owner, name, descriptor));
+		adjustStack(stackChange);
+	}
+
+	/**
+	 * Append a type instruction with the given opcode for the class with the
+	 * given internal name.
+	 */
+	void type(int opcode, String name, int stackChange) {
+		bytes.write(opcode);
+		writeShort(classFile.getClassEntry(name));
+		adjustStack(stackChange);
+	}
+
+
+
+
+	//LABELS
+	/**
+	 * A class of positions in code that jumps can refer to before they are
+	 * marked.
+	 */
+	static final class Label {
+
+		private int position = -1;
+
+		private final List<int[]> jumps = new ArrayList<int[]>();
+
+	}
+
+	/**
+	 * Return a new label of this code that is not yet marked.
+	 */
+	Label newLabel() {
+		Label label = new Label();
+		labels.add(label);
+		return label;
+	}
+
+	/**
+	 * Mark the given label at the current end of this code.
+	 * 	The depth of the operand stack at a label is the given depth; code
+	 * 	only reaches a label with the same depth from every jump.
+	 */
+	void mark(Label label, int stackDepth) {
+		label.position = bytes.size();
+		stack = stackDepth;
+	}
+
+	/**
+	 * Append a jump instruction with the given opcode to the given label.
+	 */
+	void jump(int opcode, Label label, int stackChange) {
+		int position = bytes.size();
+		bytes.write(opcode);
+		label.jumps.add(new int[] { position, position + 1, 2 });
+		writeShort(0);
+		adjustStack(stackChange);
+	}
+
+	/**
+	 * Append a table switch on the integer on top of the operand stack, which
+	 * jumps to the label at that index of the given labels, or to the given
+	 * default label if there is no such index.
+	 */
+	void tableSwitch(Label defaultLabel, Label[] labels) {
+		int position = bytes.size();
+		bytes.write(TABLESWITCH);
+		while (bytes.size() % 4 != 0) {
+			bytes.write(0);
+		}
+		defaultLabel.jumps.add(new int[] { position, bytes.size(), 4 });
+		writeInt(0);
+		writeInt(0);
+		writeInt(labels.length - 1);
+		for (Label label : labels) {
+			label.jumps.add(new int[] { position, bytes.size(), 4 });
+			writeInt(0);
+		}
+		adjustStack(-1);
+	}
+
+	private final List<Label> labels = new ArrayList<Label>();
+
+
+
+
+	//EXCEPTION HANDLERS
+	/**
+	 * Register that exceptions of the class with the given internal name,
+	 * thrown by the code from the given start label up to the given end
+	 * label, are handled by the code at the given handler label.
+	 * 	The operand stack at the handler label holds only the exception.
+	 */
+	void addHandler(Label start, Label end, Label handler, String type) {
+		handlers.add(new Handler(start, end, handler,
+				classFile.getClassEntry(type)));
+	}
+
+	/**
+	 * A class of entries of the exception table of code.
+	 */
+	private static final class Handler {
+
+		private Handler(Label start, Label end, Label handler, int type) {
+			this.labels = new Label[] { start, end, handler };
+			this.type = type;
+		}
+
+		private final Label[] labels;
+
+		private final int type;
+
+	}
+
+	/**
+	 * Return the number of exception handlers of this code.
+	 */
+	int getNbHandlers() {
+		return handlers.size();
+	}
+
+	/**
+	 * Write the exception table of this code to the given output.
+	 *
+	 * @throws	UnsupportedOperationException
+	 * 			A handler refers to a label that was never marked.
+	 */
+	void writeHandlers(DataOutputStream out)
+			throws IOException, UnsupportedOperationException {
+		for (Handler handler : handlers) {
+			for (Label label : handler.labels) {
+				if (label.position < 0)
+					throw new UnsupportedOperationException("Unmarked label.");
+				out.writeShort(label.position);
+			}
+			out.writeShort(handler.type);
+		}
+	}
+
+	private final List<Handler> handlers = new ArrayList<Handler>();
+
+	/**
+	 * Return the bytes of this code, with all jumps resolved.
+	 *
+	 * @throws	UnsupportedOperationException
+	 * 			A jump refers to a label that was never marked, or lies too
+	 * 			far from its label.
+	 */
+	byte[] toByteArray() throws UnsupportedOperationException {
+		byte[] result = bytes.toByteArray();
+		for (Label label : labels) {
+			if ((label.position < 0) && ! label.jumps.isEmpty())
+				throw new UnsupportedOperationException("Unmarked label.");
+			for (int[] jump : label.jumps) {
+				int offset = label.position - jump[0];
+				if ((jump[2] == 2) && ((offset < Short.MIN_VALUE)
+						|| (offset > Short.MAX_VALUE)))
+					throw new UnsupportedOperationException(
+							"Method too large.");
+				for (int i = 0; i < jump[2]; i++) {
+					result[jump[1] + i] =
+							(byte) (offset >> (8 * (jump[2] - 1 - i)));
+				}
+			}
+			label.jumps.clear();
+		}
+		if (result.length > 0xFFFF)
+			throw new UnsupportedOperationException("Method too large.");
+		return result;
+	}
+
+	private void writeShort(int value) {
+		bytes.write(value >> 8);
+		bytes.write(value);
+	}
+
+	private void writeInt(int value) {
+		writeShort(value >> 16);
+		writeShort(value);
+	}
+
+	private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+
+
+
+	//OPCODES
+	static final int ACONST_NULL = 0x01;
+	static final int ICONST_0 = 0x03;
+	static final int DCONST_0 = 0x0e;
+	static final int DCONST_1 = 0x0f;
+	static final int BIPUSH = 0x10;
+	static final int SIPUSH = 0x11;
+	static final int LDC2_W = 0x14;
+	static final int ILOAD = 0x15;
+	static final int ALOAD = 0x19;
+	static final int ILOAD_0 = 0x1a;
+	static final int ALOAD_0 = 0x2a;
+	static final int DALOAD = 0x31;
+	static final int AALOAD = 0x32;
+	static final int BALOAD = 0x33;
+	static final int ASTORE = 0x3a;
+	static final int ASTORE_0 = 0x4b;
+	static final int DASTORE = 0x52;
+	static final int AASTORE = 0x53;
+	static final int BASTORE = 0x54;
+	static final int SWAP = 0x5f;
+	static final int DADD = 0x63;
+	static final int DSUB = 0x67;
+	static final int DMUL = 0x6b;
+	static final int DDIV = 0x6f;
+	static final int IXOR = 0x82;
+	static final int IINC = 0x84;
+	static final int I2D = 0x87;
+	static final int DCMPL = 0x97;
+	static final int DCMPG = 0x98;
+	static final int IFEQ = 0x99;
+	static final int IFNE = 0x9a;
+	static final int IFLT = 0x9b;
+	static final int IFGE = 0x9c;
+	static final int IFGT = 0x9d;
+	static final int IFLE = 0x9e;
+	static final int IF_ICMPNE = 0xa0;
+	static final int IF_ACMPEQ = 0xa5;
+	static final int IF_ACMPNE = 0xa6;
+	static final int GOTO = 0xa7;
+	static final int TABLESWITCH = 0xaa;
+	static final int IRETURN = 0xac;
+	static final int RETURN = 0xb1;
+	static final int GETFIELD = 0xb4;
+	static final int INVOKEVIRTUAL = 0xb6;
+	static final int INVOKESPECIAL = 0xb7;
+	static final int INVOKESTATIC = 0xb8;
+	static final int ATHROW = 0xbf;
+	static final int CHECKCAST = 0xc0;
+	static final int INSTANCEOF = 0xc1;
+
+}
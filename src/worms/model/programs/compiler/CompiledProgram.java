@@ -0,0 +1,151 @@
+package worms.model.programs.compiler;
+
+import worms.model.Program;
+import worms.model.Worm;
+import worms.model.programs.ProgramCode;
+import worms.model.programs.closures.ProgramExecutionException;
+import worms.model.programs.statements.Statement;
+
+/**
+ * A class of compiled programs involving a program and the frames of its
+ * global variables.
+ * 	The class of each compiled program is generated by a program compiler
+ * 	and extends this class. The generated code reads and writes the
+ * 	global variables in the frames of its program directly, so the
+ * 	program sees the same values whether it is run compiled or
+ * 	interpreted. Actions, searches and printing go through the methods of
+ * 	this class, which the generated code calls on itself; an action that
+ * 	is not performed suspends the program at that action. A statement that
+ * 	fails reports its line and column in a program execution exception,
+ * 	as it does when the program runs as closures.
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+public abstract class CompiledProgram implements ProgramCode {
+
+	//CONSTRUCTORS
+	/**
+	 * Initialize this new compiled program for the given program with the
+	 * given frames.
+	 *
+	 * @param 	program
+	 * 			The program that is compiled.
+	 * @param 	doubles
+	 * 			The frame of the global variables of kind double.
+	 * @param 	booleans
+	 * 			The frame of the global variables of kind boolean.
+	 * @param 	entities
+	 * 			The frame of the global variables of kind entity.
+	 */
+	protected CompiledProgram(Program program, double[] doubles,
+			boolean[] booleans, Object[] entities) {
+		this.program = program;
+		this.doubles = doubles;
+		this.booleans = booleans;
+		this.entities = entities;
+	}
+
+	/**
+	 * Return the program of this compiled program.
+	 */
+	public final Program getProgram() {
+		return program;
+	}
+
+	private final Program program;
+
+	protected final double[] doubles;
+
+	protected final boolean[] booleans;
+
+	protected final Object[] entities;
+
+	/**
+	 * Register the statements of the instructions of the program of this
+	 * compiled program, indexed by program counter.
+	 */
+	void setStatements(Statement[] statements) {
+		this.statements = statements;
+	}
+
+	private Statement[] statements = new Statement[0];
+
+	/**
+	 * Return the failure to throw for the given exception, thrown by the
+	 * instruction at the given program counter.
+	 *
+	 * @return	An exception reporting the line and the column of the
+	 * 			statement of that instruction, with the given exception as
+	 * 			its cause.
+	 * 		  |	let
+	 * 		  |		statement = statements[programCounter]
+	 * 		  |	in
+	 * 		  |		result.getLine() == statement.getLine()
+	 * 		  |		&& result.getCol() == statement.getCol()
+	 * 		  |		&& result.getCause() == exception
+	 */
+	protected final ProgramExecutionException failure(
+			RuntimeException exception, int programCounter) {
+		if ((programCounter < 0) || (programCounter >= statements.length))
+			return new ProgramExecutionException(0, 0, exception);
+		Statement statement = statements[programCounter];
+		return new ProgramExecutionException(statement.getLine(),
+				statement.getCol(), exception);
+	}
+
+
+
+
+
+	//OPERATIONS
+	/**
+	 * Return the worm that executes the program of this compiled program.
+	 */
+	public final Worm getWorm() {
+		return program.getWorm();
+	}
+
+	public final boolean turn(double angle) {
+		return program.getHandler().turn(getWorm(), angle);
+	}
+
+	public final boolean move() {
+		return program.getHandler().move(getWorm());
+	}
+
+	public final boolean jump() {
+		return program.getHandler().jump(getWorm());
+	}
+
+	public final boolean toggleWeapon() {
+		return program.getHandler().toggleWeapon(getWorm());
+	}
+
+	public final boolean fire(double propulsion) {
+		return program.getHandler().fire(getWorm(), (int) propulsion);
+	}
+
+	/**
+	 * Return the first worm in the direction of the worm executing the
+	 * program of this compiled program turned by the given offset.
+	 */
+	public final Worm searchObject(double offset) {
+		Worm worm = getWorm();
+		return worm.getWorld().searchObject(worm, offset);
+	}
+
+	public final void print(double value) {
+		System.out.println(value);
+	}
+
+	public final void print(boolean value) {
+		System.out.println(value);
+	}
+
+	public final void print(Object value) {
+		System.out.println(value);
+	}
+
+}
@@ -0,0 +1,555 @@
+package worms.model.programs.compiler;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+
+import worms.model.Program;
+import worms.model.Program.Kind;
+import worms.model.programs.expressions.ArithmeticOperation;
+import worms.model.programs.expressions.BoolExpression;
+import worms.model.programs.expressions.ComparisonExpression;
+import worms.model.programs.expressions.DoubleConstantExpression;
+import worms.model.programs.expressions.Expression;
+import worms.model.programs.expressions.Inspector;
+import worms.model.programs.expressions.IsWormExpression;
+import worms.model.programs.expressions.NullExpression;
+import worms.model.programs.expressions.SearchObjectExpression;
+import worms.model.programs.expressions.SelfExpression;
+import worms.model.programs.expressions.SquarerootExpression;
+import worms.model.programs.expressions.SubtractionExpression;
+import worms.model.programs.expressions.VariableExpression;
+import worms.model.programs.expressions.ComparisonExpression.Relation;
+import worms.model.programs.statements.ActionStatement;
+import worms.model.programs.statements.AssignmentStatement;
+import worms.model.programs.statements.Instruction;
+import worms.model.programs.statements.Statement;
+import worms.model.programs.statements.ActionStatement.Action;
+import static worms.model.programs.compiler.Code.*;
+
+/**
+ * A class of program compilers.
+ * 	A program compiler translates the linked main statement of a program
+ * 	into the bytecode of a class extending CompiledProgram. The main
+ * 	statement is flattened into instructions, so loops and conditions
+ * 	become jumps, and the generated code can resume at any instruction.
+ * 	Arithmetic and comparisons work on primitive values on the operand
+ * 	stack, and global variables are loaded from and
+ * 	stored in the frames of the program, which the generated code keeps
+ * 	in local variables. Each compiled program is defined by a class loader
+ * 	of its own, so its class is unloaded together with the program.
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+public class ProgramCompiler {
+
+	/**
+	 * Return a compiled program for the given program with the given linked
+	 * main statement and the given frames.
+	 *
+	 * @param 	main
+	 * 			The linked main statement of the program.
+	 * @param 	program
+	 * 			The program to compile.
+	 * @param 	doubles
+	 * 			The frame of the global variables of kind double.
+	 * @param 	booleans
+	 * 			The frame of the global variables of kind boolean.
+	 * @param 	entities
+	 * 			The frame of the global variables of kind entity.
+	 * @return	...
+	 * 		  |	result.getProgram() == program
+	 * @throws	UnsupportedOperationException
+	 * 			The main statement contains a statement or an expression the
+	 * 			compiler cannot translate, or the generated code is too large.
+	 * @throws	IllegalStateException
+	 * 			The generated class cannot be instantiated.
+	 */
+	public CompiledProgram compile(Statement main, Program program,
+			double[] doubles, boolean[] booleans, Object[] entities)
+			throws UnsupportedOperationException, IllegalStateException {
+		List<Instruction> instructions = Instruction.flatten(main);
+		byte[] bytes = generate(instructions);
+		Class<?> generated = new ProgramLoader().define(bytes);
+		CompiledProgram result;
+		try {
+			Constructor<?> constructor = generated.getConstructor(
+					Program.class, double[].class, boolean[].class,
+					Object[].class);
+			result = (CompiledProgram) constructor.newInstance(program,
+					doubles, booleans, entities);
+		} catch (ReflectiveOperationException exc) {
+			throw new IllegalStateException(exc);
+		}
+		Statement[] statements = new Statement[instructions.size()];
+		for (int pc = 0; pc < statements.length; pc++) {
+			statements[pc] = instructions.get(pc).getStatement();
+		}
+		result.setStatements(statements);
+		return result;
+	}
+
+	/**
+	 * Return the bytes of the class file of the compiled program for the
+	 * given main statement.
+	 * 	The generated run method starts with a table switch on the program
+	 * 	counter to the code of each instruction of the flattened main
+	 * 	statement. The code of each instruction first spends one unit of
+	 * 	the budget, and returns its own number when the budget is spent.
+	 * 	A runtime exception thrown by the code of an instruction is caught
+	 * 	by a handler of that instruction, which throws the failure that the
+	 * 	compiled program reports for its number.
+	 */
+	byte[] generate(Statement main) throws UnsupportedOperationException {
+		return generate(Instruction.flatten(main));
+	}
+
+	private byte[] generate(List<Instruction> instructions)
+			throws UnsupportedOperationException {
+		int size = instructions.size();
+		ClassFile classFile = new ClassFile(GENERATED, COMPILED_PROGRAM);
+		Code constructor = new Code(classFile, 5);
+		for (int local = 0; local < 5; local++) {
+			constructor.loadReference(local);
+		}
+		constructor.invoke(INVOKESPECIAL, COMPILED_PROGRAM, "<init>",
+				CONSTRUCTOR, -5);
+		constructor.op(RETURN, 0);
+		classFile.addMethod("<init>", CONSTRUCTOR, constructor);
+		Code getSize = new Code(classFile, 1);
+		getSize.pushInt(size);
+		getSize.op(IRETURN, -1);
+		classFile.addMethod("getSize", "()I", getSize);
+		Code run = new Code(classFile, 6);
+		loadFrame(run, "doubles", "[D", DOUBLES);
+		loadFrame(run, "booleans", "[Z", BOOLEANS);
+		loadFrame(run, "entities", "[Ljava/lang/Object;", ENTITIES);
+		Code.Label[] labels = new Code.Label[size + 1];
+		for (int pc = 0; pc <= size; pc++) {
+			labels[pc] = run.newLabel();
+		}
+		if (size > 0) {
+			run.loadInt(PROGRAM_COUNTER);
+			Code.Label[] starts = new Code.Label[size];
+			System.arraycopy(labels, 0, starts, 0, size);
+			run.tableSwitch(labels[size], starts);
+		}
+		for (int pc = 0; pc < size; pc++) {
+			run.mark(labels[pc], 0);
+			Code.Label go = run.newLabel();
+			run.increment(BUDGET, -1);
+			run.loadInt(BUDGET);
+			run.jump(IFGE, go, -1);
+			suspend(run, pc);
+			run.mark(go, 0);
+			compileInstruction(run, instructions.get(pc), pc, labels);
+		}
+		run.mark(labels[size], 0);
+		run.pushInt(size);
+		run.op(IRETURN, -1);
+		for (int pc = 0; pc < size; pc++) {
+			if (instructions.get(pc).getOperation()
+					!= Instruction.Operation.JUMP) {
+				Code.Label handler = run.newLabel();
+				run.addHandler(labels[pc], labels[pc + 1], handler,
+						RUNTIME_EXCEPTION);
+				run.mark(handler, 1);
+				run.loadReference(THIS);
+				run.op(SWAP, 0);
+				run.pushInt(pc);
+				run.invoke(INVOKEVIRTUAL, COMPILED_PROGRAM, "failure",
+						FAILURE, -2);
+				run.op(ATHROW, -1);
+			}
+		}
+		classFile.addMethod("run", "(II)I", run);
+		return classFile.toByteArray();
+	}
+
+	private static void loadFrame(Code code, String name, String descriptor,
+			int local) {
+		code.loadReference(THIS);
+		code.field(GETFIELD, COMPILED_PROGRAM, name, descriptor, 0);
+		code.storeReference(local);
+	}
+
+	/**
+	 * Append code returning the given program counter from the run method.
+	 */
+	private static void suspend(Code code, int pc) {
+		code.pushInt(pc);
+		code.op(IRETURN, -1);
+	}
+
+
+
+
+	//STATEMENTS
+	private void compileInstruction(Code code, Instruction instruction,
+			int pc, Code.Label[] labels) throws UnsupportedOperationException {
+		Statement statement = instruction.getStatement();
+		if (instruction.getOperation() == Instruction.Operation.JUMP) {
+			code.jump(GOTO, labels[instruction.getTarget()], 0);
+		} else if (instruction.getOperation() == Instruction.Operation.BRANCH) {
+			compileBoolean(code, instruction.getCondition());
+			code.jump(IFEQ, labels[instruction.getTarget()], -1);
+		} else if (statement instanceof AssignmentStatement) {
+			compileAssignment(code, (AssignmentStatement) statement);
+		} else if (statement instanceof ActionStatement) {
+			compileAction(code, (ActionStatement) statement, pc,
+					labels[pc + 1]);
+		} else {
+			compilePrint(code, statement.getExpression());
+		}
+	}
+
+	private void compileAssignment(Code code, AssignmentStatement assignment)
+			throws UnsupportedOperationException {
+		Kind kind = assignment.getVariableKind();
+		if (kind == Kind.DOUBLE) {
+			code.loadReference(DOUBLES);
+			code.pushInt(assignment.getVariableSlot());
+			compileDouble(code, assignment.getExpression());
+			code.op(DASTORE, -4);
+		} else if (kind == Kind.BOOLEAN) {
+			code.loadReference(BOOLEANS);
+			code.pushInt(assignment.getVariableSlot());
+			compileBoolean(code, assignment.getExpression());
+			code.op(BASTORE, -3);
+		} else {
+			code.loadReference(ENTITIES);
+			code.pushInt(assignment.getVariableSlot());
+			compileEntity(code, assignment.getExpression());
+			code.op(AASTORE, -3);
+		}
+	}
+
+	/**
+	 * Append code performing the given action, which suspends the program
+	 * at the given program counter if the action is not performed, and
+	 * continues at the given label otherwise.
+	 */
+	private void compileAction(Code code, ActionStatement statement, int pc,
+			Code.Label next) throws UnsupportedOperationException {
+		Action action = statement.getAction();
+		if (action == Action.SKIP)
+			return;
+		code.loadReference(THIS);
+		if (action == Action.TURN) {
+			compileDouble(code, statement.getExpression());
+			code.invoke(INVOKEVIRTUAL, COMPILED_PROGRAM, "turn", "(D)Z", -2);
+		} else if (action == Action.FIRE) {
+			compileDouble(code, statement.getExpression());
+			code.invoke(INVOKEVIRTUAL, COMPILED_PROGRAM, "fire", "(D)Z", -2);
+		} else if (action == Action.MOVE) {
+			code.invoke(INVOKEVIRTUAL, COMPILED_PROGRAM, "move", "()Z", 0);
+		} else if (action == Action.JUMP) {
+			code.invoke(INVOKEVIRTUAL, COMPILED_PROGRAM, "jump", "()Z", 0);
+		} else {
+			code.invoke(INVOKEVIRTUAL, COMPILED_PROGRAM, "toggleWeapon",
+					"()Z", 0);
+		}
+		code.jump(IFNE, next, -1);
+		suspend(code, pc);
+	}
+
+	private void compilePrint(Code code, Expression expression)
+			throws UnsupportedOperationException {
+		code.loadReference(THIS);
+		if (getKind(expression) == Kind.DOUBLE) {
+			compileDouble(code, expression);
+			code.invoke(INVOKEVIRTUAL, COMPILED_PROGRAM, "print", "(D)V", -3);
+		} else if (getKind(expression) == Kind.BOOLEAN) {
+			compileBoolean(code, expression);
+			code.invoke(INVOKEVIRTUAL, COMPILED_PROGRAM, "print", "(Z)V", -2);
+		} else {
+			compileEntity(code, expression);
+			code.invoke(INVOKEVIRTUAL, COMPILED_PROGRAM, "print",
+					"(Ljava/lang/Object;)V", -2);
+		}
+	}
+
+
+
+
+	//EXPRESSIONS
+	/**
+	 * Return the kind of the given expression.
+	 *
+	 * @throws	UnsupportedOperationException
+	 * 			The kind of the given expression is not known.
+	 */
+	private static Kind getKind(Expression expression)
+			throws UnsupportedOperationException {
+		if ((expression == null) || (expression.getKind() == null))
+			throw new UnsupportedOperationException(
+					"Cannot compile expression " + expression);
+		return expression.getKind();
+	}
+
+	/**
+	 * Append code pushing the value of the given expression as a double.
+	 */
+	private void compileDouble(Code code, Expression expression)
+			throws UnsupportedOperationException {
+		if (getKind(expression) != Kind.DOUBLE)
+			throw new UnsupportedOperationException(
+					"Cannot compile expression " + expression);
+		if (expression instanceof DoubleConstantExpression) {
+			code.pushDouble(expression.evaluateDouble());
+		} else if (expression instanceof VariableExpression) {
+			code.loadReference(DOUBLES);
+			code.pushInt(((VariableExpression) expression).getSlot());
+			code.op(DALOAD, 0);
+		} else if (expression instanceof ArithmeticOperation) {
+			ArithmeticOperation operation = (ArithmeticOperation) expression;
+			compileDouble(code, operation.getFirstChildExpression());
+			compileDouble(code, operation.getSecondChildExpression());
+			switch (operation.getOperation()) {
+			case ADDITION:
+				code.op(DADD, -2);
+				break;
+			case SUBTRACTION:
+				code.op(DSUB, -2);
+				break;
+			case MULTIPLICATION:
+				code.op(DMUL, -2);
+				break;
+			default:
+				code.op(DDIV, -2);
+			}
+		} else if (expression instanceof SubtractionExpression) {
+			SubtractionExpression operation = (SubtractionExpression) expression;
+			compileDouble(code, operation.getFirstChildExpression());
+			compileDouble(code, operation.getSecondChildExpression());
+			code.op(DSUB, -2);
+		} else if (expression instanceof SquarerootExpression) {
+			compileDouble(code, expression.getChildExpression());
+			code.invoke(INVOKESTATIC, "java/lang/Math", "sqrt", "(D)D", 0);
+		} else if (expression instanceof Inspector) {
+			compileInspector(code, (Inspector) expression);
+		} else {
+			throw new UnsupportedOperationException(
+					"Cannot compile expression " + expression);
+		}
+	}
+
+	private void compileInspector(Code code, Inspector inspector)
+			throws UnsupportedOperationException {
+		compileEntity(code, inspector.getChildExpression());
+		switch (inspector.getType()) {
+		case X:
+			code.invoke(INVOKEVIRTUAL, WORM, "getX", "()D", 1);
+			break;
+		case Y:
+			code.invoke(INVOKEVIRTUAL, WORM, "getY", "()D", 1);
+			break;
+		case RADIUS:
+			code.invoke(INVOKEVIRTUAL, WORM, "getRadius", "()D", 1);
+			break;
+		case DIRECTION:
+			code.invoke(INVOKEVIRTUAL, WORM, "getDirection", "()D", 1);
+			break;
+		case AP:
+			code.invoke(INVOKEVIRTUAL, WORM, "getCurrentActionPoints", "()I",
+					0);
+			code.op(I2D, 1);
+			break;
+		case MAXAP:
+			code.invoke(INVOKEVIRTUAL, WORM, "getActionPointsMaximum", "()I",
+					0);
+			code.op(I2D, 1);
+			break;
+		case HP:
+			code.invoke(INVOKEVIRTUAL, WORM, "getCurrentHitPoints", "()I", 0);
+			code.op(I2D, 1);
+			break;
+		default:
+			code.invoke(INVOKEVIRTUAL, WORM, "getHitPointsMaximum", "()I", 0);
+			code.op(I2D, 1);
+		}
+	}
+
+	/**
+	 * Append code pushing the value of the given expression as a boolean.
+	 */
+	private void compileBoolean(Code code, Expression expression)
+			throws UnsupportedOperationException {
+		if (getKind(expression) != Kind.BOOLEAN)
+			throw new UnsupportedOperationException(
+					"Cannot compile expression " + expression);
+		if (expression instanceof BoolExpression) {
+			code.pushInt(expression.evaluateBoolean() ? 1 : 0);
+		} else if (expression instanceof VariableExpression) {
+			code.loadReference(BOOLEANS);
+			code.pushInt(((VariableExpression) expression).getSlot());
+			code.op(BALOAD, -1);
+		} else if (expression instanceof ComparisonExpression) {
+			compileComparison(code, (ComparisonExpression) expression);
+		} else if (expression instanceof IsWormExpression) {
+			compileEntity(code, expression.getChildExpression());
+			code.type(INSTANCEOF, WORM, 0);
+		} else {
+			throw new UnsupportedOperationException(
+					"Cannot compile expression " + expression);
+		}
+	}
+
+	/**
+	 * Append code pushing 1 if the given comparison holds and 0 otherwise.
+	 * 	Each relation jumps to the false branch on the negated test; NaN
+	 * 	makes every relation but != false, as in the interpreter.
+	 */
+	private void compileComparison(Code code, ComparisonExpression comparison)
+			throws UnsupportedOperationException {
+		Expression first = comparison.getFirstChildExpression();
+		Expression second = comparison.getSecondChildExpression();
+		Relation relation = comparison.getRelation();
+		Code.Label isFalse = code.newLabel();
+		Code.Label end = code.newLabel();
+		Kind kind = comparison.getOperandKind();
+		if ((relation == Relation.EQUAL) || (relation == Relation.NOTEQUAL)) {
+			int jump = (relation == Relation.EQUAL) ? IFNE : IFEQ;
+			if (kind == Kind.DOUBLE) {
+				compileDouble(code, first);
+				compileDouble(code, second);
+				code.op(DCMPL, -3);
+				code.jump(jump, isFalse, -1);
+			} else if (kind == Kind.BOOLEAN) {
+				compileBoolean(code, first);
+				compileBoolean(code, second);
+				if (relation == Relation.EQUAL) {
+					code.jump(IF_ICMPNE, isFalse, -2);
+				} else {
+					// a != b for booleans is a ^ b
+					code.op(IXOR, -1);
+					code.jump(IFEQ, isFalse, -1);
+				}
+			} else {
+				compileEntity(code, first);
+				compileEntity(code, second);
+				if (relation == Relation.EQUAL) {
+					code.jump(IF_ACMPNE, isFalse, -2);
+				} else {
+					code.jump(IF_ACMPEQ, isFalse, -2);
+				}
+			}
+		} else {
+			compileDouble(code, first);
+			compileDouble(code, second);
+			switch (relation) {
+			case LESS:
+				code.op(DCMPG, -3);
+				code.jump(IFGE, isFalse, -1);
+				break;
+			case LESSOREQUAL:
+				code.op(DCMPG, -3);
+				code.jump(IFGT, isFalse, -1);
+				break;
+			case GREATER:
+				code.op(DCMPL, -3);
+				code.jump(IFLE, isFalse, -1);
+				break;
+			default:
+				code.op(DCMPL, -3);
+				code.jump(IFLT, isFalse, -1);
+			}
+		}
+		code.pushInt(1);
+		code.jump(GOTO, end, 0);
+		code.mark(isFalse, code.getStack() - 1);
+		code.pushInt(0);
+		code.mark(end, code.getStack());
+	}
+
+	/**
+	 * Append code pushing the value of the given expression as an entity.
+	 */
+	private void compileEntity(Code code, Expression expression)
+			throws UnsupportedOperationException {
+		if (getKind(expression) != Kind.ENTITY)
+			throw new UnsupportedOperationException(
+					"Cannot compile expression " + expression);
+		if (expression instanceof NullExpression) {
+			code.op(ACONST_NULL, 1);
+		} else if (expression instanceof VariableExpression) {
+			code.loadReference(ENTITIES);
+			code.pushInt(((VariableExpression) expression).getSlot());
+			code.op(AALOAD, -1);
+			code.type(CHECKCAST, WORM, 0);
+		} else if (expression instanceof SelfExpression) {
+			code.loadReference(THIS);
+			code.invoke(INVOKEVIRTUAL, COMPILED_PROGRAM, "getWorm",
+					"()L" + WORM + ";", 0);
+		} else if (expression instanceof SearchObjectExpression) {
+			code.loadReference(THIS);
+			compileDouble(code, expression.getChildExpression());
+			code.invoke(INVOKEVIRTUAL, COMPILED_PROGRAM, "searchObject",
+					"(D)L" + WORM + ";", -2);
+		} else {
+			throw new UnsupportedOperationException(
+					"Cannot compile expression " + expression);
+		}
+	}
+
+
+
+
+	//CLASSES
+	/**
+	 * A class of class loaders that each define the class of a single
+	 * compiled program.
+	 */
+	private static class ProgramLoader extends ClassLoader {
+
+		private ProgramLoader() {
+			super(CompiledProgram.class.getClassLoader());
+		}
+
+		private Class<?> define(byte[] bytes) {
+			return defineClass(GENERATED.replace('/', '.'), bytes, 0,
+					bytes.length);
+		}
+
+	}
+
+	/**
+	 * Variables registering the internal names of the classes the generated
+	 * code refers to, and the descriptor of the constructor of compiled
+	 * programs.
+	 */
+	private static final String GENERATED =
+			"worms/model/programs/compiler/GeneratedProgram";
+
+	private static final String COMPILED_PROGRAM =
+			"worms/model/programs/compiler/CompiledProgram";
+
+	private static final String WORM = "worms/model/Worm";
+
+	private static final String RUNTIME_EXCEPTION =
+			"java/lang/RuntimeException";
+
+	private static final String FAILURE = "(Ljava/lang/RuntimeException;I)"
+			+ "Lworms/model/programs/closures/ProgramExecutionException;";
+
+	private static final String CONSTRUCTOR = "(Lworms/model/Program;[D[Z"
+			+ "[Ljava/lang/Object;)V";
+
+	/**
+	 * Variables registering the local variable slots of the generated run
+	 * method.
+	 */
+	private static final int THIS = 0;
+
+	private static final int PROGRAM_COUNTER = 1;
+
+	private static final int BUDGET = 2;
+
+	private static final int DOUBLES = 3;
+
+	private static final int BOOLEANS = 4;
+
+	private static final int ENTITIES = 5;
+
+}
@@ -1,5 +1,6 @@
 package worms.model.programs.expressions;
 
+import worms.model.Program.Kind;
 import worms.model.programs.types.DoubleType;
 
 public class ArithmeticOperation extends BinaryExpression {
@@ -14,7 +15,7 @@ public class ArithmeticOperation extends BinaryExpression {
 		this.operation = operation;
 	}
 	
-	private Operation getOperation() {
+	public Operation getOperation() {
 		return operation;
 	}
 	
@@ -22,21 +23,27 @@ public class ArithmeticOperation extends BinaryExpression {
 
 	@Override
 	public DoubleType evaluate() {
-		double result;
-		double a = (Double) getFirstChildExpression().evaluate().getValue();
-		double b = (Double) getSecondChildExpression().evaluate().getValue();
+		return new DoubleType(evaluateDouble());
+	}
+	
+	@Override
+	public double evaluateDouble() {
+		double a = getFirstChildExpression().evaluateDouble();
+		double b = getSecondChildExpression().evaluateDouble();
 		if (getOperation() == Operation.ADDITION) {
-			result = a + b;
+			return a + b;
 		} else if (getOperation() == Operation.SUBTRACTION) {
-			result = a - b;
+			return a - b;
 		} else if (getOperation() == Operation.MULTIPLICATION) {
-			result = a * b;
-		} else if (getOperation() == Operation.DIVISION) {
-			result = a / b;
+			return a * b;
 		} else {
-			return null;
+			return a / b;
 		}
-		return new DoubleType(result);
+	}
+	
+	@Override
+	public Kind getKind() {
+		return Kind.DOUBLE;
 	}
 
 }
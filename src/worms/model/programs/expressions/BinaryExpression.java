@@ -1,5 +1,6 @@
 package worms.model.programs.expressions;
 
+import worms.model.Program;
 import worms.model.programs.types.Type;
 
 public abstract class BinaryExpression extends Expression {
@@ -29,6 +30,12 @@ public abstract class BinaryExpression extends Expression {
 	
 	private Expression secondExpression;
 	
+	@Override
+	public void link(Program program) throws IllegalArgumentException {
+		super.link(program);
+		getSecondChildExpression().link(program);
+	}
+	
 	public abstract Type<?> evaluate();
 
 }
@@ -1,5 +1,6 @@
 package worms.model.programs.expressions;
 
+import worms.model.Program.Kind;
 import worms.model.programs.types.BoolType;
 
 public class BoolExpression extends Expression {
@@ -14,10 +15,23 @@ public class BoolExpression extends Expression {
 		return value;
 	}
 	
+	@Override
+	public boolean evaluateBoolean() {
+		return booleanValue;
+	}
+	
+	@Override
+	public Kind getKind() {
+		return Kind.BOOLEAN;
+	}
+	
 	private void setValue(boolean value) {
 		this.value = new BoolType(value);
+		this.booleanValue = value;
 	}
 	
 	private BoolType value;
+	
+	private boolean booleanValue;
 
 }
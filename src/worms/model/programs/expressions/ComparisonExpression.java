@@ -1,5 +1,7 @@
 package worms.model.programs.expressions;
 
+import worms.model.Program;
+import worms.model.Program.Kind;
 import worms.model.programs.types.BoolType;
 
 public class ComparisonExpression extends BinaryExpression {
@@ -18,33 +20,83 @@ public class ComparisonExpression extends BinaryExpression {
 		this.relation = relation;
 	}
 	
-	private Relation getRelation() {
+	public Relation getRelation() {
 		return relation;
 	}
 	
 	private final Relation relation;
 
+	/**
+	 * Link this expression to the given program and determine from the kinds
+	 * of its operands how they are compared.
+	 * 	Operands that are both numbers or both booleans are compared by
+	 * 	value, entities by identity.
+	 */
+	@Override
+	public void link(Program program) throws IllegalArgumentException {
+		super.link(program);
+		Kind kind = getFirstChildExpression().getKind();
+		if (kind == null) {
+			kind = getSecondChildExpression().getKind();
+		}
+		if ((kind == null) || ((getRelation() != Relation.EQUAL)
+				&& (getRelation() != Relation.NOTEQUAL))) {
+			kind = Kind.DOUBLE;
+		}
+		operandKind = kind;
+	}
+	
+	/**
+	 * Return the kind of the operands of this expression as determined when
+	 * it was linked.
+	 */
+	public Kind getOperandKind() {
+		return operandKind;
+	}
+	
+	private Kind operandKind = Kind.DOUBLE;
+
 	@Override
 	public BoolType evaluate() {
-		boolean result;
-		Object a = getFirstChildExpression().evaluate().getValue();;
-		Object b = getSecondChildExpression().evaluate().getValue();
+		return new BoolType(evaluateBoolean());
+	}
+	
+	@Override
+	public boolean evaluateBoolean() {
+		if (getRelation() == Relation.EQUAL) {
+			return isEqual();
+		} else if (getRelation() == Relation.NOTEQUAL) {
+			return ! isEqual();
+		}
+		double a = getFirstChildExpression().evaluateDouble();
+		double b = getSecondChildExpression().evaluateDouble();
 		if (getRelation() == Relation.LESS) {
-			result = (Double) a < (Double) b;
+			return a < b;
 		} else if (getRelation() == Relation.LESSOREQUAL) {
-			result = (Double) a <= (Double) b;
+			return a <= b;
 		} else if (getRelation() == Relation.GREATER) {
-			result = (Double) a > (Double) b;
-		} else if (getRelation() == Relation.GREATEROREQUAL) {
-			result = (Double) a >= (Double) b;
-		} else if (getRelation() == Relation.EQUAL) {
-			result =  a == b;
-		} else if (getRelation() == Relation.NOTEQUAL) {
-			result = a != b;
+			return a > b;
+		} else {
+			return a >= b;
+		}
+	}
+	
+	private boolean isEqual() {
+		if (operandKind == Kind.DOUBLE) {
+			return getFirstChildExpression().evaluateDouble()
+					== getSecondChildExpression().evaluateDouble();
+		} else if (operandKind == Kind.BOOLEAN) {
+			return getFirstChildExpression().evaluateBoolean()
+					== getSecondChildExpression().evaluateBoolean();
 		} else {
-			return null;
+			return getFirstChildExpression().evaluateEntity()
+					== getSecondChildExpression().evaluateEntity();
 		}
-		return new BoolType(result);
+	}
+	
+	@Override
+	public Kind getKind() {
+		return Kind.BOOLEAN;
 	}
 
 }
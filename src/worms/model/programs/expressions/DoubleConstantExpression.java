@@ -1,5 +1,6 @@
 package worms.model.programs.expressions;
 
+import worms.model.Program.Kind;
 import worms.model.programs.types.DoubleType;
 
 public class DoubleConstantExpression extends Expression{
@@ -14,11 +15,24 @@ public class DoubleConstantExpression extends Expression{
 		return value;
 	}
 	
+	@Override
+	public double evaluateDouble() {
+		return doubleValue;
+	}
+	
+	@Override
+	public Kind getKind() {
+		return Kind.DOUBLE;
+	}
+	
 	private void setValue(double value) {
 		this.value = new DoubleType(value);
+		this.doubleValue = value;
 	}
 	
 	private DoubleType value;
+	
+	private double doubleValue;
 
 }
 ;
\ No newline at end of file
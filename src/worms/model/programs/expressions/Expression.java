@@ -1,6 +1,8 @@
 package worms.model.programs.expressions;
 
 import worms.model.Program;
+import worms.model.Program.Kind;
+import worms.model.Worm;
 import worms.model.programs.statements.Statement;
 import worms.model.programs.types.Type;
 
@@ -25,6 +27,56 @@ public abstract class Expression {
 	
 	public abstract Type<?> evaluate();
 	
+	/**
+	 * Return the value of this expression as a double.
+	 * 	Expressions of which the value is a number override this method to
+	 * 	compute that number without wrapping it in a type.
+	 */
+	public double evaluateDouble() {
+		return (Double) evaluate().getValue();
+	}
+	
+	/**
+	 * Return the value of this expression as a boolean.
+	 * 	Expressions of which the value is a boolean override this method to
+	 * 	compute that boolean without wrapping it in a type.
+	 */
+	public boolean evaluateBoolean() {
+		return (Boolean) evaluate().getValue();
+	}
+	
+	/**
+	 * Return the value of this expression as an entity.
+	 * 	Expressions of which the value is an entity override this method to
+	 * 	compute that entity without wrapping it in a type.
+	 */
+	public Worm evaluateEntity() {
+		return (Worm) evaluate().getValue();
+	}
+	
+	/**
+	 * Return the kind of the value of this expression, or null if it is not
+	 * known before this expression is evaluated.
+	 * 	The kind of a variable expression is only known once it is linked.
+	 */
+	public Kind getKind() {
+		return null;
+	}
+	
+	/**
+	 * Link this expression and the expressions it contains to the given
+	 * program.
+	 * 
+	 * @throws	IllegalArgumentException
+	 * 			This expression refers to a variable that is not a global
+	 * 			variable of the given program.
+	 */
+	public void link(Program program) throws IllegalArgumentException {
+		if (getChildExpression() != null) {
+			getChildExpression().link(program);
+		}
+	}
+	
 	
 	
 	
@@ -1,7 +1,8 @@
 package worms.model.programs.expressions;
 
+import worms.model.Worm;
+import worms.model.Program.Kind;
 import worms.model.programs.types.DoubleType;
-import worms.model.programs.types.EntityType;
 
 public class Inspector extends Expression {
 	
@@ -15,7 +16,7 @@ public class Inspector extends Expression {
 		this.type = type;
 	}
 	
-	private InspectorType getType() {
+	public InspectorType getType() {
 		return type;
 	}
 	
@@ -23,27 +24,34 @@ public class Inspector extends Expression {
 
 	@Override
 	public DoubleType evaluate() {
-		EntityType worm = (EntityType) getChildExpression().evaluate();
+		return new DoubleType(evaluateDouble());
+	}
+	
+	@Override
+	public double evaluateDouble() {
+		Worm worm = getChildExpression().evaluateEntity();
 		if (getType() == InspectorType.X) {
-			return new DoubleType(worm.getValue().getPosition().getX());
+			return worm.getX();
 		} else if (getType() == InspectorType.Y) {
-			return new DoubleType(worm.getValue().getPosition().getY());
+			return worm.getY();
 		} else if (getType() == InspectorType.RADIUS) {
-			return new DoubleType(worm.getValue().getRadius());
+			return worm.getRadius();
 		} else if (getType() == InspectorType.DIRECTION) {
-			return new DoubleType(worm.getValue().getDirection());
+			return worm.getDirection();
 		} else if (getType() == InspectorType.AP) {
-			return new DoubleType((double) worm.getValue().getCurrentActionPoints());
+			return worm.getCurrentActionPoints();
 		} else if (getType() == InspectorType.MAXAP) {
-			return new DoubleType((double) worm.getValue().getActionPointsMaximum());
+			return worm.getActionPointsMaximum();
 		} else if (getType() == InspectorType.HP) {
-			return new DoubleType((double) worm.getValue().getCurrentHitPoints());
-		} else if (getType() == InspectorType.MAXHP) {
-			return new DoubleType((double) worm.getValue().getHitPointsMaximum());
+			return worm.getCurrentHitPoints();
 		} else {
-			return null;
+			return worm.getHitPointsMaximum();
 		}
-		
+	}
+	
+	@Override
+	public Kind getKind() {
+		return Kind.DOUBLE;
 	}
 
 }
@@ -1,6 +1,7 @@
 package worms.model.programs.expressions;
 
 import worms.model.Worm;
+import worms.model.Program.Kind;
 import worms.model.programs.types.BoolType;
 import worms.model.programs.types.Type;
 
@@ -13,8 +14,20 @@ public class IsWormExpression extends Expression {
 
 	@Override
 	public Type<Boolean> evaluate() {
-		boolean result = getChildExpression().evaluate().getType() == Worm.class;
-		return (new BoolType(result));
+		return (new BoolType(evaluateBoolean()));
+	}
+	
+	/**
+	 * Every entity that is not null is a worm.
+	 */
+	@Override
+	public boolean evaluateBoolean() {
+		return (getChildExpression().evaluateEntity() instanceof Worm);
+	}
+	
+	@Override
+	public Kind getKind() {
+		return Kind.BOOLEAN;
 	}
 
 }
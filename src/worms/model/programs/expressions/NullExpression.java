@@ -1,5 +1,7 @@
 package worms.model.programs.expressions;
 
+import worms.model.Worm;
+import worms.model.Program.Kind;
 import worms.model.programs.types.NullType;
 
 public class NullExpression extends Expression {
@@ -12,5 +14,15 @@ public class NullExpression extends Expression {
 	public NullType evaluate() {
 		return new NullType();
 	}
+	
+	@Override
+	public Worm evaluateEntity() {
+		return null;
+	}
+	
+	@Override
+	public Kind getKind() {
+		return Kind.ENTITY;
+	}
 
 }
@@ -1,8 +1,7 @@
 package worms.model.programs.expressions;
 
-import worms.model.Position;
-import worms.model.World;
 import worms.model.Worm;
+import worms.model.Program.Kind;
 import worms.model.programs.types.EntityType;
 
 public class SearchObjectExpression extends Expression {
@@ -14,22 +13,18 @@ public class SearchObjectExpression extends Expression {
 
 	@Override
 	public EntityType evaluate() {
+		return new EntityType(evaluateEntity());
+	}
+	
+	@Override
+	public Worm evaluateEntity() {
 		Worm thisWorm = getProgram().getWorm();
-		double wormDir = thisWorm.getDirection();
-		double dx = thisWorm.getRadius() * Math.cos(wormDir);
-		double dy = thisWorm.getRadius() * Math.sin(wormDir);
-		Position position = thisWorm.getPosition().translate(dx, dy);
-		World world = thisWorm.getWorld();
-		while (world.isInsideWorldBorders(position)) {
-			if (! world.isPassable(position)) {
-				return new EntityType(null);
-			} else if (world.overlaps(position, thisWorm.getRadius())) {
-				Worm closestWorm = world.getOverlappingWorm(position,
-						thisWorm.getRadius());
-				return new EntityType(closestWorm);
-			}
-		}
-		//no result
-		return new EntityType(null);
+		double offset = getChildExpression().evaluateDouble();
+		return thisWorm.getWorld().searchObject(thisWorm, offset);
+	}
+	
+	@Override
+	public Kind getKind() {
+		return Kind.ENTITY;
 	}
 }
@@ -1,6 +1,7 @@
 package worms.model.programs.expressions;
 
 import worms.model.Worm;
+import worms.model.Program.Kind;
 import worms.model.programs.types.EntityType;
 import worms.model.programs.types.Type;
 
@@ -12,7 +13,17 @@ public class SelfExpression extends Expression {
 
 	@Override
 	public Type<Worm> evaluate() {
-		return new EntityType(getProgram().getWorm());
+		return new EntityType(evaluateEntity());
+	}
+	
+	@Override
+	public Worm evaluateEntity() {
+		return getProgram().getWorm();
+	}
+	
+	@Override
+	public Kind getKind() {
+		return Kind.ENTITY;
 	}
 
 }
@@ -1,5 +1,6 @@
 package worms.model.programs.expressions;
 
+import worms.model.Program.Kind;
 import worms.model.programs.types.DoubleType;
 
 public class SquarerootExpression extends Expression {
@@ -11,9 +12,17 @@ public class SquarerootExpression extends Expression {
 
 	@Override
 	public DoubleType evaluate() {
-		double result = (Double) getChildExpression().evaluate().getValue();
-		result = Math.sqrt(result);
-		return new DoubleType(result);
+		return new DoubleType(evaluateDouble());
+	}
+	
+	@Override
+	public double evaluateDouble() {
+		return Math.sqrt(getChildExpression().evaluateDouble());
+	}
+	
+	@Override
+	public Kind getKind() {
+		return Kind.DOUBLE;
 	}
 
 }
@@ -1,5 +1,6 @@
 package worms.model.programs.expressions;
 
+import worms.model.Program.Kind;
 import worms.model.programs.types.DoubleType;
 import worms.model.programs.types.Type;
 
@@ -11,10 +12,18 @@ public class SubtractionExpression extends BinaryExpression {
 	
 	@Override
 	public Type<?> evaluate() {
-		Double value1 = (Double) getFirstChildExpression().evaluate().getValue();
-		Double value2 = (Double) getSecondChildExpression().evaluate().getValue();
-		Double result = value1 - value2;
-		return new DoubleType(result);
+		return new DoubleType(evaluateDouble());
+	}
+	
+	@Override
+	public double evaluateDouble() {
+		return getFirstChildExpression().evaluateDouble()
+				- getSecondChildExpression().evaluateDouble();
+	}
+	
+	@Override
+	public Kind getKind() {
+		return Kind.DOUBLE;
 	}
 
 }
@@ -1,5 +1,11 @@
 package worms.model.programs.expressions;
 
+import worms.model.Program;
+import worms.model.Program.Kind;
+import worms.model.Worm;
+import worms.model.programs.types.BoolType;
+import worms.model.programs.types.DoubleType;
+import worms.model.programs.types.EntityType;
 import worms.model.programs.types.Type;
 import be.kuleuven.cs.som.annotate.Basic;
 
@@ -17,11 +23,68 @@ public class VariableExpression extends Expression {
 	
 	private String name;
 	
+	/**
+	 * Bind this expression to the slot of its variable in the given program.
+	 */
+	@Override
+	public void link(Program program) throws IllegalArgumentException {
+		if (! program.hasAsGlobalVariable(getName()))
+			throw new IllegalArgumentException(getLine() + "." + getCol()
+					+ ": undeclared variable " + getName());
+		this.program = program;
+		this.kind = program.getKind(getName());
+		this.slot = program.getSlot(getName());
+	}
+	
+	private Program program;
+	
+	private Kind kind;
+	
+	/**
+	 * Return the slot of the variable of this expression in the frame of its
+	 * kind, as bound when this expression was linked.
+	 */
+	public int getSlot() {
+		return slot;
+	}
+	
+	private int slot;
+	
 	@Override
 	public Type<?> evaluate() {
-		Type<?> value;
-		value = getStatement().getProgram().getGlobalVariables().get(name);
-		return value;
+		if (kind == Kind.DOUBLE) {
+			return new DoubleType(program.getDoubleVariable(slot));
+		} else if (kind == Kind.BOOLEAN) {
+			return new BoolType(program.getBooleanVariable(slot));
+		} else {
+			return new EntityType(program.getEntityVariable(slot));
+		}
+	}
+	
+	@Override
+	public double evaluateDouble() {
+		if (kind == Kind.DOUBLE)
+			return program.getDoubleVariable(slot);
+		return super.evaluateDouble();
+	}
+	
+	@Override
+	public boolean evaluateBoolean() {
+		if (kind == Kind.BOOLEAN)
+			return program.getBooleanVariable(slot);
+		return super.evaluateBoolean();
+	}
+	
+	@Override
+	public Worm evaluateEntity() {
+		if (kind == Kind.ENTITY)
+			return program.getEntityVariable(slot);
+		return super.evaluateEntity();
+	}
+	
+	@Override
+	public Kind getKind() {
+		return kind;
 	}
 
 }
@@ -23,7 +23,7 @@ public class ActionStatement extends Statement {
 	}
 	
 	@Immutable
-	private final Action getAction() {
+	public final Action getAction() {
 		return action;
 	}
 	
@@ -34,7 +34,7 @@ public class ActionStatement extends Statement {
 		IActionHandler handler = getProgram().getHandler();
 		Worm worm = getProgram().getWorm();
 		if (getAction() == Action.TURN) {
-			double angle = (Double) getExpression().evaluate().getValue();
+			double angle = getExpression().evaluateDouble();
 			handler.turn(worm, angle);
 		} else if (getAction() == Action.MOVE) {
 			handler.move(worm);
@@ -43,7 +43,7 @@ public class ActionStatement extends Statement {
 		} else if (getAction() == Action.TOGGLEWEAP) {
 			handler.toggleWeapon(worm);
 		} else if (getAction() == Action.FIRE) {
-			double propulsion = (Double) getExpression().evaluate().getValue();
+			double propulsion = getExpression().evaluateDouble();
 			handler.fire(worm, (int) propulsion);
 		} else if (getAction() == Action.SKIP) {
 			//do nothing (i.e. no action)
@@ -1,8 +1,9 @@
 package worms.model.programs.statements;
 
 import be.kuleuven.cs.som.annotate.Immutable;
+import worms.model.Program;
+import worms.model.Program.Kind;
 import worms.model.programs.expressions.Expression;
-import worms.model.programs.types.Type;
 
 public class AssignmentStatement extends Statement {
 
@@ -19,17 +20,54 @@ public class AssignmentStatement extends Statement {
 	}
 
 	private final String varName;
+	
+	/**
+	 * Bind this assignment to the slot of its variable in the given program.
+	 */
+	@Override
+	public void link(Program program) throws IllegalArgumentException {
+		super.link(program);
+		if (! program.hasAsGlobalVariable(getVariableName()))
+			throw new IllegalArgumentException(getLine() + "." + getCol()
+					+ ": undeclared variable " + getVariableName());
+		this.program = program;
+		this.kind = program.getKind(getVariableName());
+		this.slot = program.getSlot(getVariableName());
+	}
+	
+	private Program program;
+	
+	/**
+	 * Return the kind of the variable of this assignment, as bound when this
+	 * assignment was linked.
+	 */
+	public Kind getVariableKind() {
+		return kind;
+	}
+	
+	private Kind kind;
+	
+	/**
+	 * Return the slot of the variable of this assignment in the frame of its
+	 * kind, as bound when this assignment was linked.
+	 */
+	public int getVariableSlot() {
+		return slot;
+	}
+	
+	private int slot;
 
 	@Override
 	public void execute() {
-		if (getProgram().isPaused() && (! canResumeExecution())) {
-			//skip
+		if (kind == Kind.DOUBLE) {
+			program.setDoubleVariable(slot,
+					getExpression().evaluateDouble());
+		} else if (kind == Kind.BOOLEAN) {
+			program.setBooleanVariable(slot,
+					getExpression().evaluateBoolean());
 		} else {
-			if (getProgram().isPaused()) {
-				getProgram().resume(this);
-			}
-			Type<?> value = getExpression().evaluate();
-			getProgram().setGlobalVariable(getVariableName(), value);
+			program.setEntityVariable(slot,
+					getExpression().evaluateEntity());
 		}
 	}
 
@@ -1,6 +1,7 @@
 package worms.model.programs.statements;
 
 import be.kuleuven.cs.som.annotate.Immutable;
+import worms.model.Program;
 import worms.model.programs.expressions.BoolExpression;
 import worms.model.programs.expressions.Expression;
 import worms.model.programs.statements.Statement;
@@ -43,19 +44,19 @@ public class IfElseStatement extends Statement {
 	
 	private final Statement otherwise;
 
+	@Override
+	public void link(Program program) throws IllegalArgumentException {
+		getCondition().link(program);
+		getThen().link(program);
+		getOthwerwise().link(program);
+	}
+
 	@Override
 	public void execute() {
-		if (getProgram().isPaused() && (! canResumeExecution())) {
-			//skip
+		if (getCondition().evaluateBoolean()) {
+			getThen().execute();
 		} else {
-			if (getProgram().isPaused()) {
-				getProgram().resume(this);
-			}
-			if ((Boolean) getCondition().evaluate().getValue() == true) {
-				getThen().execute();
-			} else {
-				getOthwerwise().execute();
-			}
+			getOthwerwise().execute();
 		}
 		
 	}
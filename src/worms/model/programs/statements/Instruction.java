@@ -0,0 +1,140 @@
+package worms.model.programs.statements;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.model.programs.expressions.Expression;
+
+/**
+ * A class of instructions of flattened programs, involving an operation, a
+ * statement, a condition and a target.
+ * 	The main statement of a program is flattened into a list of
+ * 	instructions, numbered from zero, in which loops and conditions become
+ * 	jumps. An instruction either executes a simple statement (an
+ * 	assignment, an action or a print statement), branches to its target
+ * 	if its condition is false, or jumps to its target. Worm programs have
+ * 	no procedures, so the number of the next instruction to execute is
+ * 	all the state needed to resume a program.
+ *
+ * @version	1.0
+ * @author 	Tom Gijselinck
+ *
+ */
+public class Instruction {
+
+	/**
+	 * An enumeration of the operations of instructions.
+	 */
+	public enum Operation {
+		EXECUTE, BRANCH, JUMP
+	}
+
+	private Instruction(Operation operation, Statement statement,
+			Expression condition, int target) {
+		this.operation = operation;
+		this.statement = statement;
+		this.condition = condition;
+		this.target = target;
+	}
+
+	@Basic
+	@Immutable
+	public Operation getOperation() {
+		return operation;
+	}
+
+	private final Operation operation;
+
+	/**
+	 * Return the statement of this instruction: the simple statement it
+	 * executes, or the loop or condition statement it branches for.
+	 */
+	@Basic
+	@Immutable
+	public Statement getStatement() {
+		return statement;
+	}
+
+	private final Statement statement;
+
+	/**
+	 * Return the condition of this instruction if it branches, or null.
+	 */
+	@Basic
+	@Immutable
+	public Expression getCondition() {
+		return condition;
+	}
+
+	private final Expression condition;
+
+	/**
+	 * Return the number of the instruction this instruction branches or
+	 * jumps to; the number of instructions stands for the end of the
+	 * program.
+	 */
+	@Basic
+	public int getTarget() {
+		return target;
+	}
+
+	private int target;
+
+
+
+
+	//FLATTENING
+	/**
+	 * Return the instructions of the given statement.
+	 *
+	 * @throws	UnsupportedOperationException
+	 * 			The given statement contains a statement that cannot be
+	 * 			flattened.
+	 */
+	public static List<Instruction> flatten(Statement statement)
+			throws UnsupportedOperationException {
+		List<Instruction> result = new ArrayList<Instruction>();
+		flatten(statement, result);
+		return result;
+	}
+
+	private static void flatten(Statement statement, List<Instruction> result)
+			throws UnsupportedOperationException {
+		if (statement instanceof SequenceStatement) {
+			for (Statement part : statement.getStatements()) {
+				flatten(part, result);
+			}
+		} else if (statement instanceof WhileStatement) {
+			WhileStatement loop = (WhileStatement) statement;
+			int start = result.size();
+			Instruction branch = new Instruction(Operation.BRANCH, statement,
+					loop.getCondition(), -1);
+			result.add(branch);
+			flatten(loop.getBody(), result);
+			result.add(new Instruction(Operation.JUMP, statement, null, start));
+			branch.target = result.size();
+		} else if (statement instanceof IfElseStatement) {
+			IfElseStatement choice = (IfElseStatement) statement;
+			Instruction branch = new Instruction(Operation.BRANCH, statement,
+					choice.getCondition(), -1);
+			result.add(branch);
+			flatten(choice.getThen(), result);
+			Instruction jump = new Instruction(Operation.JUMP, statement, null,
+					-1);
+			result.add(jump);
+			branch.target = result.size();
+			flatten(choice.getOthwerwise(), result);
+			jump.target = result.size();
+		} else if ((statement instanceof AssignmentStatement)
+				|| (statement instanceof ActionStatement)
+				|| (statement instanceof PrintStatement)) {
+			result.add(new Instruction(Operation.EXECUTE, statement, null, -1));
+		} else {
+			throw new UnsupportedOperationException(
+					"Cannot flatten statement " + statement);
+		}
+	}
+
+}
@@ -11,14 +11,7 @@ public class PrintStatement extends Statement {
 
 	@Override
 	public void execute() {
-		if (getProgram().isPaused() && (! canResumeExecution())) {
-			//skip
-		} else {
-			if (getProgram().isPaused()) {
-				getProgram().resume(this);
-			}
-			System.out.println(getExpression().evaluate().getValue());
-		}
+		System.out.println(getExpression().evaluate().getValue());
 		
 	}
 
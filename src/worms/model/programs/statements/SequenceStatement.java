@@ -19,16 +19,9 @@ public class SequenceStatement extends Statement {
 	
 	@Override
 	public void execute() {
-		if ((getProgram().isPaused() && (! canResumeExecution())) || (getStatements() == null) ) {
-			//skip
-		} else {
-			if (getProgram().isPaused()) {
-				getProgram().resume(this);
-			}
-			Iterator<Statement> iterator = getStatements().iterator();
-			while (iterator.hasNext()) {
-				iterator.next().execute();
-			}
+		Iterator<Statement> iterator = getStatements().iterator();
+		while (iterator.hasNext()) {
+			iterator.next().execute();
 		}
 		
 	}
@@ -25,20 +25,23 @@ public abstract class Statement {
 	
 	private int column;
 	
-	public boolean getExecutionFlag() {
-		return flag;
-	}
-	
-	public void setExecutionFlag(boolean flag) {
-		this.flag = flag;
-	}
-	
-	private boolean flag = false;
-	
 	public abstract void execute();
 	
-	public boolean canResumeExecution() {
-		return getExecutionFlag();
+	/**
+	 * Link this statement and the statements and expressions it contains to
+	 * the given program.
+	 * 
+	 * @throws	IllegalArgumentException
+	 * 			This statement refers to a variable that is not a global
+	 * 			variable of the given program.
+	 */
+	public void link(Program program) throws IllegalArgumentException {
+		if (getExpression() != null) {
+			getExpression().link(program);
+		}
+		for (Statement statement : getStatements()) {
+			statement.link(program);
+		}
 	}
 	
 	
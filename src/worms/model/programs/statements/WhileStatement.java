@@ -1,6 +1,7 @@
 package worms.model.programs.statements;
 
 import be.kuleuven.cs.som.annotate.Immutable;
+import worms.model.Program;
 import worms.model.programs.expressions.Expression;
 
 public class WhileStatement extends Statement {
@@ -28,17 +29,16 @@ public class WhileStatement extends Statement {
 	
 	private final Statement body;
 
+	@Override
+	public void link(Program program) throws IllegalArgumentException {
+		getCondition().link(program);
+		getBody().link(program);
+	}
+
 	@Override
 	public void execute() {
-		if (getProgram().isPaused() && (! canResumeExecution())) {
-			//skip
-		} else {
-			if (getProgram().isPaused()) {
-				getProgram().resume(this);
-			}
-			while ((Boolean) getCondition().evaluate().getValue() == true) {
-				getBody().execute();
-			}
+		while (getCondition().evaluateBoolean()) {
+			getBody().execute();
 		}
 	}
 
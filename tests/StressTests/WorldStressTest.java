@@ -0,0 +1,103 @@
+package StressTests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import worms.model.Position;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * A class collecting stress tests for the class of World. In particular, this
+ * test class populates a world with 100 000 worms, one at a time and all at
+ * once. The insert benchmark is ignored in test runs; run it on its own to
+ * see that the cost of adding a worm does not grow with the number of worms
+ * in the world.
+ * 
+ * @version 1.0
+ * @author Tom Gijselinck
+ * 
+ */
+public class WorldStressTest {
+
+	private World world;
+	
+	// 10x2000 pixels of 0.5 by 0.5 metre, with a floor in the bottom row
+	private boolean[][] passableMap;
+	
+	private static int nbWorms = 100000;
+	
+	private static int batchSize = 10000;
+	
+	@Before
+	public void setup() {
+		passableMap = new boolean[10][2000];
+		for (int row = 0; row < 9; row++) {
+			for (int column = 0; column < 2000; column++) {
+				passableMap[row][column] = true;
+			}
+		}
+		world = new World(1000, 5, passableMap, new Random());
+	}
+	
+	private Worm createWorm(int i) {
+		return new Worm(new Position(1 + 998.0 * i / nbWorms, 0.76), 0, 0.25,
+				"Worm " + i);
+	}
+	
+	@Test
+	public void addAsWorm_StressTest() {
+		for (int i = 0; i < nbWorms; i++) {
+			world.addAsWorm(createWorm(i));
+		}
+		assertEquals(nbWorms, world.getNbWorms());
+		assertTrue(world.hasWormNamed("Worm " + (nbWorms - 1)));
+	}
+	
+	@Ignore("benchmark, reports timings only")
+	@Test
+	public void addAsWorm_Benchmark() {
+		for (int batch = 0; batch < nbWorms / batchSize; batch++) {
+			long start = System.nanoTime();
+			for (int i = batch * batchSize; i < (batch + 1) * batchSize; i++) {
+				world.addAsWorm(createWorm(i));
+			}
+			long time = System.nanoTime() - start;
+			System.out.println("worms " + (batch * batchSize) + " to " 
+					+ ((batch + 1) * batchSize - 1) + ": " 
+					+ (time / batchSize) + " ns per insert");
+		}
+		assertEquals(nbWorms, world.getNbWorms());
+	}
+	
+	@Test
+	public void addAsWorms_StressTest() {
+		List<Worm> newWorms = new ArrayList<Worm>();
+		for (int i = 0; i < nbWorms; i++) {
+			newWorms.add(createWorm(i));
+		}
+		world.addAsWorms(newWorms);
+		assertEquals(nbWorms, world.getNbWorms());
+		assertEquals(1, world.getWormsNamed("Worm 500").size());
+		Worm worm = world.getWormsNamed("Worm 500").iterator().next();
+		world.removeAsWorm(worm);
+		assertFalse(world.hasWormNamed("Worm 500"));
+		assertFalse(world.hasAsWorm(worm));
+	}
+	
+	@Test
+	public void addWorm_StressTest() {
+		for (int i = 0; i < 500; i++) {
+			world.addWorm(null);
+		}
+		assertEquals(500, world.getNbWorms());
+	}
+
+}
@@ -0,0 +1,113 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+/**
+ * A class collecting tests for the class of disk stencils.
+ *
+ * @version 1.0
+ * @author Tom Gijselinck
+ *
+ */
+
+public class DiskStencilTest {
+
+	/**
+	 * Check whether the given stencil covers the pixel at the given row 
+	 * offset and the given column offset.
+	 */
+	private static boolean covers(DiskStencil stencil, int dr, int dc) {
+		for (int i = 0; i < stencil.getNbRowOffsets(); i++) {
+			if (stencil.getRowOffset(i) == dr) {
+				return ((stencil.getLeftFrom(i) <= dc) 
+						&& (dc < stencil.getLeftTo(i)))
+					|| ((stencil.getRightFrom(i) <= dc) 
+						&& (dc < stencil.getRightTo(i)));
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Check whether the given stencil covers exactly the pixels with a gap 
+	 * to the centre pixel less than its outer radius, and at least those
+	 * pixels of which the largest distance to the centre pixel is also 
+	 * greater than its inner radius.
+	 */
+	private static void checkCoverage(DiskStencil stencil, double pixelWidth,
+			double pixelHeight) {
+		int range = (int) Math.ceil(stencil.getOuterRadius() 
+				/ Math.min(pixelWidth, pixelHeight)) + 2;
+		for (int dr = -range; dr <= range; dr++) {
+			for (int dc = -range; dc <= range; dc++) {
+				double gapX = Math.max(0, Math.abs(dc) - 1) * pixelWidth;
+				double gapY = Math.max(0, Math.abs(dr) - 1) * pixelHeight;
+				double farX = (Math.abs(dc) + 1) * pixelWidth;
+				double farY = (Math.abs(dr) + 1) * pixelHeight;
+				double outer = stencil.getOuterRadius();
+				double inner = stencil.getInnerRadius();
+				boolean nearEnough = (gapX * gapX + gapY * gapY 
+						< outer * outer);
+				boolean farEnough = (farX * farX + farY * farY 
+						> inner * inner);
+				if (! nearEnough) {
+					assertFalse(covers(stencil, dr, dc));
+				} else if (farEnough) {
+					assertTrue(covers(stencil, dr, dc));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void constructor_LegalCase() {
+		DiskStencil stencil = new DiskStencil(1.1, 1, 0.25, 0.5);
+		assertEquals(1.1, stencil.getOuterRadius(), 0);
+		assertEquals(1, stencil.getInnerRadius(), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_InnerRadiusBeyondOuterRadius() {
+		new DiskStencil(0.5, 1, 1, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_InfiniteOuterRadius() {
+		new DiskStencil(Double.POSITIVE_INFINITY, 0, 1, 1);
+	}
+
+	@Test
+	public void constructor_Disk() {
+		DiskStencil stencil = new DiskStencil(0.5, 0, 1, 1);
+		assertEquals(3, stencil.getNbRowOffsets());
+		for (int i = 0; i < stencil.getNbRowOffsets(); i++) {
+			assertEquals(stencil.getRightFrom(i), stencil.getRightTo(i));
+		}
+		checkCoverage(stencil, 1, 1);
+	}
+
+	@Test
+	public void constructor_Annulus() {
+		DiskStencil stencil = new DiskStencil(5.5, 5, 0.5, 0.25);
+		assertTrue(covers(stencil, 0, -11));
+		assertTrue(covers(stencil, 0, 11));
+		assertFalse(covers(stencil, 0, 0));
+		checkCoverage(stencil, 0.5, 0.25);
+	}
+
+	@Test
+	public void constructor_VariousRadii() {
+		double[] sizes = {0.05, 0.1, 0.3, 1};
+		for (double outer = 0.25; outer < 3; outer += 0.35) {
+			for (double size : sizes) {
+				checkCoverage(new DiskStencil(outer, 0, size, size), size, 
+						size);
+				checkCoverage(new DiskStencil(1.1 * outer, outer, size,
+						0.5 * size), size, 0.5 * size);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,60 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+import static worms.util.Util.*;
+
+/**
+ * A class collecting tests for the class of distance fields.
+ *
+ * @version 1.0
+ * @author Tom Gijselinck
+ *
+ */
+
+public class DistanceFieldTest {
+
+	// 4x5 pixels of 0.5 by 0.25 metre
+	//    0 1 2 3 4
+	//   ----------
+	// 0| . . . . .
+	// 1| . . . . .
+	// 2| . X . . .
+	// 3| . . . . .
+	private static DistanceField field;
+
+	@BeforeClass
+	public static void setUpImmutableFixture() throws Exception {
+		boolean[][] passableMap = new boolean[4][5];
+		for (int row = 0; row < 4; row++) {
+			for (int column = 0; column < 5; column++) {
+				passableMap[row][column] = true;
+			}
+		}
+		passableMap[2][1] = false;
+		field = new DistanceField(new Terrain(passableMap), 0.5, 0.25);
+	}
+
+	@Test
+	public void getDistance_ImpassablePixel() {
+		assertTrue(fuzzyEquals(0, field.getDistance(2, 1)));
+	}
+
+	@Test
+	public void getDistance_PassablePixels() {
+		assertTrue(fuzzyEquals(0.25, field.getDistance(1, 1)));
+		assertTrue(fuzzyEquals(1.5, field.getDistance(2, 4)));
+		assertTrue(fuzzyEquals(Math.sqrt(1.5 * 1.5 + 0.5 * 0.5),
+				field.getDistance(0, 4)));
+	}
+
+	@Test
+	public void getDistance_NoImpassablePixels() {
+		DistanceField empty = new DistanceField(
+				new Terrain(new boolean[][] {{true, true}}), 1, 1);
+		assertEquals(Double.POSITIVE_INFINITY, empty.getDistance(0, 1), 0);
+	}
+
+}
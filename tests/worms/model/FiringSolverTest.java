@@ -0,0 +1,86 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+import static worms.util.Util.*;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FiringSolverTest {
+
+	private World world;
+	private Worm shooter;
+	private Bazooka bazooka;
+
+	/**
+	 * Return a 40x40 passable map of which only the bottom row is impassable,
+	 * with a wall of 2 pixels wide and 9 pixels high in the middle if so
+	 * asked.
+	 */
+	private static boolean[][] getPassableMap(boolean wall) {
+		boolean[][] passableMap = new boolean[40][40];
+		for (int row = 0; row < 40; row++) {
+			for (int column = 0; column < 40; column++) {
+				passableMap[row][column] = (row < 39);
+				if (wall && (row >= 30) && (column >= 19) && (column <= 20))
+					passableMap[row][column] = false;
+			}
+		}
+		return passableMap;
+	}
+
+	@Before
+	public void setup() {
+		world = new World(20, 20, getPassableMap(false), new Random());
+		shooter = new Worm(new Position(2, 1), 0, 0.5, "Shooter");
+		world.addAsWorm(shooter);
+		bazooka = new Bazooka();
+	}
+
+	@Test
+	public void getSolutions_ReachTarget() {
+		shooter.selectNextWeapon();
+		List<FiringSolution> solutions = new FiringSolver(shooter,
+				shooter.getActiveWeapon()).getSolutions(16, 1);
+		assertEquals(2, solutions.size());
+		for (FiringSolution solution : solutions) {
+			shooter.setDirection(solution.getDirection());
+			shooter.shoot(solution.getPropulsionYield());
+			Projectile projectile = world.getProjectile();
+			double time = solution.getFlightTime();
+			Position position = projectile.jumpStep(time,
+					projectile.jumpSpeed(projectile.getLaunchForce()));
+			assertTrue(fuzzyEquals(16, position.getX()));
+			assertTrue(fuzzyEquals(1, position.getY()));
+			assertTrue(projectile.jumpTime(0.0001) >= time - 0.0001);
+			projectile.terminate();
+		}
+	}
+
+	@Test
+	public void getSolutions_WallBlocksFlatShot() {
+		World walled = new World(20, 20, getPassableMap(true), new Random());
+		Worm worm = new Worm(new Position(2, 1), 0, 0.5, "Shooter");
+		walled.addAsWorm(worm);
+		List<FiringSolution> solutions = new FiringSolver(worm, bazooka)
+				.getSolutions(16, 1);
+		assertEquals(1, solutions.size());
+		assertTrue(solutions.get(0).getDirection() > Math.PI / 4);
+	}
+
+	@Test
+	public void getSolutions_OutOfReach() {
+		assertTrue(new FiringSolver(shooter, bazooka).getSolutions(19, 19)
+				.isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_ShooterWithoutWorld() {
+		new FiringSolver(new Worm(new Position(2, 1), 0, 0.5, "Loner"),
+				bazooka);
+	}
+
+}
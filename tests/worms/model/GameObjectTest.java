@@ -60,6 +60,20 @@ public class GameObjectTest {
 		assertTrue(standardGameObject.hasProperPosition());
 	}
 
+	@Test
+	public void moveTo_LegalCase() {
+		standardGameObject.moveTo(4.25, 2.5);
+		assertTrue(fuzzyEquals(4.25, standardGameObject.getX()));
+		assertTrue(fuzzyEquals(2.5, standardGameObject.getY()));
+		assertTrue(standardGameObject.getPosition().equals(
+				new Position(4.25, 2.5)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void moveTo_InvalidCoordinate() {
+		standardGameObject.moveTo(Double.NaN, 2.5);
+	}
+
 	@Test
 	public void canhaveAsRadius_TrueCase() {
 		assertTrue(standardGameObject.canHaveAsRadius(5));
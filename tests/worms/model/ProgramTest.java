@@ -0,0 +1,161 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+import worms.gui.game.IActionHandler;
+import worms.model.programs.ParseOutcome;
+import worms.model.programs.ParseOutcome.Success;
+import worms.model.programs.types.BoolType;
+import worms.model.programs.types.Type;
+
+/**
+ * A class collecting tests for the class of programs.
+ *
+ * @version 1.0
+ * @author Tom Gijselinck
+ *
+ */
+public class ProgramTest {
+
+	private static Program parse(String programText) {
+		ParseOutcome<?> outcome = new Program().parseProgram(programText, null);
+		assertTrue(outcome.isSuccess());
+		return ((Success) outcome).getResult();
+	}
+
+	@Test
+	public void parseProgram_SlotsPerKind() {
+		Program program = parse("double x; bool b; double y; entity e; skip;");
+		assertEquals(Program.Kind.DOUBLE, program.getKind("x"));
+		assertEquals(Program.Kind.BOOLEAN, program.getKind("b"));
+		assertEquals(Program.Kind.ENTITY, program.getKind("e"));
+		assertTrue(program.getSlot("x") != program.getSlot("y"));
+		assertEquals(0, program.getSlot("b"));
+		assertEquals(0, program.getSlot("e"));
+	}
+
+	@Test
+	public void parseProgram_UndeclaredVariable() {
+		ParseOutcome<?> outcome = new Program().parseProgram(
+				"double x; x := y;", null);
+		assertFalse(outcome.isSuccess());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void getSlot_UndeclaredVariable() {
+		parse("double x; skip;").getSlot("y");
+	}
+
+	@Test
+	public void run_AssignmentsThroughSlots() {
+		Program program = parse("double x; double y; "
+				+ "x := 5; y := 0; while (x > 0) do { y := (y + x); x := (x - 1); }");
+		program.run();
+		int slot = program.getSlot("y");
+		assertEquals(15, program.getDoubleVariable(slot), 0);
+		assertEquals(0, program.getDoubleVariable(program.getSlot("x")), 0);
+	}
+
+	@Test
+	public void run_CompareNumbersByValue() {
+		Program program = parse("double x; bool b; bool c; "
+				+ "x := (2 * 3); b := (x == 6); c := (x != 6);");
+		program.run();
+		assertTrue(program.getBooleanVariable(program.getSlot("b")));
+		assertFalse(program.getBooleanVariable(program.getSlot("c")));
+	}
+
+	@Test
+	public void run_CompareEntitiesByIdentity() {
+		Program program = parse("entity e; bool b; e := null; b := (e == null);");
+		program.run();
+		assertTrue(program.getBooleanVariable(program.getSlot("b")));
+	}
+
+	@Test
+	public void getGlobalVariables_ReflectsFrames() {
+		Program program = parse("double x; entity e; x := 2;");
+		program.run();
+		Type<?> x = program.getGlobalVariables().get("x");
+		assertEquals(2.0, x.getValue());
+		assertNull(program.getGlobalVariables().get("e").getValue());
+	}
+
+	@Test
+	public void setGlobalVariable_LegalCase() {
+		Program program = parse("bool b; skip;");
+		program.setGlobalVariable("b", new BoolType(true));
+		assertTrue(program.getBooleanVariable(program.getSlot("b")));
+	}
+
+	/**
+	 * Return a handler that performs the given number of moves, counting
+	 * the moves it is asked for in the given counter, and refuses all
+	 * further moves.
+	 */
+	private static IActionHandler movingHandler(final int moves,
+			final int[] asked) {
+		return new IActionHandler() {
+			public boolean turn(Worm worm, double angle) {
+				return true;
+			}
+			public boolean move(Worm worm) {
+				asked[0]++;
+				return (asked[0] <= moves);
+			}
+			public boolean jump(Worm worm) {
+				return true;
+			}
+			public boolean fire(Worm worm, int propulsion) {
+				return true;
+			}
+			public boolean toggleWeapon(Worm worm) {
+				return true;
+			}
+			public void print(String message) {
+			}
+		};
+	}
+
+	@Test
+	public void run_EndlessLoopSuspends() {
+		for (boolean compiled : new boolean[] { true, false }) {
+			ParseOutcome<?> outcome = new Program(compiled).parseProgram(
+					"double x; while (true) do { x := (x + 1); }", null);
+			Program program = ((Success) outcome).getResult();
+			program.run();
+			assertTrue(program.isSuspended());
+			int slot = program.getSlot("x");
+			double first = program.getDoubleVariable(slot);
+			assertEquals(Program.STATEMENT_BUDGET / 3, first, 1);
+			program.run();
+			assertEquals(2 * first, program.getDoubleVariable(slot), 1);
+		}
+	}
+
+	@Test
+	public void run_ResumesAtRefusedAction() {
+		for (boolean compiled : new boolean[] { true, false }) {
+			int[] asked = new int[1];
+			ParseOutcome<?> outcome = new Program(compiled).parseProgram(
+					"double x; x := 0; while (x < 3) do { move; x := (x + 1); }",
+					movingHandler(2, asked));
+			Program program = ((Success) outcome).getResult();
+			assertEquals(compiled, program.isCompiled());
+			program.run();
+			assertTrue(program.isSuspended());
+			assertEquals(3, asked[0]);
+			assertEquals(2, program.getDoubleVariable(program.getSlot("x")), 0);
+			int programCounter = program.getProgramCounter();
+			asked[0] = 0;
+			program.run();
+			assertFalse(program.isSuspended());
+			assertEquals(1, asked[0]);
+			assertEquals(3, program.getDoubleVariable(program.getSlot("x")), 0);
+			assertTrue(programCounter > 0);
+		}
+	}
+
+}
@@ -62,5 +62,22 @@ public class ProjectileTest {
 		world.setProjectile(projectile);
 		assertFalse(projectile.isTerminated());
 	}
+	
+	@Test
+	public void terminate_DetachFromWorld() {
+		world.addAsProjectile(projectile);
+		projectile.terminate();
+		assertFalse(world.hasAsProjectile(projectile));
+		assertNull(projectile.getWorld());
+	}
+	
+	@Test
+	public void advance_StillInFlight() {
+		world.addAsProjectile(projectile);
+		projectile.launch(null);
+		assertTrue(projectile.advance(0.01, 0.001));
+		assertTrue(fuzzyEquals(0.01, projectile.getFlightTime()));
+		assertTrue(projectile.getX() > 2);
+	}
 
 }
@@ -0,0 +1,80 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+import static worms.util.Util.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ShotEvaluatorTest {
+
+	private World world;
+	private Worm shooter;
+	private Worm target;
+
+	@Before
+	public void setup() {
+		boolean[][] passableMap = new boolean[40][40];
+		for (int row = 0; row < 40; row++) {
+			for (int column = 0; column < 40; column++) {
+				passableMap[row][column] = (row < 39);
+			}
+		}
+		world = new World(20, 20, passableMap, new Random());
+		shooter = new Worm(new Position(2, 1), 0, 0.5, "Shooter");
+		target = new Worm(new Position(16, 1), 0, 0.5, "Target");
+		world.addAsWorm(shooter);
+		world.addAsWorm(target);
+		world.startGame();
+	}
+
+	@Test
+	public void getExpectedDamage_AimedShot() {
+		FiringSolution solution = new FiringSolver(shooter,
+				shooter.getActiveWeapon()).getSolutions(16, 1).get(0);
+		ShotEvaluator evaluator = new ShotEvaluator(world, 8, 0, 0.0001, 1);
+		double[][] damage = evaluator.getExpectedDamage(
+				new double[] { solution.getDirection(), Math.PI },
+				new int[] { solution.getPropulsionYield() });
+		assertTrue(fuzzyEquals(shooter.getActiveWeapon().getDamage(),
+				damage[0][0]));
+		assertTrue(fuzzyEquals(0, damage[1][0]));
+	}
+
+	@Test
+	public void getExpectedDamage_Deterministic() {
+		double[] directions = new double[16];
+		for (int i = 0; i < directions.length; i++) {
+			directions[i] = i * 0.02;
+		}
+		int[] yields = { 0, 50, 100 };
+		double[][] first = new ShotEvaluator(world, 20, 0.05, 0.0001, 7)
+				.getExpectedDamage(directions, yields);
+		double[][] second = new ShotEvaluator(world, 20, 0.05, 0.0001, 7)
+				.getExpectedDamage(directions, yields);
+		for (int i = 0; i < directions.length; i++) {
+			assertArrayEquals(first[i], second[i], 0);
+		}
+	}
+
+	@Test
+	public void getExpectedDamage_WorldUntouched() {
+		int hitPoints = target.getCurrentHitPoints();
+		int actionPoints = shooter.getCurrentActionPoints();
+		new ShotEvaluator(world, 50, 0.1, 0.0001, 3).getExpectedDamage(
+				new double[] { 0, 0.1, 0.2 }, new int[] { 0, 100 });
+		assertEquals(hitPoints, target.getCurrentHitPoints());
+		assertEquals(actionPoints, shooter.getCurrentActionPoints());
+		assertFalse(world.hasProjectile());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void constructor_NoCurrentWorm() {
+		World idle = new World(20, 20, new boolean[][] { { true } },
+				new Random());
+		new ShotEvaluator(idle, 1, 0, 0.0001, 1);
+	}
+
+}
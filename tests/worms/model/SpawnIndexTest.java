@@ -0,0 +1,90 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.*;
+
+import static worms.util.Util.*;
+
+/**
+ * A class collecting tests for the class of spawn indices.
+ *
+ * @version 1.0
+ * @author Tom Gijselinck
+ *
+ */
+
+public class SpawnIndexTest {
+
+	// 6x6 pixels of 1 by 1 metre
+	//    0 1 2 3 4 5
+	//   ------------
+	// 0| . . . . . .
+	// 1| . . . . . .
+	// 2| . . X X . .
+	// 3| . . X X . .
+	// 4| . . . . . .
+	// 5| X . . . . X
+	private static World world;
+
+	private static SpawnIndex spawnIndex;
+
+	@BeforeClass
+	public static void setUpImmutableFixture() throws Exception {
+		boolean[][] passableMap = new boolean[6][6];
+		for (int row = 0; row < 6; row++) {
+			for (int column = 0; column < 6; column++) {
+				passableMap[row][column] = true;
+			}
+		}
+		passableMap[2][2] = false;
+		passableMap[2][3] = false;
+		passableMap[3][2] = false;
+		passableMap[3][3] = false;
+		passableMap[5][0] = false;
+		passableMap[5][5] = false;
+		world = new World(6, 6, passableMap, new Random());
+		spawnIndex = new SpawnIndex(world, 0.5);
+	}
+
+	@Test
+	public void getPositions_AllAdjacent() {
+		assertTrue(spawnIndex.getNbPositions() > 0);
+		for (int index = 0; index < spawnIndex.getNbPositions(); index++) {
+			assertTrue(world.isAdjacent(spawnIndex.getX(index),
+					spawnIndex.getY(index), 0.5));
+		}
+	}
+
+	@Test
+	public void getPositions_OnTopOfBlock() {
+		boolean found = false;
+		for (int index = 0; index < spawnIndex.getNbPositions(); index++) {
+			if (fuzzyEquals(2.5, spawnIndex.getX(index))) {
+				assertTrue(fuzzyEquals(4.525, spawnIndex.getY(index)));
+				found = true;
+			}
+		}
+		assertTrue(found);
+	}
+
+	@Test
+	public void getPositions_NoImpassablePixels() {
+		World empty = new World(2, 2, new boolean[][] {{true, true},
+				{true, true}}, new Random());
+		assertEquals(0, new SpawnIndex(empty, 0.25).getNbPositions());
+	}
+
+	@Test (expected = IndexOutOfBoundsException.class)
+	public void getX_IndexTooLarge() {
+		spawnIndex.getX(spawnIndex.getNbPositions());
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void constructor_NonPositiveRadius() {
+		new SpawnIndex(world, 0);
+	}
+
+}
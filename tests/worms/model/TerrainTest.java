@@ -0,0 +1,99 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+/**
+ * A class collecting tests for the class of terrains.
+ *
+ * @version 1.0
+ * @author Tom Gijselinck
+ *
+ */
+
+public class TerrainTest {
+
+	/**
+	 * Variable referencing a terrain of 3 rows and 70 columns in which only
+	 * the pixels at (0, 2), (1, 65) and (2, 69) are impassable.
+	 */
+	private static Terrain terrain;
+
+	private static boolean[][] passableMap;
+
+	@BeforeClass
+	public static void setUpImmutableFixture() throws Exception {
+		passableMap = new boolean[3][70];
+		for (int row = 0; row < 3; row++) {
+			for (int column = 0; column < 70; column++) {
+				passableMap[row][column] = true;
+			}
+		}
+		passableMap[0][2] = false;
+		passableMap[1][65] = false;
+		passableMap[2][69] = false;
+		terrain = new Terrain(passableMap);
+	}
+
+	@Test
+	public void constructor_LegalCase() throws Exception {
+		assertEquals(3, terrain.getNbRows());
+		assertEquals(70, terrain.getNbColumns());
+		assertEquals(2, terrain.getNbBlocksPerRow());
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void constructor_EmptyMap() throws Exception {
+		new Terrain(new boolean[0][0]);
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void constructor_RaggedMap() throws Exception {
+		new Terrain(new boolean[][] {{true, true}, {true}});
+	}
+
+	@Test
+	public void isPassable_SingleCase() {
+		assertFalse(terrain.isPassable(0, 2));
+		assertTrue(terrain.isPassable(0, 3));
+		assertFalse(terrain.isPassable(1, 65));
+		assertTrue(terrain.isPassable(1, 2));
+	}
+
+	@Test (expected = IndexOutOfBoundsException.class)
+	public void isPassable_ColumnInPadding() {
+		terrain.isPassable(0, 70);
+	}
+
+	@Test
+	public void getBlock_SingleCase() {
+		assertEquals(1L << 2, terrain.getBlock(0, 0));
+		assertEquals(0L, terrain.getBlock(1, 0));
+		assertEquals(1L << 1, terrain.getBlock(1, 1));
+	}
+
+	@Test
+	public void isAnyImpassableInRow_TrueCase() {
+		assertTrue(terrain.isAnyImpassableInRow(0, 0, 3));
+		assertTrue(terrain.isAnyImpassableInRow(1, 10, 66));
+		assertTrue(terrain.isAnyImpassableInRow(2, -5, 100));
+	}
+
+	@Test
+	public void isAnyImpassableInRow_FalseCase() {
+		assertFalse(terrain.isAnyImpassableInRow(0, 3, 70));
+		assertFalse(terrain.isAnyImpassableInRow(1, 0, 65));
+		assertFalse(terrain.isAnyImpassableInRow(2, 0, 69));
+		assertFalse(terrain.isAnyImpassableInRow(0, 5, 5));
+	}
+
+	@Test
+	public void toPassableMap_SingleCase() {
+		boolean[][] map = terrain.toPassableMap();
+		for (int row = 0; row < 3; row++) {
+			assertArrayEquals(passableMap[row], map[row]);
+		}
+	}
+
+}
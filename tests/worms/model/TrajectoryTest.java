@@ -0,0 +1,72 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+import static worms.util.Util.*;
+
+/**
+ * A class collecting tests for the class of trajectories.
+ *
+ * @version 1.0
+ * @author Tom Gijselinck
+ *
+ */
+
+public class TrajectoryTest {
+
+	/**
+	 * Variable referencing a trajectory starting at (1, 2) with a velocity of
+	 * (3, 4) m/s under a gravity of 10 m/s^2.
+	 */
+	private static Trajectory trajectory;
+
+	@BeforeClass
+	public static void setUpImmutableFixture() throws Exception {
+		trajectory = new Trajectory(1, 2, 3, 4, 10);
+	}
+
+	@Test
+	public void getX_SingleCase() {
+		assertTrue(fuzzyEquals(4, trajectory.getX(1)));
+	}
+
+	@Test
+	public void getY_SingleCase() {
+		assertTrue(fuzzyEquals(1, trajectory.getY(1)));
+		assertTrue(fuzzyEquals(2.8, trajectory.getMaxY(1)));
+		assertTrue(fuzzyEquals(1, trajectory.getMinY(1)));
+	}
+
+	@Test (expected = IllegalArgumentException.class)
+	public void constructor_IllegalGravity() throws Exception {
+		new Trajectory(0, 0, 1, 1, 0);
+	}
+
+	@Test
+	public void getFirstStepInsideCircle_TrueCase() {
+		// the apex (2.2, 2.8) is reached after 0.4 seconds
+		assertEquals(32, trajectory.getFirstStepInsideCircle(2.2, 3.2, 0.5,
+				0.01, 100));
+	}
+
+	@Test
+	public void getFirstStepInsideCircle_FalseCase() {
+		assertEquals(-1, trajectory.getFirstStepInsideCircle(2.2, 3.4, 0.5,
+				0.01, 100));
+		assertEquals(-1, trajectory.getFirstStepInsideCircle(2.2, 3.2, 0.5,
+				0.01, 31));
+	}
+
+	@Test
+	public void getFirstStepOutside_SingleCase() {
+		// x leaves [0, 2] just after 1/3 seconds
+		assertEquals(34, trajectory.getFirstStepOutside(0, 0, 2, 10, 0.01));
+		// y drops below 0 just after 1.14 seconds
+		assertEquals(115, trajectory.getFirstStepOutside(0, 0, 10, 10, 0.01));
+		// y rises above 2.79 just after 0.35 seconds
+		assertEquals(36, trajectory.getFirstStepOutside(0, 0, 10, 2.79, 0.01));
+	}
+
+}
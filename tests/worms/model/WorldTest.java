@@ -2,6 +2,7 @@ package worms.model;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Random;
 import java.util.Set;
@@ -9,6 +10,9 @@ import java.util.Set;
 import org.junit.Before;
 import org.junit.Test;
 
+import worms.model.programs.ParseOutcome;
+import worms.model.programs.ParseOutcome.Success;
+
 import static worms.util.Util.*;
 
 public class WorldTest {
@@ -188,6 +192,110 @@ public class WorldTest {
 		assertFalse(world1.isAdjacent(new Position(3.5, 2), 0.5));
 	}
 	
+	@Test
+	public void isPassable_Coordinates() {
+		for (int row = 0; row < 10; row++) {
+			for (int column = 0; column < 10; column++) {
+				double x = (column + 0.5) * 0.5;
+				double y = (9 - row + 0.5) * 0.5;
+				assertEquals(passableMap1[row][column], world1.isPassable(x, y));
+			}
+		}
+	}
+	
+	@Test
+	public void isPassableForObject_Coordinates() {
+		assertTrue(world1.isPassableForObject(3.5, 2, 0.5));
+		assertFalse(world1.isPassableForObject(3.5, 2, 1.1));
+	}
+	
+	@Test
+	public void isAdjacent_Coordinates() {
+		assertTrue(world1.isAdjacent(3.5, 1.5, 1));
+		assertFalse(world1.isAdjacent(3.5, 2, 0.5));
+	}
+	
+	/**
+	 * Return the distance from the given coordinates to the nearest impassable
+	 * pixel of the given passable map with pixels of the given size.
+	 */
+	private static double distanceToImpassable(boolean[][] passableMap,
+			double pixelSize, double x, double y) {
+		int nbRows = passableMap.length;
+		double result = Double.POSITIVE_INFINITY;
+		for (int row = 0; row < nbRows; row++) {
+			for (int column = 0; column < passableMap[row].length; column++) {
+				if (passableMap[row][column]) continue;
+				double left = column * pixelSize;
+				double bottom = (nbRows - row - 1) * pixelSize;
+				double dx = Math.max(0, Math.max(left - x, x - left - pixelSize));
+				double dy = Math.max(0,
+						Math.max(bottom - y, y - bottom - pixelSize));
+				result = Math.min(result, Math.hypot(dx, dy));
+			}
+		}
+		return result;
+	}
+	
+	@Test
+	public void getClearance_BoundsDistance() {
+		for (double x = 0.05; x < 5; x += 0.15) {
+			for (double y = 0.05; y < 5; y += 0.15) {
+				double distance = distanceToImpassable(passableMap1, 0.5, x, y);
+				assertTrue(world1.getMinimalClearance(x, y) <= distance);
+				assertTrue(world1.getMaximalClearance(x, y) >= distance);
+				assertEquals(world1.getMinimalClearance(x, y),
+						world1.getMinimalClearance(new Position(x, y)), 0);
+			}
+		}
+	}
+	
+	@Test
+	public void isPassableForObject_SameAsAreaScan() {
+		for (double x = 0.05; x < 5; x += 0.15) {
+			for (double y = 0.05; y < 5; y += 0.15) {
+				for (double radius = 0.25; radius <= 1; radius += 0.25) {
+					assertEquals(world1.isPassableArea(x, y, radius, 0),
+							world1.isPassableForObject(x, y, radius));
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void isAdjacent_SameAsAreaScan() {
+		for (double x = 0.05; x < 5; x += 0.15) {
+			for (double y = 0.05; y < 5; y += 0.15) {
+				for (double radius = 0.25; radius <= 1; radius += 0.25) {
+					boolean expected = world1.isPassableArea(x, y, radius, 0)
+							&& world1.isImpassableArea(x, y, 1.1 * radius, 
+									radius)
+							&& world1.objectInsideWorldBorders(x, y, radius);
+					assertEquals(expected, world1.isAdjacent(x, y, radius));
+					assertEquals(expected, 
+							world1.isAdjacent(new Position(x, y), radius));
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void getOverlappingWorm_Coordinates() {
+		for (double x = 0.05; x < 5; x += 0.15) {
+			for (double y = 0.05; y < 5; y += 0.15) {
+				Worm expected = null;
+				for (Worm worm : world1.getAllWorms()) {
+					if (Math.hypot(x - worm.getX(), y - worm.getY()) 
+							< 0.2 + worm.getRadius()) {
+						expected = worm;
+					}
+				}
+				assertSame(expected, world1.getOverlappingWorm(x, y, 0.2));
+				assertEquals(expected != null, world1.overlaps(x, y, 0.2));
+			}
+		}
+	}
+	
 	@Test
 	public void canHaveAsProjectile_EffectiveProjectileTrueCase() {
 		assertTrue(world1.canHaveAsProjectile(projectile));
@@ -258,6 +366,28 @@ public class WorldTest {
 		}
 	}
 	
+	@Test
+	public void getSurfaces_SingleCase() {
+		assertArrayEquals(new double[] {4}, world2.getSurfaces(2), 0);
+		assertArrayEquals(new double[] {1}, world2.getSurfaces(0), 0);
+		assertEquals(0, world2.getSurfaces(1).length);
+	}
+	
+	@Test
+	public void getLandingHeight_SingleCase() {
+		assertTrue(fuzzyEquals(4.5, world2.getLandingHeight(2.5, 6, 0.5)));
+		assertTrue(fuzzyEquals(4 + Math.sqrt(0.75),
+				world2.getLandingHeight(4.5, 6, 1)));
+	}
+	
+	@Test
+	public void getLandingHeight_NoSurfaceBelow() {
+		assertEquals(Double.NEGATIVE_INFINITY,
+				world2.getLandingHeight(4.5, 6, 0.5), 0);
+		assertEquals(Double.NEGATIVE_INFINITY,
+				world2.getLandingHeight(2.5, 1.9, 0.5), 0);
+	}
+	
 	@Test
 	public void startGame_SingleCase() {
 		world1.startGame();
@@ -265,6 +395,57 @@ public class WorldTest {
 		assertTrue(world1.getCurrentWorm().equals(world1.getWormAt(0)));
 	}
 	
+	/**
+	 * Return a program that sets its global variable x to 1 when it runs.
+	 */
+	private static Program createMarkingProgram() {
+		ParseOutcome<?> outcome = new Program().parseProgram(
+				"double x; x := 1;", null);
+		return ((Success) outcome).getResult();
+	}
+	
+	private static boolean hasRun(Program program) {
+		return (program.getDoubleVariable(program.getSlot("x")) == 1);
+	}
+	
+	@Test
+	public void startGame_EveryWormProgrammed() {
+		Worm worm3 = new Worm(new Position(4.5, 1), 0, 0.5, "Third worm");
+		world1.addAsWorm(worm3);
+		Worm[] worms = {worm1, worm2, worm3};
+		for (Worm worm : worms) {
+			worm.setProgram(createMarkingProgram());
+		}
+		world1.startGame();
+		for (Worm worm : worms) {
+			assertTrue(hasRun(worm.getProgram()));
+		}
+		assertSame(worm3, world1.getCurrentWorm());
+	}
+	
+	@Test
+	public void startGame_StopsAtPlayerWorm() {
+		Worm worm3 = new Worm(new Position(4.5, 1), 0, 0.5, "Third worm");
+		world1.addAsWorm(worm3);
+		worm1.setProgram(createMarkingProgram());
+		worm3.setProgram(createMarkingProgram());
+		world1.startGame();
+		assertTrue(hasRun(worm1.getProgram()));
+		assertFalse(hasRun(worm3.getProgram()));
+		assertSame(worm2, world1.getCurrentWorm());
+	}
+	
+	@Test
+	public void startGame_SingleProgrammedWorm() {
+		World world = new World(5, 5, passableMap1, new Random());
+		Worm worm = new Worm(new Position(0.5, 1), 0, 0.5, "Lonely worm");
+		world.addAsWorm(worm);
+		worm.setProgram(createMarkingProgram());
+		world.startGame();
+		assertTrue(hasRun(worm.getProgram()));
+		assertSame(worm, world.getCurrentWorm());
+	}
+	
 	@Test
 	public void startNextTurn_SingleCase() {
 		world1.startGame();
@@ -272,12 +453,281 @@ public class WorldTest {
 		assertTrue(world1.getCurrentWorm().equals(world1.getWormAt(1)));
 	}
 	
+	@Test
+	public void startNextTurn_CurrentWormRemoved() {
+		Worm worm3 = new Worm(new Position(4.5, 1), 0, 0.5, "Third worm");
+		world1.addAsWorm(worm3);
+		world1.startGame();
+		world1.startNextTurn();
+		world1.removeAsWorm(worm2);
+		world1.startNextTurn();
+		assertSame(worm3, world1.getCurrentWorm());
+		world1.startNextTurn();
+		assertSame(worm1, world1.getCurrentWorm());
+	}
+	
+	@Test
+	public void hasAsWorm_EqualWormNotAttached() {
+		Worm copy = new Worm(new Position(0.5, 1), 0, 0.5, "First worm");
+		assertTrue(world1.hasAsWorm(worm1));
+		assertFalse(world1.hasAsWorm(copy));
+	}
+	
+	@Test
+	public void removeAsWorm_SingleCase() {
+		world1.removeAsWorm(worm1);
+		assertFalse(world1.hasAsWorm(worm1));
+		assertTrue(worm1.isTerminated());
+		assertEquals(1, world1.getNbWorms());
+		assertSame(worm2, world1.getWormAt(0));
+		assertEquals(0, world1.getIndexOfWorm(worm2));
+		assertEquals(-1, world1.getIndexOfWorm(worm1));
+	}
+	
+	@Test
+	public void addAsWorms_LegalCase() {
+		Worm worm3 = new Worm(new Position(4.5, 1), 0, 0.5, "Third worm");
+		Worm worm4 = new Worm(new Position(2.5, 1), 0, 0.5, "Fourth worm");
+		world1.addAsWorms(Arrays.asList(worm3, worm4));
+		assertEquals(4, world1.getNbWorms());
+		assertTrue(world1.hasAsWorm(worm3) && world1.hasAsWorm(worm4));
+		assertSame(world1, worm4.getWorld());
+	}
+	
+	@Test
+	public void addAsWorms_IllegalWorm() {
+		Worm worm3 = new Worm(new Position(4.5, 1), 0, 0.5, "Third worm");
+		Worm floating = new Worm(new Position(2.5, 3), 0, 0.5, "Floating");
+		try {
+			world1.addAsWorms(Arrays.asList(worm3, floating));
+			fail();
+		} catch (IllegalArgumentException exc) {
+			assertFalse(world1.hasAsWorm(worm3));
+			assertEquals(2, world1.getNbWorms());
+		}
+	}
+	
+	@Test
+	public void getWormsNamed_SingleCase() {
+		assertTrue(world1.getWormsNamed("First worm").contains(worm1));
+		assertFalse(world1.hasWormNamed("Nobody"));
+		worm1.setName("Renamed worm");
+		assertFalse(world1.hasWormNamed("First worm"));
+		assertTrue(world1.getWormsNamed("Renamed worm").contains(worm1));
+	}
+	
+	@Test
+	public void getWormTable_FollowsWorms() {
+		WormTable table = world1.getWormTable();
+		assertEquals(2, table.getNbWorms());
+		worm2.setPosition(new Position(3.5, 1.2));
+		worm2.setCurrentHitPoints(3);
+		assertEquals(1.2, table.getY(1), 0);
+		assertEquals(3, table.getHitPoints(1));
+		assertSame(worm1, world1.getWinningWorm());
+		world1.removeAsWorm(worm1);
+		assertSame(worm2, table.getWormAt(0));
+		assertEquals(1, table.getNbWorms());
+	}
+	
 	@Test
 	public void addWorm_SingleCase() {
 		world1.addWorm(null);
 		assertEquals(3, world1.getNbWorms());
 	}
 	
+	@Test
+	public void addWorm_AdjacentFreePosition() {
+		world2.addWorm(null);
+		world2.addWorm(null);
+		Worm first = world2.getWormAt(0);
+		Worm second = world2.getWormAt(1);
+		assertTrue(world2.isAdjacent(first.getPosition(), first.getRadius()));
+		assertTrue(world2.isAdjacent(second.getPosition(),
+				second.getRadius()));
+		assertTrue(first.getPosition().getDistanceFrom(second.getPosition())
+				>= first.getRadius() + second.getRadius());
+	}
+	
+	@Test
+	public void addWorm_CrowdedWorld() {
+		for (long seed = 0; seed < 500; seed++) {
+			World world = new World(5, 5, passableMap1, new Random(seed));
+			world.addAsWorm(new Worm(new Position(0.5, 1), 0, 0.5, 
+					"First worm"));
+			world.addAsWorm(new Worm(new Position(3.5, 1.5), 0, 1, 
+					"Second worm"));
+			world.addWorm(null);
+			assertEquals(3, world.getNbWorms());
+		}
+	}
+	
+	@Test (expected = IllegalStateException.class)
+	public void addWorm_NoRoom() {
+		World empty = new World(2, 2, new boolean[][] {{true, true},
+				{true, true}}, new Random());
+		empty.addWorm(null);
+	}
+	
+	@Test
+	public void castRay_WormHit() {
+		RayHit hit = world1.castRay(0.5, 1, 0, worm1);
+		assertSame(worm2, hit.getWorm());
+		assertTrue(fuzzyEquals(3 - Math.sqrt(0.75), hit.getDistance()));
+	}
+	
+	@Test
+	public void castRay_TerrainHit() {
+		RayHit hit = world1.castRay(0.5, 1, -Math.PI / 2, worm1);
+		assertTrue(hit.hitsTerrain());
+		assertTrue(fuzzyEquals(0.5, hit.getDistance()));
+	}
+	
+	@Test
+	public void castRay_NothingHit() {
+		assertEquals(RayHit.NONE, world1.castRay(4.75, 2.5, Math.PI / 2,
+				null));
+	}
+	
+	@Test
+	public void searchObject_SingleCase() {
+		worm1.setDirection(Math.PI / 2);
+		assertSame(worm2, world1.searchObject(worm1, - Math.PI / 2));
+		assertNull(world1.searchObject(worm1, Math.PI));
+	}
+	
+	@Test
+	public void launchProjectile_KeepsLiveProjectiles() {
+		Projectile first = world1.launchProjectile(worm1, 1.1, 1, 0, 0.3, 20,
+				30);
+		Projectile second = world1.launchProjectile(worm1, 1.1, 1, 0.5, 0.3,
+				20, 30);
+		assertEquals(2, world1.getNbProjectiles());
+		assertSame(second, world1.getProjectile());
+		assertSame(world1, first.getWorld());
+		assertTrue(world1.hasProperProjectile());
+	}
+	
+	@Test
+	public void stepProjectiles_HitWorm() {
+		int initialHP = worm2.getCurrentHitPoints();
+		world1.launchProjectile(worm1, 1.1, 1, 0, 0.3, 20, 30);
+		world1.stepProjectiles(1, 0.0001);
+		assertEquals(initialHP - 20, worm2.getCurrentHitPoints());
+		assertFalse(world1.hasProjectile());
+	}
+	
+	@Test
+	public void stepProjectiles_SameAsJump() {
+		Projectile stepped = world1.launchProjectile(worm1, 0.5, 1, 0, 0.3,
+				20, 30);
+		World snapshot = world1.snapshot();
+		Projectile jumped = snapshot.getProjectile();
+		jumped.jump(0.0001);
+		world1.stepProjectiles(1, 0.0001);
+		assertTrue(stepped.isTerminated());
+		assertTrue(fuzzyEquals(jumped.getX(), stepped.getX()));
+		assertTrue(fuzzyEquals(jumped.getY(), stepped.getY()));
+		assertEquals(worm1.getHitPointsMaximum(),
+				worm1.getCurrentHitPoints());
+		assertEquals(worm1.getHitPointsMaximum(),
+				snapshot.getWormAt(0).getCurrentHitPoints());
+		assertEquals(worm2.getHitPointsMaximum() - 20,
+				worm2.getCurrentHitPoints());
+		assertEquals(worm2.getHitPointsMaximum() - 20,
+				snapshot.getWormAt(1).getCurrentHitPoints());
+	}
+	
+	@Test
+	public void launchProjectile_AfterHit() {
+		Projectile first = world1.launchProjectile(worm1, 1.1, 1, 0, 0.3, 20,
+				30);
+		world1.stepProjectiles(1, 0.0001);
+		Projectile second = world1.launchProjectile(worm1, 1.1, 1.2, 0.5, 0.3,
+				10, 30);
+		assertNotSame(first, second);
+		assertTrue(first.isTerminated());
+		assertFalse(first.hasWorld());
+		assertFalse(second.isTerminated());
+		assertEquals(10, second.getDamage());
+		assertTrue(fuzzyEquals(1.2, second.getY()));
+	}
+	
+	@Test
+	public void startNextTurn_LandsProjectiles() {
+		int initialHP = worm2.getCurrentHitPoints();
+		world1.startGame();
+		Projectile projectile = world1.launchProjectile(worm1, 1.1, 1, 0, 0.3,
+				20, 30);
+		world1.startNextTurn();
+		assertTrue(projectile.isTerminated());
+		assertFalse(world1.hasProjectile());
+		assertEquals(initialHP - 20 + 10, worm2.getCurrentHitPoints());
+	}
+	
+	@Test
+	public void snapshot_CopiesWorms() {
+		World snapshot = world1.snapshot();
+		assertSame(world1.getTerrain(), snapshot.getTerrain());
+		assertEquals(2, snapshot.getNbWorms());
+		for (int i = 0; i < 2; i++) {
+			Worm original = world1.getWormAt(i);
+			Worm copy = snapshot.getWormAt(i);
+			assertNotSame(original, copy);
+			assertSame(snapshot, copy.getWorld());
+			assertEquals(original.getName(), copy.getName());
+			assertEquals(original.getPosition(), copy.getPosition());
+		}
+		assertTrue(snapshot.hasProperWorms());
+	}
+	
+	@Test
+	public void snapshot_Independent() {
+		World snapshot = world1.snapshot();
+		Worm copy = snapshot.getWormAt(1);
+		copy.decreaseHitPoints(10);
+		snapshot.removeAsWorm(snapshot.getWormAt(0));
+		assertEquals(worm2.getHitPointsMaximum(),
+				worm2.getCurrentHitPoints());
+		assertEquals(2, world1.getNbWorms());
+		worm2.setDirection(1);
+		assertTrue(fuzzyEquals(0, copy.getDirection()));
+		assertEquals(1, snapshot.getNbWorms());
+	}
+	
+	@Test
+	public void snapshot_TurnOrder() {
+		world1.startGame();
+		World snapshot = world1.snapshot();
+		assertTrue(snapshot.isGameStarted());
+		assertEquals(world1.getCurrentWorm().getName(),
+				snapshot.getCurrentWorm().getName());
+		snapshot.startNextTurn();
+		assertSame(worm1, world1.getCurrentWorm());
+		assertEquals(worm2.getName(), snapshot.getCurrentWorm().getName());
+	}
+	
+	@Test
+	public void snapshot_CopiesProjectiles() {
+		world1.launchProjectile(worm1, 1.1, 1, 0, 0.3, 20, 30);
+		World snapshot = world1.snapshot();
+		snapshot.stepProjectiles(1, 0.0001);
+		assertEquals(1, world1.getNbProjectiles());
+		assertEquals(worm2.getHitPointsMaximum(),
+				worm2.getCurrentHitPoints());
+		assertEquals(worm2.getHitPointsMaximum() - 20,
+				snapshot.getWormAt(1).getCurrentHitPoints());
+	}
+	
+	@Test
+	public void snapshot_OwnCaches() {
+		double radius = worm1.getRadius();
+		world1.getSpawnIndex(radius);
+		World snapshot = world1.snapshot();
+		assertSame(snapshot, snapshot.getSpawnIndex(radius).getWorld());
+		assertSame(world1, world1.getSpawnIndex(radius).getWorld());
+	}
+	
 	@Test
 	public void getNameAt_CheckAllNames() {
 		String[] names = world1.getAllNames();
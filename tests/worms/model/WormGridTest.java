@@ -0,0 +1,103 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+/**
+ * A class collecting tests for the class of worm grids.
+ *
+ * @version 1.0
+ * @author Tom Gijselinck
+ *
+ */
+
+public class WormGridTest {
+
+	private WormGrid grid;
+
+	private Worm worm1, worm2, worm3;
+
+	@Before
+	public void setUpMutableFixture() throws Exception {
+		grid = new WormGrid(20, 10);
+		worm1 = new Worm(new Position(1, 1), 0, 0.5, "Worm one");
+		worm2 = new Worm(new Position(8, 5), 0, 0.5, "Worm two");
+		worm3 = new Worm(new Position(18, 9), 0, 0.5, "Worm three");
+		grid.add(worm1);
+		grid.add(worm2);
+		grid.add(worm3);
+	}
+
+	@Test
+	public void add_SingleCase() {
+		assertEquals(3, grid.getNbWorms());
+		assertEquals(0.5, grid.getMaxRadius(), 0);
+		assertTrue(grid.getCellSize() >= 2 * grid.getMaxRadius());
+	}
+
+	@Test
+	public void add_LargeRadius() {
+		Worm bigWorm = new Worm(new Position(12, 5), 0, 3, "Big worm");
+		grid.add(bigWorm);
+		assertEquals(4, grid.getNbWorms());
+		assertTrue(grid.getCellSize() >= 6);
+		assertSame(bigWorm, grid.getOverlappingWorm(9.5, 5, 0.1, null));
+		assertSame(worm1, grid.getOverlappingWorm(1.2, 1.2, 0.1, null));
+	}
+
+	@Test
+	public void remove_SingleCase() {
+		grid.remove(worm2);
+		assertEquals(2, grid.getNbWorms());
+		assertNull(grid.getOverlappingWorm(8, 5, 0.1, null));
+	}
+
+	@Test
+	public void move_SingleCase() {
+		worm2.setPosition(new Position(15, 2));
+		grid.move(worm2, 8, 5);
+		assertNull(grid.getOverlappingWorm(8, 5, 0.1, null));
+		assertSame(worm2, grid.getOverlappingWorm(15, 2.3, 0.1, null));
+		assertEquals(3, grid.getNbWorms());
+	}
+
+	@Test
+	public void getOverlappingWorm_TrueCase() {
+		assertSame(worm2, grid.getOverlappingWorm(8.9, 5, 0.5, null));
+	}
+
+	@Test
+	public void getOverlappingWorm_FalseCase() {
+		assertNull(grid.getOverlappingWorm(9.1, 5, 0.5, null));
+		assertNull(grid.getOverlappingWorm(8, 5, 0.5, worm2));
+	}
+
+	@Test
+	public void getNearestWorm_SingleCase() {
+		assertSame(worm2, grid.getNearestWorm(10, 6, null));
+		assertSame(worm3, grid.getNearestWorm(10, 6, worm2));
+		assertSame(worm1, grid.getNearestWorm(-5, -5, null));
+	}
+
+	@Test
+	public void getNearestWorm_EmptyGrid() {
+		grid.clear();
+		assertNull(grid.getNearestWorm(10, 6, null));
+	}
+
+	@Test
+	public void getFirstWormOnRay_SingleCase() {
+		RayHit hit = grid.getFirstWormOnRay(0, 5, 1, 0, 20, null);
+		assertSame(worm2, hit.getWorm());
+		assertEquals(7.5, hit.getDistance(), 1e-9);
+		hit = grid.getFirstWormOnRay(1, 1, 1, 0, 20, worm1);
+		assertNull(hit);
+	}
+
+	@Test
+	public void getFirstWormOnRay_BeyondMaxDistance() {
+		assertNull(grid.getFirstWormOnRay(0, 5, 1, 0, 7, null));
+	}
+
+}
@@ -0,0 +1,75 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+/**
+ * A class collecting tests for the class of worm tables.
+ *
+ * @version 1.0
+ * @author Tom Gijselinck
+ *
+ */
+
+public class WormTableTest {
+
+	private WormTable table;
+
+	private Worm worm1, worm2, worm3;
+
+	@Before
+	public void setUpMutableFixture() throws Exception {
+		table = new WormTable();
+		worm1 = new Worm(new Position(1, 1), 0, 0.5, "Worm one");
+		worm2 = new Worm(new Position(8, 5), 1, 0.5, "Worm two");
+		worm3 = new Worm(new Position(18, 9), 2, 0.75, "Worm three");
+		table.add(worm1);
+		table.add(worm2);
+		table.add(worm3);
+	}
+
+	@Test
+	public void add_SingleCase() {
+		assertEquals(3, table.getNbWorms());
+		assertSame(worm2, table.getWormAt(1));
+		assertEquals(8, table.getX(1), 0);
+		assertEquals(5, table.getY(1), 0);
+		assertEquals(0.75, table.getRadius(2), 0);
+		assertEquals(worm3.getCurrentHitPoints(), table.getHitPoints(2));
+	}
+
+	@Test
+	public void remove_LastSlotMoves() {
+		assertSame(worm3, table.remove(0));
+		assertEquals(2, table.getNbWorms());
+		assertSame(worm3, table.getWormAt(0));
+		assertEquals(18, table.getX(0), 0);
+		assertNull(table.remove(1));
+		assertEquals(1, table.getNbWorms());
+	}
+
+	@Test (expected = IndexOutOfBoundsException.class)
+	public void getX_SlotTooLarge() {
+		table.getX(3);
+	}
+
+	@Test
+	public void update_SingleCase() {
+		worm2.setPosition(new Position(3, 4));
+		table.update(1);
+		assertEquals(3, table.getX(1), 0);
+		assertEquals(4, table.getY(1), 0);
+	}
+
+	@Test
+	public void getSlotWithMostHitPoints_SingleCase() {
+		worm1.setCurrentHitPoints(5);
+		worm3.setCurrentHitPoints(5);
+		table.update(0);
+		table.update(2);
+		assertEquals(1, table.getSlotWithMostHitPoints());
+		assertEquals(-1, new WormTable().getSlotWithMostHitPoints());
+	}
+
+}
@@ -224,6 +224,60 @@ public class WormTest {
 		assertTrue(fuzzyEquals(1.0, fallableWorm.getPosition().getY(), 0.05));
 	}
 
+	/**
+	 * Return a world of 4 by 4 metres with a floor and a ceiling of one metre.
+	 */
+	private static World createFloorWorld() {
+		return new World(4, 4, new boolean[][] {
+				{false, false, false, false}, {true, true, true, true},
+				{true, true, true, true}, {false, false, false, false}
+		}, new Random(7357));
+	}
+
+	@Test
+	public void move_UpwardOntoFlatFloor() throws Exception {
+		World floorWorld = createFloorWorld();
+		Worm worm = new Worm(new Position(1, 1.5), Math.PI / 2, 0.5, "Worm");
+		floorWorld.addAsWorm(worm);
+		worm.move(1);
+		assertTrue(fuzzyEquals(1, worm.getX()));
+		assertTrue(fuzzyBetween(1.5, 1.55, worm.getY(), DEFAULT_EPSILON));
+		assertTrue(floorWorld.isPassableForObject(worm.getX(), worm.getY(),
+				0.5));
+		assertTrue(floorWorld.isAdjacent(worm.getX(), worm.getY(), 0.5));
+	}
+
+	@Test
+	public void fall_OntoFlatFloor() throws Exception {
+		World floorWorld = createFloorWorld();
+		Worm worm = new Worm(new Position(2, 2.5), 0, 0.5, "Worm");
+		floorWorld.addAsWorm(worm);
+		worm.moveTo(2, 2.2);
+		assertTrue(worm.canFall());
+		worm.fall();
+		assertTrue(fuzzyBetween(1.5, 1.55, worm.getY(), DEFAULT_EPSILON));
+		assertFalse(worm.canFall());
+	}
+
+	/**
+	 * Return a world of 12 by 12 metres with hills of varying slopes and an
+	 * overhang.
+	 */
+	private static World createHillWorld() {
+		// 60x60 pixels of hills with an overhang
+		boolean[][] hills = new boolean[60][60];
+		for (int column = 0; column < 60; column++) {
+			int height = (int) (15 + 8 * Math.sin(column / 7.0) 
+					+ 4 * Math.sin(column / 3.0));
+			for (int row = 0; row < 60; row++) {
+				boolean overhang = (row == 30) && (column >= 20) 
+						&& (column < 35);
+				hills[row][column] = (row < 60 - height) && (! overhang);
+			}
+		}
+		return new World(12, 12, hills, new Random(42));
+	}
+
 	@Test
 	public void jump_SingleCase() throws Exception {
 		moveableWorm.turn(0.3);
@@ -271,6 +325,145 @@ public class WormTest {
 		standardWorm.jumpTime(timeStep);
 	}
 
+	@Test
+	public void jumpTime_CachedUntilTurn() {
+		moveableWorm.turn(0.3);
+		double jumpTime = moveableWorm.jumpTime(timeStep);
+		Trajectory trajectory = moveableWorm.getJumpTrajectory();
+		assertEquals(jumpTime, moveableWorm.jumpTime(timeStep), 0);
+		assertSame(trajectory, moveableWorm.getJumpTrajectory());
+		moveableWorm.turn(0.4);
+		assertNotSame(trajectory, moveableWorm.getJumpTrajectory());
+	}
+	
+	/**
+	 * Return the time the given worm needs for jumping, as found by stepping
+	 * along its trajectory in time steps of the given size and checking the
+	 * terrain each time the worm has moved a tenth of its radius.
+	 */
+	private static double stepwiseJumpTime(Worm worm, double dt) {
+		World world = worm.getWorld();
+		double radius = worm.getRadius();
+		double jumpSpeed = worm.jumpSpeed(worm.getLaunchForce());
+		double vx = jumpSpeed * Math.cos(worm.getDirection());
+		double vy = jumpSpeed * Math.sin(worm.getDirection());
+		double g = GameObject.getGravityOfEarth();
+		double startX = worm.getX();
+		double startY = worm.getY();
+		double x = startX;
+		double y = startY;
+		double ds = 0.1 * radius;
+		double jumpTime = 0;
+		boolean jumping = true;
+		while (jumping
+				&& (Math.hypot(x - startX, y - startY) < radius)
+				&& (world.isInsideWorldBorders(x, y))) {
+			double interval = 0;
+			do {
+				jumpTime += dt;
+				double nextX = startX + vx * jumpTime;
+				double nextY = startY + (vy - 0.5 * g * jumpTime) * jumpTime;
+				interval += Math.hypot(nextX - x, nextY - y);
+				x = nextX;
+				y = nextY;
+			} while (interval < ds);
+			if (world.isImpassableForObject(x, y, radius)) jumping = false;
+		}
+		while (jumping && (world.isInsideWorldBorders(x, y))) {
+			double interval = 0;
+			do {
+				jumpTime += dt;
+				double nextX = startX + vx * jumpTime;
+				double nextY = startY + (vy - 0.5 * g * jumpTime) * jumpTime;
+				interval += Math.hypot(nextX - x, nextY - y);
+				x = nextX;
+				y = nextY;
+			} while (interval < ds);
+			if (world.isAdjacent(x, y, radius)) jumping = false;
+		}
+		if (! world.isInsideWorldBorders(x, y))
+			return Double.POSITIVE_INFINITY;
+		if (! world.isAdjacent(x, y, radius))
+			return 0;
+		return jumpTime;
+	}
+
+	/**
+	 * Check whether the jump trajectory of the given worm passes through
+	 * impassable terrain at some time step before the given time.
+	 */
+	private static boolean passesImpassableTerrain(Worm worm, double dt,
+			double time) {
+		Trajectory trajectory = worm.getJumpTrajectory();
+		World world = worm.getWorld();
+		for (double t = dt; t < time; t += dt) {
+			double x = trajectory.getX(t);
+			double y = trajectory.getY(t);
+			if (! world.isInsideWorldBorders(x, y)) return false;
+			if (world.isImpassableForObject(x, y, worm.getRadius()))
+				return true;
+		}
+		return false;
+	}
+
+	@Test
+	public void jumpTime_SameAsStepwiseSearch() {
+		World hillWorld = createHillWorld();
+		int nbJumps = 0;
+		int nbSame = 0;
+		for (double radius : new double[] {0.3, 0.5, 0.8}) {
+			SpawnIndex spawnIndex = hillWorld.getSpawnIndex(radius);
+			Worm worm = new Worm(new Position(spawnIndex.getX(0),
+					spawnIndex.getY(0)), 0, radius, "Jumper");
+			hillWorld.addAsWorm(worm);
+			int nbPositions = spawnIndex.getNbPositions();
+			for (int index = 0; index < nbPositions;
+					index += Math.max(1, nbPositions / 12)) {
+				worm.moveTo(spawnIndex.getX(index), spawnIndex.getY(index));
+				for (int i = 0; i < 16; i++) {
+					worm.setDirection(2 * Math.PI * i / 16);
+					double expected = stepwiseJumpTime(worm, timeStep);
+					double jumpTime = worm.jumpTime(timeStep);
+					Trajectory trajectory = worm.getJumpTrajectory();
+					nbJumps++;
+					if ((jumpTime == expected) || ((jumpTime > 0)
+							&& (jumpTime <= expected + timeStep)
+							&& (Math.hypot(trajectory.getX(expected)
+									- trajectory.getX(jumpTime),
+								trajectory.getY(expected)
+									- trajectory.getY(jumpTime))
+								<= 0.2 * radius))) {
+						nbSame++;
+					} else {
+						// the step-wise search skipped a landing
+						assertTrue(jumpTime < expected);
+						if (jumpTime == 0) {
+							assertTrue(passesImpassableTerrain(worm, timeStep,
+									expected));
+						} else {
+							assertTrue(hillWorld.isAdjacent(
+									trajectory.getX(jumpTime),
+									trajectory.getY(jumpTime), radius));
+						}
+					}
+				}
+			}
+			hillWorld.removeAsWorm(worm);
+		}
+		assertTrue(nbSame > 0.9 * nbJumps);
+	}
+
+	@Test
+	public void getJumpTrajectory_SingleCase() {
+		moveableWorm.turn(0.7);
+		double initialSpeed = 
+				moveableWorm.jumpSpeed(moveableWorm.getLaunchForce());
+		Position expectedPosition = moveableWorm.jumpStep(1, initialSpeed);
+		Trajectory trajectory = moveableWorm.getJumpTrajectory();
+		assertTrue(fuzzyEquals(expectedPosition.getX(), trajectory.getX(1)));
+		assertTrue(fuzzyEquals(expectedPosition.getY(), trajectory.getY(1)));
+	}
+
 	@Test
 	public void jumpStep_LegalCase() throws Exception {
 		moveableWorm.turn(0.7);
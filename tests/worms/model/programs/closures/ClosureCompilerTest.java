@@ -0,0 +1,85 @@
+package worms.model.programs.closures;
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+import worms.model.Program;
+import worms.model.programs.ParseOutcome;
+import worms.model.programs.ParseOutcome.Success;
+import worms.model.programs.expressions.BoolExpression;
+import worms.model.programs.expressions.DoubleConstantExpression;
+import worms.model.programs.expressions.VariableExpression;
+import worms.model.programs.statements.PrintStatement;
+
+/**
+ * A class collecting tests for the class of closure compilers.
+ *
+ * @version 1.0
+ * @author Tom Gijselinck
+ *
+ */
+public class ClosureCompilerTest {
+
+	private static Program parse(String programText) {
+		ParseOutcome<?> outcome = new Program(false).parseProgram(programText,
+				null);
+		assertTrue(outcome.isSuccess());
+		return ((Success) outcome).getResult();
+	}
+
+	@Test
+	public void run_Loop() {
+		Program program = parse("double x; double y; bool b; x := 10; "
+				+ "y := 0; while (x > 0) do { y := (y + (x * x)); "
+				+ "x := (x - 1); } b := ((y / 5) >= 77);");
+		assertFalse(program.isCompiled());
+		program.run();
+		assertEquals(385, program.getDoubleVariable(program.getSlot("y")), 0);
+		assertTrue(program.getBooleanVariable(program.getSlot("b")));
+	}
+
+	@Test
+	public void run_Equalities() {
+		Program program = parse("entity e; bool a; bool b; bool c; "
+				+ "a := (e == null); b := (a != true); c := (2 == (1 + 1));");
+		program.run();
+		assertTrue(program.getBooleanVariable(program.getSlot("a")));
+		assertFalse(program.getBooleanVariable(program.getSlot("b")));
+		assertTrue(program.getBooleanVariable(program.getSlot("c")));
+	}
+
+	@Test
+	public void run_FailureReportsPosition() {
+		Program program = parse("entity e; double x;\nx := 1;\nx := getx e;");
+		try {
+			program.run();
+			fail();
+		} catch (ProgramExecutionException exc) {
+			assertEquals(3, exc.getLine());
+			assertEquals(0, exc.getCol());
+			assertTrue(exc.getCause() instanceof NullPointerException);
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void compile_UnlinkedVariable() {
+		new ClosureCompiler(null, new double[0], new boolean[0],
+				new Object[0]).compile(new PrintStatement(1, 1,
+				new VariableExpression(1, 7, "x")));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void compileDouble_WrongKind() {
+		new ClosureCompiler(null, new double[0], new boolean[0],
+				new Object[0]).compileDouble(new BoolExpression(1, 1, true));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void compileEntity_WrongKind() {
+		new ClosureCompiler(null, new double[0], new boolean[0],
+				new Object[0]).compileEntity(
+				new DoubleConstantExpression(1, 1, 2));
+	}
+
+}
@@ -0,0 +1,150 @@
+package worms.model.programs.compiler;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.*;
+
+import worms.gui.game.IActionHandler;
+import worms.model.Program;
+import worms.model.Worm;
+import worms.model.programs.ParseOutcome;
+import worms.model.programs.ParseOutcome.Success;
+import worms.model.programs.closures.ProgramExecutionException;
+import worms.model.programs.expressions.VariableExpression;
+import worms.model.programs.statements.PrintStatement;
+
+/**
+ * A class collecting tests for the class of program compilers.
+ *
+ * @version 1.0
+ * @author Tom Gijselinck
+ *
+ */
+public class ProgramCompilerTest {
+
+	/**
+	 * Variable referencing the actions performed through the handler of the
+	 * parsed programs.
+	 */
+	private List<String> actions;
+
+	private IActionHandler handler;
+
+	@Before
+	public void setup() {
+		actions = new ArrayList<String>();
+		handler = new IActionHandler() {
+			public boolean turn(Worm worm, double angle) {
+				actions.add("turn " + angle);
+				return true;
+			}
+			public boolean move(Worm worm) {
+				actions.add("move");
+				return true;
+			}
+			public boolean jump(Worm worm) {
+				actions.add("jump");
+				return true;
+			}
+			public boolean fire(Worm worm, int propulsion) {
+				actions.add("fire " + propulsion);
+				return true;
+			}
+			public boolean toggleWeapon(Worm worm) {
+				actions.add("toggleweap");
+				return true;
+			}
+			public void print(String message) {
+			}
+		};
+	}
+
+	private Program parse(String programText, boolean compiled) {
+		ParseOutcome<?> outcome = new Program(compiled).parseProgram(
+				programText, handler);
+		assertTrue(outcome.isSuccess());
+		return ((Success) outcome).getResult();
+	}
+
+	private static final String LOOP = "double x; double y; bool b; bool c; "
+			+ "entity e; x := 10; y := 0; "
+			+ "while (x > 0) do { y := (y + (x * x)); x := (x - 1); } "
+			+ "b := ((y / 5) >= 77); c := (b != true); "
+			+ "if (e == null) then { y := sqrt(y); } else { y := 0; }";
+
+	@Test
+	public void parseProgram_Compiled() {
+		assertTrue(parse(LOOP, true).isCompiled());
+		assertFalse(parse(LOOP, false).isCompiled());
+	}
+
+	@Test
+	public void run_SameAsInterpreter() {
+		Program compiled = parse(LOOP, true);
+		Program interpreted = parse(LOOP, false);
+		compiled.run();
+		interpreted.run();
+		assertEquals(interpreted.getGlobalVariables().size(),
+				compiled.getGlobalVariables().size());
+		for (String name : new String[] { "x", "y", "b", "c", "e" }) {
+			assertEquals(interpreted.getGlobalVariable(name).getValue(),
+					compiled.getGlobalVariable(name).getValue());
+		}
+		assertEquals(Math.sqrt(385),
+				compiled.getDoubleVariable(compiled.getSlot("y")), 1e-12);
+		assertTrue(compiled.getBooleanVariable(compiled.getSlot("b")));
+		assertFalse(compiled.getBooleanVariable(compiled.getSlot("c")));
+	}
+
+	@Test
+	public void run_Relations() {
+		String text = "double x; bool a; bool b; bool c; bool d; bool e; "
+				+ "bool f; x := 2; a := (x < 3); b := (x <= 2); "
+				+ "c := (x > 2); d := (x >= 3); e := (x == 2); f := (x != 2);";
+		Program program = parse(text, true);
+		assertTrue(program.isCompiled());
+		program.run();
+		assertTrue(program.getBooleanVariable(program.getSlot("a")));
+		assertTrue(program.getBooleanVariable(program.getSlot("b")));
+		assertFalse(program.getBooleanVariable(program.getSlot("c")));
+		assertFalse(program.getBooleanVariable(program.getSlot("d")));
+		assertTrue(program.getBooleanVariable(program.getSlot("e")));
+		assertFalse(program.getBooleanVariable(program.getSlot("f")));
+	}
+
+	@Test
+	public void run_Actions() {
+		Program program = parse("double x; x := 3; while (x > 0) do "
+				+ "{ move; x := (x - 1); } turn 0.5; toggleweap; fire 40; "
+				+ "jump; skip;", true);
+		assertTrue(program.isCompiled());
+		program.run();
+		assertEquals("[move, move, move, turn 0.5, toggleweap, fire 40, jump]",
+				actions.toString());
+	}
+
+	@Test
+	public void run_FailureReportsPosition() {
+		Program program = parse("entity e; double x;\nx := 1;\n"
+				+ "while (x < 2) do { x := getx e; }", true);
+		assertTrue(program.isCompiled());
+		try {
+			program.run();
+			fail();
+		} catch (ProgramExecutionException exc) {
+			assertEquals(3, exc.getLine());
+			assertEquals(19, exc.getCol());
+			assertTrue(exc.getCause() instanceof NullPointerException);
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void generate_UnlinkedVariable() {
+		new ProgramCompiler().generate(new PrintStatement(1, 1,
+				new VariableExpression(1, 7, "x")));
+	}
+
+}
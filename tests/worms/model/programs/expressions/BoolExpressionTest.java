@@ -19,5 +19,10 @@ public class BoolExpressionTest {
 		assertEquals(boolexpr.evaluate(), true);
 	}
 	
+	@Test
+	public void evaluateBoolean_SingleCase() {
+		assertTrue(boolexpr.evaluateBoolean());
+	}
+	
 
 }